@@ -0,0 +1,184 @@
+package com.smartadserver.android.smartcmp.benchmark;
+
+import com.smartadserver.android.smartcmp.consentstring.ConsentString;
+import com.smartadserver.android.smartcmp.model.Language;
+import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.model.VersionConfig;
+import com.smartadserver.android.smartcmp.util.IdBitSet;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * Synthetic vendor lists & consent strings shared by the benchmarks.
+ * <p>
+ * Every generator uses a fixed seed so results can be compared across runs and releases.
+ */
+
+class BenchmarkData {
+
+    // The seed used by every random generator.
+    static private final long SEED = 42;
+
+    // The number of purposes & features of the synthetic vendor lists (same as the official vendor list).
+    static private final int PURPOSE_COUNT = 5;
+    static private final int FEATURE_COUNT = 3;
+
+    // One vendor out of DELETED_VENDOR_INTERVAL is marked as deleted.
+    static private final int DELETED_VENDOR_INTERVAL = 50;
+
+    // The maximum number of blocks of consecutive vendors sharing the same consent, so the consent strings always
+    // fit in the 12 bits entries count of the range encoding.
+    static private final int MAX_CONSENT_BLOCKS = 1000;
+
+    // The fixed dates used by the consent strings.
+    static final Date CREATED = new Date(1525168813000L);
+    static final Date LAST_UPDATED = new Date(1527847213000L);
+
+    /**
+     * Build the JSON of a vendor list with vendors id 1 to vendorCount.
+     *
+     * @param version     The version of the vendor list.
+     * @param vendorCount The number of vendors.
+     * @return The JSON representation of the vendor list.
+     * @throws JSONException should never happen.
+     */
+    static JSONObject vendorListJSON(int version, int vendorCount) throws JSONException {
+        Random random = new Random(SEED);
+
+        JSONObject json = new JSONObject();
+        json.put("vendorListVersion", version);
+        json.put("lastUpdated", "2018-05-30T16:00:15Z");
+
+        JSONArray purposes = new JSONArray();
+        for (int id = 1; id <= PURPOSE_COUNT; id++) {
+            purposes.put(new JSONObject()
+                    .put("id", id)
+                    .put("name", "Purpose " + id)
+                    .put("description", "The description of the purpose " + id + "."));
+        }
+        json.put("purposes", purposes);
+
+        JSONArray features = new JSONArray();
+        for (int id = 1; id <= FEATURE_COUNT; id++) {
+            features.put(new JSONObject()
+                    .put("id", id)
+                    .put("name", "Feature " + id)
+                    .put("description", "The description of the feature " + id + "."));
+        }
+        json.put("features", features);
+
+        JSONArray vendors = new JSONArray();
+        for (int id = 1; id <= vendorCount; id++) {
+            JSONArray purposeIds = new JSONArray();
+            JSONArray legIntPurposeIds = new JSONArray();
+            for (int purposeId = 1; purposeId <= PURPOSE_COUNT; purposeId++) {
+                int kind = random.nextInt(3);
+                if (kind == 1) {
+                    purposeIds.put(purposeId);
+                } else if (kind == 2) {
+                    legIntPurposeIds.put(purposeId);
+                }
+            }
+
+            JSONArray featureIds = new JSONArray();
+            for (int featureId = 1; featureId <= FEATURE_COUNT; featureId++) {
+                if (random.nextBoolean()) {
+                    featureIds.put(featureId);
+                }
+            }
+
+            JSONObject vendor = new JSONObject()
+                    .put("id", id)
+                    .put("name", "Vendor " + id)
+                    .put("purposeIds", purposeIds)
+                    .put("legIntPurposeIds", legIntPurposeIds)
+                    .put("featureIds", featureIds)
+                    .put("policyUrl", "https://vendor" + id + ".example.com/privacy");
+            if (id % DELETED_VENDOR_INTERVAL == 0) {
+                vendor.put("deletedDate", "2018-05-28T00:00:00Z");
+            }
+            vendors.put(vendor);
+        }
+        json.put("vendors", vendors);
+
+        return json;
+    }
+
+    /**
+     * Build a vendor list with vendors id 1 to vendorCount.
+     *
+     * @param version     The version of the vendor list.
+     * @param vendorCount The number of vendors.
+     * @return The vendor list.
+     */
+    static VendorList vendorList(int version, int vendorCount) {
+        try {
+            return new VendorList(vendorListJSON(version, vendorCount));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Build a set of allowed vendors.
+     * <p>
+     * Vendors are grouped in blocks of consecutive ids (at most MAX_CONSENT_BLOCKS blocks), each block being allowed
+     * with the given probability: the set is random for small vendor lists while staying range encodable for large ones.
+     *
+     * @param maxVendorId The maximum vendor id.
+     * @param density     The probability that a vendor is allowed, between 0 and 1.
+     * @return The set of allowed vendors.
+     */
+    static IdBitSet allowedVendors(int maxVendorId, double density) {
+        Random random = new Random(SEED);
+        int blockSize = Math.max(1, (maxVendorId + MAX_CONSENT_BLOCKS - 1) / MAX_CONSENT_BLOCKS);
+
+        IdBitSet allowedVendors = new IdBitSet(maxVendorId);
+        for (int start = 1; start <= maxVendorId; start += blockSize) {
+            if (random.nextDouble() < density) {
+                allowedVendors.setRange(start, Math.min(start + blockSize - 1, maxVendorId));
+            }
+        }
+        return allowedVendors;
+    }
+
+    /**
+     * Build a consent string.
+     *
+     * @param maxVendorId The maximum vendor id.
+     * @param density     The probability that a vendor is allowed, between 0 and 1.
+     * @param encoding    The vendors encoding of the consent string.
+     * @return The consent string (not encoded yet).
+     */
+    static ConsentString consentString(int maxVendorId, double density, ConsentString.ConsentEncoding encoding) {
+        return consentString(maxVendorId, allowedVendors(maxVendorId, density), encoding);
+    }
+
+    /**
+     * Build a consent string.
+     *
+     * @param maxVendorId    The maximum vendor id.
+     * @param allowedVendors The set of allowed vendors, it must not be modified afterwards.
+     * @param encoding       The vendors encoding of the consent string.
+     * @return The consent string (not encoded yet).
+     */
+    static ConsentString consentString(int maxVendorId, IdBitSet allowedVendors, ConsentString.ConsentEncoding encoding) {
+        return new ConsentString(VersionConfig.getLatest(),
+                CREATED,
+                LAST_UPDATED,
+                33,
+                5,
+                0,
+                new Language("en"),
+                1,
+                maxVendorId,
+                0x1F,
+                allowedVendors,
+                encoding);
+    }
+}
@@ -0,0 +1,54 @@
+package com.smartadserver.android.smartcmp.benchmark;
+
+import com.smartadserver.android.smartcmp.consentstring.ConsentString;
+import com.smartadserver.android.smartcmp.consentstring.ConsentStringView;
+import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of base64 consent strings, and vendor consent queries on the encoded string.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConsentStringDecodeBenchmark {
+
+    @Param({"100", "1000", "10000", "65000"})
+    public int vendorCount;
+
+    @Param({"0.1", "0.5", "0.9"})
+    public double density;
+
+    @Param({"BITFIELD", "RANGE"})
+    public ConsentString.ConsentEncoding encoding;
+
+    // The base64 consent string to decode.
+    private String base64String;
+
+    @Setup
+    public void setup() {
+        base64String = BenchmarkData.consentString(vendorCount, density, encoding).getConsentString();
+    }
+
+    @Benchmark
+    public ConsentString fromBase64String() throws UnknownVersionNumberException {
+        return ConsentString.fromBase64String(base64String);
+    }
+
+    @Benchmark
+    public boolean viewIsVendorAllowed() throws UnknownVersionNumberException {
+        ConsentStringView view = ConsentStringView.wrap(base64String);
+        return view.isVendorAllowed(1) & view.isVendorAllowed(vendorCount / 2) & view.isVendorAllowed(vendorCount);
+    }
+}
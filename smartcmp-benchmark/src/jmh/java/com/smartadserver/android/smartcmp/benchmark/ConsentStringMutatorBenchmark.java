@@ -0,0 +1,91 @@
+package com.smartadserver.android.smartcmp.benchmark;
+
+import com.smartadserver.android.smartcmp.consentstring.ConsentString;
+import com.smartadserver.android.smartcmp.model.VendorList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consent string updates, as done by the consent tool and by the ConsentManager when the vendor list changes.
+ * <p>
+ * Every operation returns the base64 string of the updated consent string since it is always stored afterwards.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConsentStringMutatorBenchmark {
+
+    // The highest vendor id that can be encoded in a consent string.
+    static private final int MAX_ENCODABLE_VENDOR_ID = 65535;
+
+    @Param({"100", "1000", "10000", "65000"})
+    public int vendorCount;
+
+    @Param({"0.1", "0.5", "0.9"})
+    public double density;
+
+    // The vendor list of the consent string.
+    private VendorList vendorList;
+
+    // A newer vendor list with 10% more vendors.
+    private VendorList updatedVendorList;
+
+    // The consent string being updated.
+    private ConsentString consentString;
+
+    // A vendor id in the middle of the vendor list.
+    private int vendorId;
+
+    @Setup
+    public void setup() {
+        vendorList = BenchmarkData.vendorList(1, vendorCount);
+        updatedVendorList = BenchmarkData.vendorList(2, Math.min(vendorCount + vendorCount / 10, MAX_ENCODABLE_VENDOR_ID));
+        consentString = BenchmarkData.consentString(vendorList.getMaxVendorId(), density, ConsentString.ConsentEncoding.AUTOMATIC);
+        vendorId = vendorCount / 2;
+    }
+
+    @Benchmark
+    public String addingVendorConsent() {
+        return ConsentString.consentStringByAddingVendorConsent(vendorId, consentString, BenchmarkData.LAST_UPDATED).getConsentString();
+    }
+
+    @Benchmark
+    public String removingVendorConsent() {
+        return ConsentString.consentStringByRemovingVendorConsent(vendorId, consentString, BenchmarkData.LAST_UPDATED).getConsentString();
+    }
+
+    @Benchmark
+    public String addingPurposeConsent() {
+        return ConsentString.consentStringByAddingPurposeConsent(2, consentString, BenchmarkData.LAST_UPDATED).getConsentString();
+    }
+
+    @Benchmark
+    public String removingPurposeConsent() {
+        return ConsentString.consentStringByRemovingPurposeConsent(2, consentString, BenchmarkData.LAST_UPDATED).getConsentString();
+    }
+
+    @Benchmark
+    public String addingAllPurposeConsents() {
+        return ConsentString.consentStringByAddingAllPurposeConsents(vendorList, consentString, BenchmarkData.LAST_UPDATED).getConsentString();
+    }
+
+    @Benchmark
+    public String removingAllPurposeConsents() {
+        return ConsentString.consentStringByRemovingAllPurposeConsents(vendorList, consentString, BenchmarkData.LAST_UPDATED).getConsentString();
+    }
+
+    @Benchmark
+    public String fromUpdatedVendorList() {
+        return ConsentString.consentStringFromUpdatedVendorList(updatedVendorList, vendorList, consentString, BenchmarkData.LAST_UPDATED).getConsentString();
+    }
+}
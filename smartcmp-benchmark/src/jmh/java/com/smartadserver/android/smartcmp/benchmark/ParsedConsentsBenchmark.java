@@ -0,0 +1,51 @@
+package com.smartadserver.android.smartcmp.benchmark;
+
+import com.smartadserver.android.smartcmp.consentstring.ConsentString;
+import com.smartadserver.android.smartcmp.util.IdBitSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation of the 'parsed consents' strings stored in the shared preferences.
+ * <p>
+ * The parsed consents are cached by ConsentString, so every operation works on a new instance.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParsedConsentsBenchmark {
+
+    @Param({"100", "1000", "10000", "65000"})
+    public int vendorCount;
+
+    @Param({"0.1", "0.5", "0.9"})
+    public double density;
+
+    // The allowed vendors of the consent strings (never modified by ConsentString).
+    private IdBitSet allowedVendors;
+
+    @Setup
+    public void setup() {
+        allowedVendors = BenchmarkData.allowedVendors(vendorCount, density);
+    }
+
+    @Benchmark
+    public String parsedVendorConsents() {
+        return BenchmarkData.consentString(vendorCount, allowedVendors, ConsentString.ConsentEncoding.AUTOMATIC).parsedVendorConsents();
+    }
+
+    @Benchmark
+    public String parsedPurposeConsents() {
+        return BenchmarkData.consentString(vendorCount, allowedVendors, ConsentString.ConsentEncoding.AUTOMATIC).parsedPurposeConsents();
+    }
+}
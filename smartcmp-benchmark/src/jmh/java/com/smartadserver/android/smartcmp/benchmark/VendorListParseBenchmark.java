@@ -0,0 +1,75 @@
+package com.smartadserver.android.smartcmp.benchmark;
+
+import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.model.VendorListParser;
+import com.smartadserver.android.smartcmp.model.VendorListSnapshot;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of vendor lists.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VendorListParseBenchmark {
+
+    @Param({"100", "1000", "10000", "65000"})
+    public int vendorCount;
+
+    // The already parsed JSON of the vendor list.
+    private JSONObject json;
+
+    // The raw JSON of the vendor list, as downloaded.
+    private String rawJSON;
+
+    // The UTF-8 bytes of the vendor list, as received from the network.
+    private byte[] rawBytes;
+
+    // The binary snapshot of the vendor list, as persisted on disk.
+    private ByteBuffer snapshot;
+
+    @Setup
+    public void setup() throws JSONException, IOException {
+        json = BenchmarkData.vendorListJSON(1, vendorCount);
+        rawJSON = json.toString();
+        rawBytes = rawJSON.getBytes("UTF-8");
+        snapshot = VendorListSnapshot.encode(VendorListParser.parse(new ByteArrayInputStream(rawBytes)));
+    }
+
+    @Benchmark
+    public VendorList fromJSONObject() throws JSONException, MalformedURLException {
+        return new VendorList(json);
+    }
+
+    @Benchmark
+    public VendorList fromRawJSON() throws JSONException, MalformedURLException {
+        return new VendorList(new JSONObject(rawJSON));
+    }
+
+    @Benchmark
+    public VendorList fromStream() throws JSONException, IOException {
+        return VendorListParser.parse(new ByteArrayInputStream(rawBytes));
+    }
+
+    @Benchmark
+    public VendorList fromSnapshot() throws IOException {
+        return VendorListSnapshot.decode(snapshot.duplicate());
+    }
+}
@@ -0,0 +1,1930 @@
+package com.smartadserver.android.smartcmp.consentstring;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.smartadserver.android.smartcmp.Constants;
+import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberException;
+import com.smartadserver.android.smartcmp.model.Language;
+import com.smartadserver.android.smartcmp.model.Purpose;
+import com.smartadserver.android.smartcmp.model.Vendor;
+import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.model.VendorListDiff;
+import com.smartadserver.android.smartcmp.model.VersionConfig;
+import com.smartadserver.android.smartcmp.util.Base64URLUtils;
+import com.smartadserver.android.smartcmp.util.BitReader;
+import com.smartadserver.android.smartcmp.util.BitWriter;
+import com.smartadserver.android.smartcmp.util.IdBitSet;
+import com.smartadserver.android.smartcmp.util.IdRangeSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Representation of IAB consent string.
+ */
+
+@SuppressWarnings({"WeakerAccess", "SameParameterValue"})
+public class ConsentString {
+
+    // The type of encoding of the consent string.
+    public enum ConsentEncoding {
+        // Bitfield or range encoding, depending on the most efficient solution.
+        AUTOMATIC(0),
+
+        // Bitfield encoding.
+        BITFIELD(1),
+
+        // Range encoding.
+        RANGE(2);
+
+        private int value;
+
+        ConsentEncoding(int value) {
+            this.value = value;
+        }
+
+        @SuppressWarnings("unused")
+        public int getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * The list of range entries encoding a set of vendors for a given default value, with its exact encoded size.
+     */
+    static private class RangeEntries {
+
+        // The default consent value of the entries.
+        public final boolean defaultValue;
+
+        // The bounds of every entry, stored as consecutive (startId, endId) pairs.
+        @NonNull
+        public int[] bounds = new int[16];
+
+        // The number of entries.
+        public int count;
+
+        // The number of bits needed to encode the range section (default consent, number of entries and entries).
+        public int bitSize;
+
+        /**
+         * Create an empty list of range entries.
+         *
+         * @param versionConfig The consent string version configuration.
+         * @param defaultValue  The default consent value of the entries.
+         */
+        public RangeEntries(@NonNull VersionConfig versionConfig, boolean defaultValue) {
+            this.defaultValue = defaultValue;
+            this.bitSize = versionConfig.getDefaultConsentBitSize() + versionConfig.getNumEntriesBitSize();
+        }
+
+        /**
+         * Add an entry to the list.
+         *
+         * @param versionConfig The consent string version configuration.
+         * @param startId       The first id of the entry.
+         * @param endId         The last id of the entry.
+         */
+        public void add(@NonNull VersionConfig versionConfig, int startId, int endId) {
+            if (count * 2 == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[count * 2] = startId;
+            bounds[count * 2 + 1] = endId;
+            count++;
+
+            bitSize += versionConfig.getSingleOrRangeBitSize();
+            bitSize += startId == endId
+                    ? versionConfig.getSingleVendorIdBitSize()
+                    : versionConfig.getStartVendorIdBitSize() + versionConfig.getEndVendorIdBitSize();
+        }
+
+        /**
+         * @param versionConfig The consent string version configuration.
+         * @return true if the number of entries can be encoded, false otherwise.
+         */
+        public boolean isEncodable(@NonNull VersionConfig versionConfig) {
+            return count < 1 << versionConfig.getNumEntriesBitSize();
+        }
+    }
+
+    /**
+     * Accumulates purposes & vendors consent changes on a consent string, then creates the updated consent string at once.
+     * <p>
+     * An Editor is obtained with {@link ConsentString#edit()}. Changes are applied on packed sets, so any number of
+     * changes only costs a single encoding when the updated consent string is used.
+     * <p>
+     * Note: committing will update the version config and the last updated date.
+     */
+    static public class Editor {
+
+        // The consent string being edited.
+        @NonNull
+        private final ConsentString source;
+
+        // The edited purposes mask.
+        private int allowedPurposes;
+
+        // The edited vendors set.
+        @NonNull
+        private IdBitSet allowedVendors;
+
+        // Whether the vendors set is shared with a consent string (and must be copied before any change).
+        private boolean allowedVendorsShared;
+
+        // The edited vendor list version.
+        private int vendorListVersion;
+
+        // The edited max vendor id.
+        private int maxVendorId;
+
+        // The edited consent screen.
+        private int consentScreen;
+
+        // The edited consent language.
+        @NonNull
+        private Language consentLanguage;
+
+        /**
+         * Initialize an Editor on a consent string.
+         *
+         * @param source The consent string being edited.
+         */
+        private Editor(@NonNull ConsentString source) {
+            this.source = source;
+            this.allowedPurposes = source.allowedPurposes;
+            this.allowedVendors = source.vendorBitSet();
+            this.allowedVendorsShared = true;
+            this.vendorListVersion = source.vendorListVersion;
+            this.maxVendorId = source.maxVendorId;
+            this.consentScreen = source.consentScreen;
+            this.consentLanguage = source.consentLanguage;
+        }
+
+        /**
+         * @return The vendors set, copied first if it is shared with a consent string.
+         */
+        @NonNull
+        private IdBitSet mutableVendors() {
+            if (allowedVendorsShared) {
+                allowedVendors = new IdBitSet(allowedVendors);
+                allowedVendorsShared = false;
+            }
+            return allowedVendors;
+        }
+
+        /**
+         * Give consent for some purposes.
+         *
+         * @param purposeIds The purposes id.
+         * @return This Editor.
+         */
+        @NonNull
+        public Editor allowPurposes(@NonNull int... purposeIds) {
+            for (int purposeId : purposeIds) {
+                allowedPurposes |= purposesMask(purposeId);
+            }
+            return this;
+        }
+
+        /**
+         * Remove consent for some purposes.
+         *
+         * @param purposeIds The purposes id.
+         * @return This Editor.
+         */
+        @NonNull
+        public Editor revokePurposes(@NonNull int... purposeIds) {
+            for (int purposeId : purposeIds) {
+                allowedPurposes &= ~purposesMask(purposeId);
+            }
+            return this;
+        }
+
+        /**
+         * Give or remove consent for every purpose that can be encoded.
+         *
+         * @param allowed true to give consent for every purpose, false to remove every purpose consent.
+         * @return This Editor.
+         */
+        @NonNull
+        public Editor setAllPurposes(boolean allowed) {
+            //noinspection ConstantConditions
+            int purposeCount = Math.min(VersionConfig.getLatest().getAllowedPurposesBitSize(), MAX_PURPOSE_ID);
+            allowedPurposes = allowed ? (int) ((1L << purposeCount) - 1) : 0;
+            return this;
+        }
+
+        /**
+         * Give consent for some vendors.
+         *
+         * @param vendorIds The vendors id.
+         * @return This Editor.
+         */
+        @NonNull
+        public Editor allowVendors(@NonNull int... vendorIds) {
+            IdBitSet vendors = mutableVendors();
+            for (int vendorId : vendorIds) {
+                vendors.set(vendorId);
+            }
+            return this;
+        }
+
+        /**
+         * Remove consent for some vendors.
+         *
+         * @param vendorIds The vendors id.
+         * @return This Editor.
+         */
+        @NonNull
+        public Editor revokeVendors(@NonNull int... vendorIds) {
+            IdBitSet vendors = mutableVendors();
+            for (int vendorId : vendorIds) {
+                vendors.clear(vendorId);
+            }
+            return this;
+        }
+
+        /**
+         * Give consent for every vendor between two bounds (both included).
+         * <p>
+         * Vendors above the max vendor id are ignored.
+         *
+         * @param fromVendorId The first vendor id.
+         * @param toVendorId   The last vendor id.
+         * @return This Editor.
+         * @throws IllegalArgumentException if the first vendor id is lower than 1 or greater than the last vendor id.
+         */
+        @NonNull
+        public Editor allowRange(int fromVendorId, int toVendorId) throws IllegalArgumentException {
+            checkRange(fromVendorId, toVendorId);
+            mutableVendors().setRange(fromVendorId, Math.min(toVendorId, maxVendorId));
+            return this;
+        }
+
+        /**
+         * Remove consent for every vendor between two bounds (both included).
+         * <p>
+         * Vendors above the max vendor id are ignored.
+         *
+         * @param fromVendorId The first vendor id.
+         * @param toVendorId   The last vendor id.
+         * @return This Editor.
+         * @throws IllegalArgumentException if the first vendor id is lower than 1 or greater than the last vendor id.
+         */
+        @NonNull
+        public Editor revokeRange(int fromVendorId, int toVendorId) throws IllegalArgumentException {
+            checkRange(fromVendorId, toVendorId);
+            mutableVendors().clearRange(fromVendorId, Math.min(toVendorId, maxVendorId));
+            return this;
+        }
+
+        /**
+         * Check the bounds of a vendors range.
+         *
+         * @param fromVendorId The first vendor id.
+         * @param toVendorId   The last vendor id.
+         * @throws IllegalArgumentException if the first vendor id is lower than 1 or greater than the last vendor id.
+         */
+        static private void checkRange(int fromVendorId, int toVendorId) throws IllegalArgumentException {
+            if (fromVendorId < 1 || fromVendorId > toVendorId) {
+                throw new IllegalArgumentException("Invalid vendors range [" + fromVendorId + ", " + toVendorId + "].");
+            }
+        }
+
+        /**
+         * Give or remove consent for every vendor up to the max vendor id.
+         *
+         * @param allowed true to give consent for every vendor, false to remove every vendor consent.
+         * @return This Editor.
+         */
+        @NonNull
+        public Editor setAllVendors(boolean allowed) {
+            allowedVendors = new IdBitSet(maxVendorId);
+            allowedVendorsShared = false;
+            if (allowed) {
+                allowedVendors.setRange(1, maxVendorId);
+            }
+            return this;
+        }
+
+        /**
+         * Use the version & the max vendor id of a vendor list.
+         *
+         * @param vendorList The vendor list corresponding to the consent string.
+         * @return This Editor.
+         */
+        @NonNull
+        public Editor setVendorList(@NonNull VendorList vendorList) {
+            vendorListVersion = vendorList.getVersion();
+            maxVendorId = vendorList.getMaxVendorId();
+            return this;
+        }
+
+        /**
+         * Set the screen number in the CMP where the consent was given.
+         *
+         * @param consentScreen The consent screen.
+         * @return This Editor.
+         */
+        @NonNull
+        public Editor setConsentScreen(int consentScreen) {
+            this.consentScreen = consentScreen;
+            return this;
+        }
+
+        /**
+         * Set the language that the CMP asked for consent in.
+         *
+         * @param consentLanguage The consent language.
+         * @return This Editor.
+         */
+        @NonNull
+        public Editor setConsentLanguage(@NonNull Language consentLanguage) {
+            this.consentLanguage = consentLanguage;
+            return this;
+        }
+
+        /**
+         * Create a new consent string with every change applied, using the current date as last updated date.
+         *
+         * @return A new consent string.
+         */
+        @NonNull
+        public ConsentString commit() {
+            return commit(new Date());
+        }
+
+        /**
+         * Create a new consent string with every change applied.
+         * <p>
+         * The Editor can still be used afterwards, without affecting the returned consent string.
+         *
+         * @param lastUpdated The date that will be used as last updated date.
+         * @return A new consent string.
+         */
+        @NonNull
+        public ConsentString commit(@NonNull Date lastUpdated) {
+            allowedVendorsShared = true;
+
+            //noinspection ConstantConditions
+            return new ConsentString(VersionConfig.getLatest(),
+                    source.created,
+                    lastUpdated,
+                    source.cmpId,
+                    source.cmpVersion,
+                    consentScreen,
+                    consentLanguage,
+                    vendorListVersion,
+                    maxVendorId,
+                    allowedPurposes,
+                    allowedVendors,
+                    ConsentEncoding.AUTOMATIC);
+        }
+    }
+
+    // The consent string version.
+    private int version;
+
+    // The consent string version configuration.
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private VersionConfig versionConfig;
+
+    // The date of the first consent string creation.
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private Date created;
+
+    // The date of the last consent string update.
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private Date lastUpdated;
+
+    // The id of the last Consent Manager Provider that updated the consent string.
+    private int cmpId;
+
+    // The version of the Consent Manager Provider.
+    private int cmpVersion;
+
+    // The screen number in the CMP where the consent was given.
+    private int consentScreen;
+
+    // The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private Language consentLanguage;
+
+    // The version of the vendor list used in the most recent consent string update.
+    private int vendorListVersion;
+
+    // The maximum vendor id id that can be found in the current vendor list.
+    private int maxVendorId;
+
+    // The number of bits used to encode each letter of the consent language.
+    static final int LANGUAGE_LETTER_BIT_SIZE = 6;
+
+    // The highest purpose id that can be stored in the allowed purposes mask.
+    static final int MAX_PURPOSE_ID = 32;
+
+    // A mask of allowed purposes id (the bit n - 1 is set if the purpose n is allowed).
+    private int allowedPurposes;
+
+    // A packed set of allowed vendors id, expanded from allowedVendorRanges the first time it is needed.
+    @Nullable
+    private IdBitSet allowedVendors;
+
+    // The allowed vendors id of a range decoded consent string, null if they are only stored in allowedVendors.
+    @Nullable
+    private IdRangeSet allowedVendorRanges;
+
+    // The number of allowed vendors.
+    private int allowedVendorCount;
+
+    // Lazily built ArrayList of allowed purposes id, kept for compatibility.
+    @Nullable
+    private ArrayList<Integer> allowedPurposesList;
+
+    // Lazily built ArrayList of allowed vendors id, kept for compatibility.
+    @Nullable
+    private ArrayList<Integer> allowedVendorsList;
+
+    // Lazily built sorted array of allowed vendors id.
+    @Nullable
+    private int[] allowedVendorIds;
+
+    // Lazily built 'parsed purpose consents' string.
+    @Nullable
+    private String parsedPurposeConsents;
+
+    // Lazily built 'parsed vendor consents' string.
+    @Nullable
+    private String parsedVendorConsents;
+
+    // The type of vendors encoding used to generate the base64 consent string.
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private ConsentEncoding vendorListEncoding;
+
+    // The Base64 representation of the consent string, lazily encoded (or the original string if decoded).
+    @Nullable
+    private String consentString;
+
+    /**
+     * Initialize a new instance of ConsentString using a vendor list version and a max vendor id.
+     *
+     * @param version           The consent string version.
+     * @param created           The date of the first consent string creation.
+     * @param lastUpdated       The date of the last consent string update.
+     * @param cmpId             The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion        The version of the Consent Manager Provider.
+     * @param consentScreen     The screen number in the CMP where the consent was given.
+     * @param consentLanguage   The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+     * @param vendorListVersion The version of the vendor list used in the most recent consent string update.
+     * @param maxVendorId       The maximum vendor id id that can be found in the current vendor list.
+     * @param allowedPurposes   An array of allowed purposes id.
+     * @param allowedVendors    An array of allowed vendors id.
+     */
+    public ConsentString(int version,
+                         @NonNull Date created,
+                         @NonNull Date lastUpdated,
+                         int cmpId,
+                         int cmpVersion,
+                         int consentScreen,
+                         @NonNull Language consentLanguage,
+                         int vendorListVersion,
+                         int maxVendorId,
+                         @NonNull ArrayList<Integer> allowedPurposes,
+                         @NonNull ArrayList<Integer> allowedVendors) throws UnknownVersionNumberException {
+
+        VersionConfig versionConfig = new VersionConfig(version);
+        init(versionConfig,
+                created,
+                lastUpdated,
+                cmpId,
+                cmpVersion,
+                consentScreen,
+                consentLanguage,
+                vendorListVersion,
+                maxVendorId,
+                allowedPurposes,
+                allowedVendors,
+                ConsentEncoding.AUTOMATIC);
+    }
+
+
+    /**
+     * Initialize a new instance of ConsentString using a vendor list version and a max vendor id.
+     *
+     * @param versionConfig     The consent string version configuration.
+     * @param created           The date of the first consent string creation.
+     * @param lastUpdated       The date of the last consent string update.
+     * @param cmpId             The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion        The version of the Consent Manager Provider.
+     * @param consentScreen     The screen number in the CMP where the consent was given.
+     * @param consentLanguage   The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+     * @param vendorListVersion The version of the vendor list used in the most recent consent string update.
+     * @param maxVendorId       The maximum vendor id id that can be found in the current vendor list.
+     * @param allowedPurposes   An array of allowed purposes id.
+     * @param allowedVendors    An array of allowed vendors id.
+     */
+    public ConsentString(@NonNull VersionConfig versionConfig,
+                         @NonNull Date created,
+                         @NonNull Date lastUpdated,
+                         int cmpId,
+                         int cmpVersion,
+                         int consentScreen,
+                         @NonNull Language consentLanguage,
+                         int vendorListVersion,
+                         int maxVendorId,
+                         @NonNull ArrayList<Integer> allowedPurposes,
+                         @NonNull ArrayList<Integer> allowedVendors) {
+
+        init(versionConfig,
+                created,
+                lastUpdated,
+                cmpId,
+                cmpVersion,
+                consentScreen,
+                consentLanguage,
+                vendorListVersion,
+                maxVendorId,
+                allowedPurposes,
+                allowedVendors,
+                ConsentEncoding.AUTOMATIC);
+    }
+
+    /**
+     * Initialize a new instance of ConsentString using a vendor list.
+     *
+     * @param versionConfig   The consent string version configuration.
+     * @param created         The date of the first consent string creation.
+     * @param lastUpdated     The date of the last consent string update.
+     * @param cmpId           The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion      The version of the Consent Manager Provider.
+     * @param consentScreen   The screen number in the CMP where the consent was given.
+     * @param consentLanguage The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+     * @param vendorList      The vendor list corresponding to the consent string.
+     * @param allowedPurposes An array of allowed purposes id.
+     * @param allowedVendors  An array of allowed vendors id.
+     */
+    public ConsentString(@NonNull VersionConfig versionConfig,
+                         @NonNull Date created,
+                         @NonNull Date lastUpdated,
+                         int cmpId,
+                         int cmpVersion,
+                         int consentScreen,
+                         @NonNull Language consentLanguage,
+                         @NonNull VendorList vendorList,
+                         @NonNull ArrayList<Integer> allowedPurposes,
+                         @NonNull ArrayList<Integer> allowedVendors) {
+
+        init(versionConfig,
+                created,
+                lastUpdated,
+                cmpId,
+                cmpVersion,
+                consentScreen,
+                consentLanguage,
+                vendorList.getVersion(),
+                vendorList.getMaxVendorId(),
+                allowedPurposes,
+                allowedVendors,
+                ConsentEncoding.AUTOMATIC);
+    }
+
+    /**
+     * Initialize a new instance of ConsentString by copying the given one.
+     *
+     * @param consentString The ConsentString to copy.
+     */
+    public ConsentString(@NonNull ConsentString consentString) {
+        this(consentString.versionConfig,
+                consentString.created,
+                consentString.lastUpdated,
+                consentString.cmpId,
+                consentString.cmpVersion,
+                consentString.consentScreen,
+                consentString.consentLanguage,
+                consentString.vendorListVersion,
+                consentString.maxVendorId,
+                consentString.allowedPurposes,
+                consentString.allowedVendors,
+                consentString.allowedVendorRanges,
+                consentString.vendorListEncoding);
+
+        // The copy shares the strings that have already been computed.
+        this.consentString = consentString.consentString;
+        this.parsedPurposeConsents = consentString.parsedPurposeConsents;
+        this.parsedVendorConsents = consentString.parsedVendorConsents;
+    }
+
+    /**
+     * Initialize a new instance of ConsentString.
+     *
+     * @param versionConfig      The consent string version configuration.
+     * @param created            The date of the first consent string creation.
+     * @param lastUpdated        The date of the last consent string update.
+     * @param cmpId              The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion         The version of the Consent Manager Provider.
+     * @param consentScreen      The screen number in the CMP where the consent was given.
+     * @param consentLanguage    The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+     * @param vendorListVersion  The version of the vendor list used in the most recent consent string update.
+     * @param maxVendorId        The maximum vendor id id that can be found in the current vendor list.
+     * @param allowedPurposes    An array of allowed purposes id.
+     * @param allowedVendors     An array of allowed vendors id.
+     * @param vendorListEncoding The type of vendors encoding that should be used to generate the base64 consent string.
+     */
+    ConsentString(@NonNull VersionConfig versionConfig,
+                  @NonNull Date created,
+                  @NonNull Date lastUpdated,
+                  int cmpId,
+                  int cmpVersion,
+                  int consentScreen,
+                  @NonNull Language consentLanguage,
+                  int vendorListVersion,
+                  int maxVendorId,
+                  @NonNull ArrayList<Integer> allowedPurposes,
+                  @NonNull ArrayList<Integer> allowedVendors,
+                  @NonNull ConsentEncoding vendorListEncoding) {
+
+        init(versionConfig,
+                created,
+                lastUpdated,
+                cmpId,
+                cmpVersion,
+                consentScreen,
+                consentLanguage,
+                vendorListVersion,
+                maxVendorId,
+                allowedPurposes,
+                allowedVendors,
+                vendorListEncoding);
+
+    }
+
+    /**
+     * Initialize a new instance of ConsentString from packed purposes & vendors.
+     *
+     * @param versionConfig      The consent string version configuration.
+     * @param created            The date of the first consent string creation.
+     * @param lastUpdated        The date of the last consent string update.
+     * @param cmpId              The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion         The version of the Consent Manager Provider.
+     * @param consentScreen      The screen number in the CMP where the consent was given.
+     * @param consentLanguage    The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+     * @param vendorListVersion  The version of the vendor list used in the most recent consent string update.
+     * @param maxVendorId        The maximum vendor id id that can be found in the current vendor list.
+     * @param allowedPurposes    A mask of allowed purposes id (the bit n - 1 is set if the purpose n is allowed).
+     * @param allowedVendors     A packed set of allowed vendors id. It must not be modified afterwards.
+     * @param vendorListEncoding The type of vendors encoding that should be used to generate the base64 consent string.
+     */
+    public ConsentString(@NonNull VersionConfig versionConfig,
+                         @NonNull Date created,
+                         @NonNull Date lastUpdated,
+                         int cmpId,
+                         int cmpVersion,
+                         int consentScreen,
+                         @NonNull Language consentLanguage,
+                         int vendorListVersion,
+                         int maxVendorId,
+                         int allowedPurposes,
+                         @NonNull IdBitSet allowedVendors,
+                         @NonNull ConsentEncoding vendorListEncoding) {
+
+        init(versionConfig,
+                created,
+                lastUpdated,
+                cmpId,
+                cmpVersion,
+                consentScreen,
+                consentLanguage,
+                vendorListVersion,
+                maxVendorId,
+                allowedPurposes,
+                allowedVendors,
+                null,
+                vendorListEncoding);
+    }
+
+    /**
+     * Initialize a new instance of ConsentString from packed purposes & vendors and their base64 representation.
+     *
+     * @param versionConfig      The consent string version configuration.
+     * @param created            The date of the first consent string creation.
+     * @param lastUpdated        The date of the last consent string update.
+     * @param cmpId              The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion         The version of the Consent Manager Provider.
+     * @param consentScreen      The screen number in the CMP where the consent was given.
+     * @param consentLanguage    The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+     * @param vendorListVersion  The version of the vendor list used in the most recent consent string update.
+     * @param maxVendorId        The maximum vendor id id that can be found in the current vendor list.
+     * @param allowedPurposes    A mask of allowed purposes id (the bit n - 1 is set if the purpose n is allowed).
+     * @param allowedVendors     A packed set of allowed vendors id. It must not be modified afterwards.
+     * @param vendorListEncoding The type of vendors encoding that should be used to generate the base64 consent string.
+     * @param consentString      The base64 consent string encoding these values, returned as is instead of being encoded again.
+     */
+    public ConsentString(@NonNull VersionConfig versionConfig,
+                         @NonNull Date created,
+                         @NonNull Date lastUpdated,
+                         int cmpId,
+                         int cmpVersion,
+                         int consentScreen,
+                         @NonNull Language consentLanguage,
+                         int vendorListVersion,
+                         int maxVendorId,
+                         int allowedPurposes,
+                         @NonNull IdBitSet allowedVendors,
+                         @NonNull ConsentEncoding vendorListEncoding,
+                         @NonNull String consentString) {
+
+        this(versionConfig,
+                created,
+                lastUpdated,
+                cmpId,
+                cmpVersion,
+                consentScreen,
+                consentLanguage,
+                vendorListVersion,
+                maxVendorId,
+                allowedPurposes,
+                allowedVendors,
+                vendorListEncoding);
+        this.consentString = consentString;
+    }
+
+    /**
+     * Initialize a new instance of ConsentString from packed purposes & vendors stored as a bitset, as ranges or both.
+     *
+     * @param versionConfig       The consent string version configuration.
+     * @param created             The date of the first consent string creation.
+     * @param lastUpdated         The date of the last consent string update.
+     * @param cmpId               The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion          The version of the Consent Manager Provider.
+     * @param consentScreen       The screen number in the CMP where the consent was given.
+     * @param consentLanguage     The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+     * @param vendorListVersion   The version of the vendor list used in the most recent consent string update.
+     * @param maxVendorId         The maximum vendor id id that can be found in the current vendor list.
+     * @param allowedPurposes     A mask of allowed purposes id (the bit n - 1 is set if the purpose n is allowed).
+     * @param allowedVendors      A packed set of allowed vendors id, null if allowedVendorRanges is set.
+     * @param allowedVendorRanges The ranges of allowed vendors id, null if allowedVendors is set.
+     * @param vendorListEncoding  The type of vendors encoding that should be used to generate the base64 consent string.
+     */
+    private ConsentString(@NonNull VersionConfig versionConfig,
+                          @NonNull Date created,
+                          @NonNull Date lastUpdated,
+                          int cmpId,
+                          int cmpVersion,
+                          int consentScreen,
+                          @NonNull Language consentLanguage,
+                          int vendorListVersion,
+                          int maxVendorId,
+                          int allowedPurposes,
+                          @Nullable IdBitSet allowedVendors,
+                          @Nullable IdRangeSet allowedVendorRanges,
+                          @NonNull ConsentEncoding vendorListEncoding) {
+
+        init(versionConfig,
+                created,
+                lastUpdated,
+                cmpId,
+                cmpVersion,
+                consentScreen,
+                consentLanguage,
+                vendorListVersion,
+                maxVendorId,
+                allowedPurposes,
+                allowedVendors,
+                allowedVendorRanges,
+                vendorListEncoding);
+    }
+
+    /**
+     * Initialize a new instance of ConsentString.
+     *
+     * @param versionConfig      The consent string version configuration.
+     * @param created            The date of the first consent string creation.
+     * @param lastUpdated        The date of the last consent string update.
+     * @param cmpId              The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion         The version of the Consent Manager Provider.
+     * @param consentScreen      The screen number in the CMP where the consent was given.
+     * @param consentLanguage    The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+     * @param vendorListVersion  The version of the vendor list used in the most recent consent string update.
+     * @param maxVendorId        The maximum vendor id id that can be found in the current vendor list.
+     * @param allowedPurposes    An array of allowed purposes id.
+     * @param allowedVendors     An array of allowed vendors id.
+     * @param vendorListEncoding The type of vendors encoding that should be used to generate the base64 consent string.
+     */
+    private void init(@NonNull VersionConfig versionConfig,
+                      @NonNull Date created,
+                      @NonNull Date lastUpdated,
+                      int cmpId,
+                      int cmpVersion,
+                      int consentScreen,
+                      @NonNull Language consentLanguage,
+                      int vendorListVersion,
+                      int maxVendorId,
+                      @NonNull ArrayList<Integer> allowedPurposes,
+                      @NonNull ArrayList<Integer> allowedVendors,
+                      @NonNull ConsentEncoding vendorListEncoding) {
+
+        init(versionConfig,
+                created,
+                lastUpdated,
+                cmpId,
+                cmpVersion,
+                consentScreen,
+                consentLanguage,
+                vendorListVersion,
+                maxVendorId,
+                purposesMask(allowedPurposes),
+                new IdBitSet(allowedVendors),
+                null,
+                vendorListEncoding);
+    }
+
+    /**
+     * Initialize a new instance of ConsentString from packed purposes & vendors.
+     *
+     * @param versionConfig      The consent string version configuration.
+     * @param created            The date of the first consent string creation.
+     * @param lastUpdated        The date of the last consent string update.
+     * @param cmpId              The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion         The version of the Consent Manager Provider.
+     * @param consentScreen      The screen number in the CMP where the consent was given.
+     * @param consentLanguage    The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+     * @param vendorListVersion  The version of the vendor list used in the most recent consent string update.
+     * @param maxVendorId        The maximum vendor id id that can be found in the current vendor list.
+     * @param allowedPurposes    A mask of allowed purposes id (the bit n - 1 is set if the purpose n is allowed).
+     * @param allowedVendors      A packed set of allowed vendors id, null if allowedVendorRanges is set.
+     * @param allowedVendorRanges The ranges of allowed vendors id, null if allowedVendors is set.
+     * @param vendorListEncoding  The type of vendors encoding that should be used to generate the base64 consent string.
+     */
+    private void init(@NonNull VersionConfig versionConfig,
+                      @NonNull Date created,
+                      @NonNull Date lastUpdated,
+                      int cmpId,
+                      int cmpVersion,
+                      int consentScreen,
+                      @NonNull Language consentLanguage,
+                      int vendorListVersion,
+                      int maxVendorId,
+                      int allowedPurposes,
+                      @Nullable IdBitSet allowedVendors,
+                      @Nullable IdRangeSet allowedVendorRanges,
+                      @NonNull ConsentEncoding vendorListEncoding) {
+
+        this.version = versionConfig.getVersion();
+        this.versionConfig = versionConfig;
+        this.created = created;
+        this.lastUpdated = lastUpdated;
+        this.cmpId = cmpId;
+        this.cmpVersion = cmpVersion;
+        this.consentScreen = consentScreen;
+        this.consentLanguage = consentLanguage;
+        this.vendorListVersion = vendorListVersion;
+        this.maxVendorId = maxVendorId;
+        this.allowedPurposes = allowedPurposes;
+        this.allowedVendors = allowedVendors;
+        this.allowedVendorRanges = allowedVendorRanges;
+        this.allowedVendorCount = allowedVendorRanges != null ? allowedVendorRanges.cardinality() : vendorBitSet().cardinality();
+        this.vendorListEncoding = vendorListEncoding;
+
+        // The base64 string is only encoded when needed, but invalid values are still rejected right away.
+        checkEncodable(versionConfig, created, lastUpdated, cmpId, cmpVersion, consentScreen, consentLanguage, vendorListVersion, maxVendorId);
+        this.consentString = null;
+    }
+
+    /**
+     * Check if a purpose is allowed by the consent string.
+     *
+     * @param purposeId The purpose id which should be checked.
+     * @return true if the purpose is allowed, false otherwise.
+     */
+    public boolean isPurposeAllowed(int purposeId) {
+        return isPurposeInMask(allowedPurposes, purposeId);
+    }
+
+    /**
+     * Check if a vendor is allowed by the consent string.
+     *
+     * @param vendorId The vendor id which should be checked.
+     * @return true if the vendor is allowed, false otherwise.
+     */
+    public boolean isVendorAllowed(int vendorId) {
+        IdRangeSet ranges = allowedVendorRanges;
+        return ranges != null ? ranges.get(vendorId) : vendorBitSet().get(vendorId);
+    }
+
+    /**
+     * Return the allowed vendors as a bitset, expanding the vendors ranges of a range decoded consent string the
+     * first time it is called.
+     * <p>
+     * Note: the bitset can be shared with other consent strings and must not be modified.
+     *
+     * @return A packed set of allowed vendors id.
+     */
+    @SuppressWarnings("ConstantConditions")
+    @NonNull
+    private IdBitSet vendorBitSet() {
+        IdBitSet result = allowedVendors;
+        if (result == null) {
+            // allowedVendorRanges is always set when allowedVendors is not.
+            result = allowedVendorRanges.toBitSet();
+            allowedVendors = result;
+        }
+        return result;
+    }
+
+    /**
+     * Return the allowed vendors as a packed set.
+     * <p>
+     * Note: the set is shared with this consent string and must not be modified.
+     *
+     * @return A packed set of allowed vendors id.
+     */
+    @NonNull
+    public IdBitSet allowedVendorsBitSet() {
+        return vendorBitSet();
+    }
+
+    /**
+     * Return the sorted ids of all allowed vendors.
+     * <p>
+     * Note: the array is shared between calls and must not be modified.
+     *
+     * @return A sorted array of allowed vendors id.
+     */
+    @NonNull
+    public int[] allowedVendorIds() {
+        if (allowedVendorIds == null) {
+            IdRangeSet ranges = allowedVendorRanges;
+            allowedVendorIds = ranges != null ? ranges.toArray() : vendorBitSet().toArray();
+        }
+        return allowedVendorIds;
+    }
+
+    /**
+     * @return The number of allowed vendors.
+     */
+    public int allowedVendorCount() {
+        return allowedVendorCount;
+    }
+
+    /**
+     * Returns 'parsed purpose consents' string that can be stored in the IABConsent_ParsedPurposeConsents key.
+     *
+     * @return The 'parsed purpose consents' string that can be stored in the IABConsent_ParsedPurposeConsents key.
+     */
+    @NonNull
+    public String parsedPurposeConsents() {
+        String result = parsedPurposeConsents;
+        if (result == null) {
+            char[] consents = new char[versionConfig.getAllowedPurposesBitSize()];
+            for (int i = 0; i < consents.length; i++) {
+                consents[i] = isPurposeInMask(allowedPurposes, i + 1) ? '1' : '0';
+            }
+
+            result = new String(consents);
+            parsedPurposeConsents = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns The 'parsed vendor consents' string that can be stored in the IABConsent_ParsedVendorConsents key.
+     *
+     * @return The 'parsed vendor consents' string that can be stored in the IABConsent_ParsedVendorConsents key.
+     */
+    @NonNull
+    public String parsedVendorConsents() {
+        String result = parsedVendorConsents;
+        if (result == null) {
+            char[] consents = new char[maxVendorId];
+            Arrays.fill(consents, '0');
+
+            // Only the allowed vendors need to be visited.
+            IdRangeSet ranges = allowedVendorRanges;
+            if (ranges != null) {
+                for (int i = 0; i < ranges.rangeCount() && ranges.rangeStart(i) <= maxVendorId; i++) {
+                    Arrays.fill(consents, ranges.rangeStart(i) - 1, Math.min(ranges.rangeEnd(i), maxVendorId), '1');
+                }
+            } else {
+                IdBitSet vendors = vendorBitSet();
+                for (int id = vendors.nextSetId(1); id != -1 && id <= maxVendorId; id = vendors.nextSetId(id + 1)) {
+                    consents[id - 1] = '1';
+                }
+            }
+
+            result = new String(consents);
+            parsedVendorConsents = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new instance of ConsentString from a base64 string.
+     *
+     * @param base64String The base64 consent string.
+     * @return a new instance of ConsentString if the string is valid.
+     * @throws IllegalArgumentException      if the string is not valid.
+     * @throws UnknownVersionNumberException if the ConsentString version number is not valid.
+     */
+    static public ConsentString fromBase64String(@NonNull String base64String) throws UnknownVersionNumberException, IllegalArgumentException {
+        ConsentString consentString = ConsentString.decode(new BitReader(Base64URLUtils.decode(base64String)));
+
+        // Keeping the original string so it never needs to be encoded again.
+        if (consentString != null) {
+            consentString.consentString = base64String;
+        }
+
+        return consentString;
+    }
+
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ConsentString that = (ConsentString) o;
+
+        if (version != that.version) return false;
+        if (cmpId != that.cmpId) return false;
+        if (cmpVersion != that.cmpVersion) return false;
+        if (consentScreen != that.consentScreen) return false;
+        if (vendorListVersion != that.vendorListVersion) return false;
+        if (maxVendorId != that.maxVendorId) return false;
+        if (!created.equals(that.created)) return false;
+        if (!lastUpdated.equals(that.lastUpdated)) return false;
+        if (!consentLanguage.equals(that.consentLanguage)) return false;
+        if (allowedPurposes != that.allowedPurposes) return false;
+        if (allowedVendorCount != that.allowedVendorCount) return false;
+        if (allowedVendorRanges != null && that.allowedVendorRanges != null) {
+            return allowedVendorRanges.equals(that.allowedVendorRanges);
+        }
+        return vendorBitSet().equals(that.vendorBitSet());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(new Object[]{version, created, lastUpdated, cmpId, cmpVersion, consentScreen, consentLanguage,
+                vendorListVersion, maxVendorId, allowedPurposes, allowedVendorCount});
+    }
+
+
+    //////////////////
+    //// Encoding ////
+    //////////////////
+
+    /**
+     * Return a base64 consent string corresponding to the ConsentString instance.
+     *
+     * @param versionConfig      The consent string version configuration.
+     * @param created            The date of the first consent string creation.
+     * @param lastUpdated        The date of the last consent string update.
+     * @param cmpId              The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion         The version of the Consent Manager Provider.
+     * @param consentScreen      The screen number in the CMP where the consent was given.
+     * @param consentLanguage    The language that the CMP asked for consent in (in two-letters ISO 639-1 format).
+     * @param vendorListVersion  The version of the vendor list used in the most recent consent string update.
+     * @param maxVendorId        The maximum vendor id id that can be found in the current vendor list.
+     * @param allowedPurposes    A mask of allowed purposes id (the bit n - 1 is set if the purpose n is allowed).
+     * @param allowedVendors     A packed set of allowed vendors id.
+     * @param vendorListEncoding The type of vendors encoding that should be used to generate the base64 consent string.
+     * @return A base64 consent string corresponding to the ConsentString instance.
+     * @throws IllegalArgumentException When one of the arguments can't be encoded on its number of bits.
+     */
+    static private String encode(@NonNull VersionConfig versionConfig,
+                                 @NonNull Date created,
+                                 @NonNull Date lastUpdated,
+                                 int cmpId,
+                                 int cmpVersion,
+                                 int consentScreen,
+                                 @NonNull Language consentLanguage,
+                                 int vendorListVersion,
+                                 int maxVendorId,
+                                 int allowedPurposes,
+                                 @NonNull IdBitSet allowedVendors,
+                                 ConsentEncoding vendorListEncoding) throws IllegalArgumentException {
+
+        // Choosing the vendors encoding first: every size is known without writing anything, so only the
+        // most efficient encoding is written and the writer is allocated with the exact size.
+        RangeEntries rangeEntries = null;
+        if (vendorListEncoding != ConsentEncoding.BITFIELD) {
+            rangeEntries = smallestRangeEntries(versionConfig, maxVendorId, allowedVendors);
+            if (vendorListEncoding == ConsentEncoding.AUTOMATIC
+                    && (!rangeEntries.isEncodable(versionConfig) || maxVendorId < rangeEntries.bitSize)) {
+                rangeEntries = null;
+            }
+        }
+        int vendorsBitSize = rangeEntries != null ? rangeEntries.bitSize : maxVendorId;
+
+        BitWriter writer = new BitWriter(versionConfig.getHeaderBitSize() + versionConfig.getMaxVendorIdBitSize() + versionConfig.getEncodingTypeBitSize() + vendorsBitSize);
+        writer.writeInt(versionConfig.getVersion(), VersionConfig.getVersionBitSize());
+        writeDate(writer, created, versionConfig.getCreatedBitSize());
+        writeDate(writer, lastUpdated, versionConfig.getLastUpdatedBitSize());
+        writer.writeInt(cmpId, versionConfig.getCmpIdBitSize());
+        writer.writeInt(cmpVersion, versionConfig.getCmpVersionBitSize());
+        writer.writeInt(consentScreen, versionConfig.getConsentScreenBitSize());
+        writeLanguage(writer, consentLanguage, versionConfig.getConsentLanguageBitSize());
+        writer.writeInt(vendorListVersion, versionConfig.getVendorListVersionBitSize());
+        writePurposesBitField(writer, versionConfig, allowedPurposes);
+
+        if (rangeEntries != null) {
+            writeVendorListRange(writer, versionConfig, maxVendorId, rangeEntries);
+        } else {
+            writeVendorListBitfield(writer, versionConfig, maxVendorId, allowedVendors);
+        }
+
+        return writer.toBase64URL();
+    }
+
+    /**
+     * @return ConsentString's version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return ConsentString's VersionConfig.
+     */
+    @SuppressWarnings("unused")
+    @NonNull
+    public VersionConfig getVersionConfig() {
+        return versionConfig;
+    }
+
+    /**
+     * @return Date of creation.
+     */
+    @NonNull
+    public Date getCreated() {
+        return created;
+    }
+
+    /**
+     * @return Last update date.
+     */
+    @SuppressWarnings("unused")
+    @NonNull
+    public Date getLastUpdated() {
+        return lastUpdated;
+    }
+
+    /**
+     * @return ConsentString's CMP id.
+     */
+    public int getCmpId() {
+        return cmpId;
+    }
+
+    /**
+     * -
+     *
+     * @return ConsentString's CMP version.
+     */
+    public int getCmpVersion() {
+        return cmpVersion;
+    }
+
+    /**
+     * @return ConsentString's consent screen.
+     */
+    public int getConsentScreen() {
+        return consentScreen;
+    }
+
+    /**
+     * @return ConsentString's consent language.
+     */
+    @NonNull
+    public Language getConsentLanguage() {
+        return consentLanguage;
+    }
+
+    /**
+     * @return ConsentString's vendor list version.
+     */
+    public int getVendorListVersion() {
+        return vendorListVersion;
+    }
+
+    /**
+     * @return ConsentString's max vendor id.
+     */
+    public int getMaxVendorId() {
+        return maxVendorId;
+    }
+
+    /**
+     * @return ConsentString's allowed purposes.
+     */
+    @NonNull
+    public ArrayList<Integer> getAllowedPurposes() {
+        if (allowedPurposesList == null) {
+            allowedPurposesList = new ArrayList<>();
+            for (int id = 1; id <= MAX_PURPOSE_ID; id++) {
+                if (isPurposeInMask(allowedPurposes, id)) {
+                    allowedPurposesList.add(id);
+                }
+            }
+        }
+        return allowedPurposesList;
+    }
+
+    /**
+     * @return A mask of allowed purposes id (the bit n - 1 is set if the purpose n is allowed).
+     */
+    public int getAllowedPurposesMask() {
+        return allowedPurposes;
+    }
+
+    /**
+     * @return ConsentString's allowed vendors.
+     */
+    @NonNull
+    public ArrayList<Integer> getAllowedVendors() {
+        if (allowedVendorsList == null) {
+            IdRangeSet ranges = allowedVendorRanges;
+            allowedVendorsList = ranges != null ? ranges.toList() : vendorBitSet().toList();
+        }
+        return allowedVendorsList;
+    }
+
+    /**
+     * @return The type of vendors encoding used to generate the base64 consent string.
+     */
+    @NonNull
+    public ConsentEncoding getVendorListEncoding() {
+        return vendorListEncoding;
+    }
+
+    /**
+     * Return the base64URL encoded consent string.
+     * <p>
+     * The string is encoded on the first call and cached. A ConsentString decoded from a base64 string
+     * returns the original string.
+     *
+     * @return The base64URL encoded consent string.
+     */
+    @NonNull
+    public String getConsentString() {
+        // Concurrent first calls can both encode, but they always produce the same immutable string.
+        String result = consentString;
+        if (result == null) {
+            result = encode(versionConfig,
+                    created,
+                    lastUpdated,
+                    cmpId,
+                    cmpVersion,
+                    consentScreen,
+                    consentLanguage,
+                    vendorListVersion,
+                    maxVendorId,
+                    allowedPurposes,
+                    vendorBitSet(),
+                    vendorListEncoding);
+            consentString = result;
+        }
+        return result;
+    }
+
+    /**
+     * Check that every header value can be encoded, without encoding anything.
+     *
+     * @param versionConfig     The consent string version configuration.
+     * @param created           The date of the first consent string creation.
+     * @param lastUpdated       The date of the last consent string update.
+     * @param cmpId             The id of the last Consent Manager Provider that updated the consent string.
+     * @param cmpVersion        The version of the Consent Manager Provider.
+     * @param consentScreen     The screen number in the CMP where the consent was given.
+     * @param consentLanguage   The language that the CMP asked for consent in.
+     * @param vendorListVersion The version of the vendor list used in the most recent consent string update.
+     * @param maxVendorId       The maximum vendor id that can be found in the current vendor list.
+     * @throws IllegalArgumentException if one of the values can't be encoded.
+     */
+    static private void checkEncodable(@NonNull VersionConfig versionConfig,
+                                       @NonNull Date created,
+                                       @NonNull Date lastUpdated,
+                                       int cmpId,
+                                       int cmpVersion,
+                                       int consentScreen,
+                                       @NonNull Language consentLanguage,
+                                       int vendorListVersion,
+                                       int maxVendorId) throws IllegalArgumentException {
+
+        checkFits(created.getTime() / 100, versionConfig.getCreatedBitSize());
+        checkFits(lastUpdated.getTime() / 100, versionConfig.getLastUpdatedBitSize());
+        checkFits(cmpId, versionConfig.getCmpIdBitSize());
+        checkFits(cmpVersion, versionConfig.getCmpVersionBitSize());
+        checkFits(consentScreen, versionConfig.getConsentScreenBitSize());
+        checkFits(vendorListVersion, versionConfig.getVendorListVersionBitSize());
+        checkFits(maxVendorId, versionConfig.getMaxVendorIdBitSize());
+
+        if (consentLanguage.toString().length() * LANGUAGE_LETTER_BIT_SIZE > versionConfig.getConsentLanguageBitSize()) {
+            throw new IllegalArgumentException("Language " + consentLanguage + " can not be encoded on " + versionConfig.getConsentLanguageBitSize() + " bits.");
+        }
+    }
+
+    /**
+     * Check that a value can be encoded on a given number of bits.
+     *
+     * @param value        The value to check.
+     * @param numberOfBits The number of bits available.
+     * @throws IllegalArgumentException if the value is negative or does not fit in the given number of bits.
+     */
+    static private void checkFits(long value, int numberOfBits) throws IllegalArgumentException {
+        if (value < 0 || (value >>> numberOfBits) != 0) {
+            throw new IllegalArgumentException("Value " + value + " can not be encoded on " + numberOfBits + " bits.");
+        }
+    }
+
+    /**
+     * Write a Date as a number of deciseconds.
+     *
+     * @param writer       The BitWriter in which the date is written.
+     * @param date         The date that needs to be written.
+     * @param numberOfBits The number of bits used to encode the date.
+     * @throws IllegalArgumentException if the date can't be encoded on the given number of bits.
+     */
+    static private void writeDate(@NonNull BitWriter writer, @NonNull Date date, int numberOfBits) throws IllegalArgumentException {
+        writer.writeLong(date.getTime() / 100, numberOfBits);
+    }
+
+    /**
+     * Write a Language as a sequence of letter indexes, left padded with '0' bits.
+     *
+     * @param writer       The BitWriter in which the language is written.
+     * @param language     The language that needs to be written.
+     * @param numberOfBits The number of bits used to encode the language.
+     * @throws IllegalArgumentException if the language can't be encoded on the given number of bits.
+     */
+    static private void writeLanguage(@NonNull BitWriter writer, @NonNull Language language, int numberOfBits) throws IllegalArgumentException {
+        String string = language.toString();
+        int padding = numberOfBits - string.length() * LANGUAGE_LETTER_BIT_SIZE;
+        if (padding < 0) {
+            throw new IllegalArgumentException("Language " + string + " can not be encoded on " + numberOfBits + " bits.");
+        }
+
+        writer.writeInt(0, padding);
+        for (int i = 0; i < string.length(); i++) {
+            writer.writeInt(Language.VALID_LETTERS.indexOf(string.charAt(i)), LANGUAGE_LETTER_BIT_SIZE);
+        }
+    }
+
+    /**
+     * Write a bitfield that encodes an 'allowed purposes' mask.
+     *
+     * @param writer          The BitWriter in which the bitfield is written.
+     * @param versionConfig   The consent string version configuration.
+     * @param allowedPurposes A mask of allowed purposes id.
+     */
+    static private void writePurposesBitField(@NonNull BitWriter writer, @NonNull VersionConfig versionConfig, int allowedPurposes) {
+        for (int idx = 1; idx <= versionConfig.getAllowedPurposesBitSize(); idx++) {
+            writer.writeBool(isPurposeInMask(allowedPurposes, idx));
+        }
+    }
+
+    /**
+     * Write a bitfield that encodes an 'allowed vendors' set.
+     *
+     * @param writer         The BitWriter in which the bitfield is written.
+     * @param versionConfig  The consent string version configuration.
+     * @param maxVendorId    The maximum vendor id that can be found in the current vendor list.
+     * @param allowedVendors A packed set of allowed vendors id.
+     * @throws IllegalArgumentException if the maxVendorId can't be encoded.
+     */
+    static private void writeVendorListBitfield(@NonNull BitWriter writer, @NonNull VersionConfig versionConfig, int maxVendorId, @NonNull IdBitSet allowedVendors) throws IllegalArgumentException {
+        writer.writeInt(maxVendorId, versionConfig.getMaxVendorIdBitSize());
+        writer.writeBits(versionConfig.getEncodingTypeBitfield());
+        writer.writeBitfield(allowedVendors, maxVendorId);
+    }
+
+    /**
+     * Write a complete range list that encodes an 'allowed vendors' set.
+     *
+     * @param writer        The BitWriter in which the range list is written.
+     * @param versionConfig The consent string version configuration.
+     * @param maxVendorId   The maximum vendor id that can be found in the current vendor list.
+     * @param entries       The range entries encoding the allowed vendors set.
+     * @throws IllegalArgumentException if one of the values can't be encoded.
+     */
+    static private void writeVendorListRange(@NonNull BitWriter writer, @NonNull VersionConfig versionConfig, int maxVendorId, @NonNull RangeEntries entries) throws IllegalArgumentException {
+        writer.writeInt(maxVendorId, versionConfig.getMaxVendorIdBitSize());
+        writer.writeBits(versionConfig.getEncodingTypeRange());
+        writer.writeInt(entries.defaultValue ? 1 : 0, versionConfig.getDefaultConsentBitSize());
+        writer.writeInt(entries.count, versionConfig.getNumEntriesBitSize());
+
+        for (int i = 0; i < entries.count; i++) {
+            int startId = entries.bounds[i * 2];
+            int endId = entries.bounds[i * 2 + 1];
+
+            if (startId != endId) {
+                writer.writeBits(versionConfig.getRangeStartEndId());
+                writer.writeInt(startId, versionConfig.getStartVendorIdBitSize());
+                writer.writeInt(endId, versionConfig.getEndVendorIdBitSize());
+            } else {
+                writer.writeBits(versionConfig.getRangeSingleId());
+                writer.writeInt(startId, versionConfig.getSingleVendorIdBitSize());
+            }
+        }
+    }
+
+    /**
+     * Return the shortest range entries corresponding to an allowed vendors set.
+     * <p>
+     * A set containing most of the vendors is much shorter to encode as the few refused vendors with a default
+     * consent value of 1, so both default values are evaluated. The default value 0 is kept on ties.
+     * <p>
+     * Both entry lists are built in a single scan of the set: runs of allowed ids are found a word at a time by
+     * alternating between the next set and the next clear id, and the gaps between them are the runs of refused ids.
+     *
+     * @param versionConfig  The consent string version configuration.
+     * @param maxVendorId    The maximum vendor id that can be found in the current vendor list.
+     * @param allowedVendors A packed set of allowed vendors id.
+     * @return The range entries with the smallest encoded size, preferring encodable entries.
+     */
+    @NonNull
+    static private RangeEntries smallestRangeEntries(@NonNull VersionConfig versionConfig, int maxVendorId, @NonNull IdBitSet allowedVendors) {
+        RangeEntries allowedEntries = new RangeEntries(versionConfig, false);
+        RangeEntries refusedEntries = new RangeEntries(versionConfig, true);
+
+        int id = 1;
+        while (id <= maxVendorId) {
+            int startId = allowedVendors.nextSetId(id);
+            if (startId == -1 || startId > maxVendorId) {
+                // No allowed id left: every remaining id is refused.
+                refusedEntries.add(versionConfig, id, maxVendorId);
+                break;
+            }
+            if (startId > id) {
+                refusedEntries.add(versionConfig, id, startId - 1);
+            }
+
+            int endId = Math.min(allowedVendors.nextClearId(startId) - 1, maxVendorId);
+            allowedEntries.add(versionConfig, startId, endId);
+
+            id = endId + 1;
+        }
+
+        if (allowedEntries.isEncodable(versionConfig) != refusedEntries.isEncodable(versionConfig)) {
+            return allowedEntries.isEncodable(versionConfig) ? allowedEntries : refusedEntries;
+        }
+        return refusedEntries.bitSize < allowedEntries.bitSize ? refusedEntries : allowedEntries;
+    }
+
+    //////////////////
+    //// Decoding ////
+    //////////////////
+
+    /**
+     * Decode a ConsentString from the bits read by a BitReader.
+     *
+     * @param reader A BitReader positioned at the beginning of the consent string.
+     * @return A ConsentString instance if the bits can be decoded, null otherwise.
+     * @throws IllegalArgumentException      if there are not enough bits to read.
+     * @throws UnknownVersionNumberException if the ConsentString version number is not valid.
+     */
+    static private ConsentString decode(@NonNull BitReader reader) throws UnknownVersionNumberException, IllegalArgumentException {
+        ConsentStringDecoder.Header header = ConsentStringDecoder.readHeader(reader);
+
+        if (header.consentLanguage == null) {
+            return null;
+        }
+
+        IdBitSet allowedVendors = null;
+        IdRangeSet allowedVendorRanges = null;
+
+        if (header.isBitfieldEncoded()) {
+            allowedVendors = reader.readBitfield(header.maxVendorId);
+        } else if (header.isRangeEncoded()) {
+            allowedVendorRanges = allowedVendorsFromRange(reader, header);
+        } else {
+            return null; // invalid encoding.
+        }
+
+        if (allowedVendors != null || allowedVendorRanges != null) {
+            return new ConsentString(header.versionConfig,
+                    new Date(header.created * 100),
+                    new Date(header.lastUpdated * 100),
+                    header.cmpId,
+                    header.cmpVersion,
+                    header.consentScreen,
+                    header.consentLanguage,
+                    header.vendorListVersion,
+                    header.maxVendorId,
+                    header.allowedPurposes,
+                    allowedVendors,
+                    allowedVendorRanges,
+                    ConsentEncoding.AUTOMATIC);
+        }
+
+        return null;
+    }
+
+    /**
+     * Convert a short constant bits string, like the encoding type flags of a VersionConfig, into its value.
+     *
+     * @param bits A string only containing '0' and '1' characters.
+     * @return The value of the bits string.
+     */
+    static int bitsValue(@NonNull String bits) {
+        return Integer.parseInt(bits, 2);
+    }
+
+    /**
+     * Decode an allowed vendors arrays from a range encoded buffer.
+     * <p>
+     * The entries are kept as sorted ranges, and complemented over [1, maxVendorId] if the consent is given by
+     * default, so the memory used depends on the number of entries rather than on maxVendorId.
+     *
+     * @param reader The BitReader from where the range will be retrieved.
+     * @param header The header of the consent string.
+     * @return The ranges of allowed vendors if the buffer can be decoded, null otherwise.
+     * @throws IllegalArgumentException if there are not enough bits to read, or if an entry is out of bounds or overlaps another one.
+     */
+    static private IdRangeSet allowedVendorsFromRange(@NonNull BitReader reader, @NonNull ConsentStringDecoder.Header header) throws IllegalArgumentException {
+        ConsentStringDecoder.RangeEntries rangeEntries = ConsentStringDecoder.readRangeEntries(reader, header);
+        if (rangeEntries == null) {
+            return null;
+        }
+
+        // Inverting the vendor id set if the consent is true by default.
+        return rangeEntries.defaultConsent ? rangeEntries.entries.complement(header.maxVendorId) : rangeEntries.entries;
+    }
+
+    ///////////////
+    //// Utils ////
+    ///////////////
+
+    /**
+     * Convert a collection of purposes id into a purposes mask.
+     *
+     * @param purposes A collection of purposes id.
+     * @return A mask where the bit n - 1 is set if the purpose n is in the collection.
+     */
+    static private int purposesMask(@NonNull Collection<Integer> purposes) {
+        int mask = 0;
+        for (Integer id : purposes) {
+            if (id != null && id >= 1 && id <= MAX_PURPOSE_ID) {
+                mask |= 1 << (id - 1);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Convert a purpose id into a purposes mask.
+     *
+     * @param purposeId A purpose id.
+     * @return A mask where only the bit purposeId - 1 is set, or 0 if the purpose id can't be stored in a mask.
+     */
+    static private int purposesMask(int purposeId) {
+        return purposeId >= 1 && purposeId <= MAX_PURPOSE_ID ? 1 << (purposeId - 1) : 0;
+    }
+
+    /**
+     * Check if a purpose is part of a purposes mask.
+     *
+     * @param mask      The purposes mask.
+     * @param purposeId The purpose id which should be checked.
+     * @return true if the purpose is part of the mask, false otherwise.
+     */
+    static boolean isPurposeInMask(int mask, int purposeId) {
+        return purposeId >= 1 && purposeId <= MAX_PURPOSE_ID && (mask & (1 << (purposeId - 1))) != 0;
+    }
+
+    /**
+     * Return an Editor to apply several consent changes on this consent string at once.
+     *
+     * @return A new Editor initialized with this consent string values.
+     */
+    @NonNull
+    public Editor edit() {
+        return new Editor(this);
+    }
+
+    /**
+     * Return the number of activated vendors allowed from the given vendor list.
+     *
+     * @param vendorList The vendor list used to calculated the vendors allowed count.
+     * @return The number of vendors allowed from the given vendor list.
+     */
+
+    public int getAllowedActivatedVendorsCount(@NonNull VendorList vendorList) {
+        int count = 0;
+        for (Vendor vendor : vendorList.getActivatedVendor()) {
+            if (isVendorAllowed(vendor.getId())) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Return a new consent string with no consent given for any purposes & vendors.
+     *
+     * @param consentScreen   The screen number in the CMP where the consent was given.
+     * @param consentLanguage The language that the CMP asked for consent in.
+     * @param vendorList      The vendor list corresponding to hte consent string.
+     * @return A new consent string with no consent given.
+     */
+    static public ConsentString consentStringWithNoConsent(int consentScreen, @NonNull Language consentLanguage, @NonNull VendorList vendorList) {
+        return consentStringWithNoConsent(consentScreen, consentLanguage, vendorList, new Date());
+    }
+
+    /**
+     * Return a new consent string with no consent given for any purposes & vendors.
+     *
+     * @param consentScreen   The screen number in the CMP where the consent was given.
+     * @param consentLanguage The language that the CMP asked for consent in.
+     * @param vendorList      The vendor list corresponding to hte consent string.
+     * @param date            The date that will be used as create date & last updated date.
+     * @return A new consent string with no consent given.
+     */
+    static public ConsentString consentStringWithNoConsent(int consentScreen, @NonNull Language consentLanguage, @NonNull VendorList vendorList, @NonNull Date date) {
+        //noinspection ConstantConditions
+        return new ConsentString(VersionConfig.getLatest(),
+                date,
+                date,
+                Constants.CMPInfos.ID,
+                Constants.CMPInfos.VERSION,
+                consentScreen,
+                consentLanguage,
+                vendorList.getVersion(),
+                vendorList.getMaxVendorId(),
+                0,
+                new IdBitSet(),
+                ConsentEncoding.AUTOMATIC);
+    }
+
+    /**
+     * Return a new consent string with every consent given for any purposes & vendors.
+     *
+     * @param consentScreen   The screen number in the CMP where the consent was given.
+     * @param consentLanguage The language that the CMP asked for consent in.
+     * @param vendorList      The vendor list corresponding to hte consent string.
+     * @return A new consent string with every consent given for any purposes & vendors.
+     */
+    static public ConsentString consentStringWithFullConsent(int consentScreen, @NonNull Language consentLanguage, @NonNull VendorList vendorList) {
+        return consentStringWithFullConsent(consentScreen, consentLanguage, vendorList, new Date());
+    }
+
+    /**
+     * Return a new consent string with every consent given for any purposes & vendors.
+     *
+     * @param consentScreen   The screen number in the CMP where the consent was given.
+     * @param consentLanguage The language that the CMP asked for consent in.
+     * @param vendorList      The vendor list corresponding to hte consent string.
+     * @param date            The date that will be used as create date & last updated date.
+     * @return A new consent string with every consent given for any purposes & vendors.
+     */
+    static public ConsentString consentStringWithFullConsent(int consentScreen, @NonNull Language consentLanguage, @NonNull VendorList vendorList, @NonNull Date date) {
+        int allowedPurposes = 0;
+        for (Purpose purpose : vendorList.getPurposes()) {
+            allowedPurposes |= purposesMask(purpose.getId());
+        }
+
+        IdBitSet allowedVendors = new IdBitSet(vendorList.getMaxVendorId());
+        for (Vendor vendor : vendorList.getVendors()) {
+            allowedVendors.set(vendor.getId());
+        }
+
+        //noinspection ConstantConditions
+        return new ConsentString(VersionConfig.getLatest(),
+                date,
+                date,
+                Constants.CMPInfos.ID,
+                Constants.CMPInfos.VERSION,
+                consentScreen,
+                consentLanguage,
+                vendorList.getVersion(),
+                vendorList.getMaxVendorId(),
+                allowedPurposes,
+                allowedVendors,
+                ConsentEncoding.AUTOMATIC);
+    }
+
+
+    /**
+     * Return a new consent string which keeps info from a previous one (generated with a previous vendor list) but gives consent for all new items (purposes and vendors).
+     *
+     * @param updatedVendorList     The updated vendor list.
+     * @param previousVendorList    The previous vendor list that has been used to generate the previous consent string.
+     * @param previousConsentString The previous consent string.
+     * @return The new consent string.
+     */
+    static public ConsentString consentStringFromUpdatedVendorList(@NonNull VendorList updatedVendorList, @NonNull VendorList previousVendorList, @NonNull ConsentString previousConsentString) {
+        return consentStringFromUpdatedVendorList(updatedVendorList, previousVendorList, previousConsentString, new Date());
+    }
+
+    /**
+     * Return a new consent string which keeps info from a previous one (generated with a previous vendor list) but gives consent for all new items (purposes and vendors).
+     * <p>
+     * The differences between the vendor lists are cached, so migrating several consent strings between the same
+     * vendor lists is cheap.
+     *
+     * @param updatedVendorList     The updated vendor list.
+     * @param previousVendorList    The previous vendor list that has been used to generate the previous consent string.
+     * @param previousConsentString The previous consent string.
+     * @param lastUpdated           The date that will be used as last updated date.
+     * @return The new consent string.
+     */
+    static public ConsentString consentStringFromUpdatedVendorList(@NonNull VendorList updatedVendorList, @NonNull VendorList previousVendorList, @NonNull ConsentString previousConsentString, @NonNull Date lastUpdated) {
+        VendorListDiff diff = VendorListDiff.between(previousVendorList, updatedVendorList);
+
+        // Allow purposes and vendors only if they were not in the previous vendor list. Reactivated vendors keep the
+        // consent stored in the previous consent string.
+        return previousConsentString.edit()
+                .setVendorList(updatedVendorList)
+                .allowPurposes(diff.getAddedPurposes().toArray())
+                .allowVendors(diff.getAddedVendors().toArray())
+                .commit(lastUpdated);
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with a consent given for a particular purpose.
+     * <p>
+     * Note: this method will update the version config and the last updated date.
+     *
+     * @param purposeId     The purpose id which should be added to the consent list.
+     * @param consentString The consent string which should be copied.
+     * @return A new consent string with a consent given for a particular purpose.
+     */
+    static public ConsentString consentStringByAddingPurposeConsent(@NonNull Integer purposeId, @NonNull ConsentString consentString) {
+        return consentStringByAddingPurposeConsent(purposeId, consentString, new Date());
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with a consent given for a particular purpose.
+     * <p>
+     * Note: this method will update the version config and the last updated date.
+     *
+     * @param purposeId     The purpose id which should be added to the consent list.
+     * @param consentString The consent string which should be copied.
+     * @param lastUpdated   The date that will be used as last updated date.
+     * @return A new consent string with a consent given for a particular purpose.
+     */
+    static public ConsentString consentStringByAddingPurposeConsent(@NonNull Integer purposeId, @NonNull ConsentString consentString, @NonNull Date lastUpdated) {
+        return consentString.edit().allowPurposes(purposeId).commit(lastUpdated);
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with consents added for all purposes.
+     * <p>
+     * Note: this method will updated the version config and the last updated date.
+     *
+     * @param vendorList            The vendor list used to retrieve all purposes to consent to.
+     * @param previousConsentString The previous consent string.
+     * @return a new consent string giving consent to all purposes of the vendor list, or null if the vendor list version is not the same as the consent string's vendor list version.
+     */
+    static public @Nullable ConsentString consentStringByAddingAllPurposeConsents(@NonNull VendorList vendorList, @NonNull ConsentString previousConsentString) {
+        return consentStringByAddingAllPurposeConsents(vendorList, previousConsentString, new Date());
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with consents added for all purposes.
+     * <p>
+     * Note: this method will updated the version config and the last updated date.
+     *
+     * @param vendorList            The vendor list used to retrieve all purposes to consent to.
+     * @param previousConsentString The previous consent string.
+     * @param lastUpdated           The date that will be used as last updated date.
+     * @return a new consent string giving consent to all purposes of the vendor list, or null if the vendor list version is not the same as the consent string's vendor list version.
+     */
+    static public @Nullable ConsentString consentStringByAddingAllPurposeConsents(@NonNull VendorList vendorList, @NonNull ConsentString previousConsentString, @NonNull Date lastUpdated) {
+        if (vendorList.getVersion() != previousConsentString.getVendorListVersion()) {
+            return null;
+        }
+
+        Editor editor = previousConsentString.edit();
+        for (Purpose purpose : vendorList.getPurposes()) {
+            editor.allowPurposes(purpose.getId());
+        }
+
+        return editor.commit(lastUpdated);
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with a consent removed for a particular purpose.
+     * <p>
+     * Note: this method will update the version config and the last updated date.
+     *
+     * @param purposeId     The purpose id which should be removed from the consent list.
+     * @param consentString The consent string which should be copied.
+     * @return A new consent string with a consent removed for a particular purpose.
+     */
+    static public ConsentString consentStringByRemovingPurposeConsent(@NonNull Integer purposeId, @NonNull ConsentString consentString) {
+        return consentStringByRemovingPurposeConsent(purposeId, consentString, new Date());
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with a consent removed for a particular purpose.
+     * <p>
+     * Note: this method will update the version config and the last updated date.
+     *
+     * @param purposeId     The purpose id which should be removed from the consent list.
+     * @param consentString The consent string which should be copied.
+     * @param lastUpdated   The date that will be used as last updated date.
+     * @return A new consent string with a consent removed for a particular purpose.
+     */
+    static public ConsentString consentStringByRemovingPurposeConsent(@NonNull Integer purposeId, @NonNull ConsentString consentString, @NonNull Date lastUpdated) {
+        return consentString.edit().revokePurposes(purposeId).commit(lastUpdated);
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with all consent removed for the purposes.
+     * <p>
+     * Note: this method will updated the version config and the last updated date.
+     *
+     * @param vendorList            The current vendor list.
+     * @param previousConsentString The previous consent string.
+     * @return A new consent string with all consent removed for purposes, or null if the vendor list version is not the same as the consent string's vendor list version.
+     */
+    static public @Nullable ConsentString consentStringByRemovingAllPurposeConsents(@NonNull VendorList vendorList, @NonNull ConsentString previousConsentString) {
+        return consentStringByRemovingAllPurposeConsents(vendorList, previousConsentString, new Date());
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with all consent removed for the purposes.
+     * <p>
+     * Note: this method will updated the version config and the last updated date.
+     *
+     * @param vendorList            The current vendor list.
+     * @param previousConsentString The previous consent string.
+     * @param lastUpdated           The date that will be used as last updated date.
+     * @return A new consent string with all consent removed for purposes, or null if the vendor list version is not the same as the consent string's vendor list version.
+     */
+    static public @Nullable ConsentString consentStringByRemovingAllPurposeConsents(@NonNull VendorList vendorList, @NonNull ConsentString previousConsentString, @NonNull Date lastUpdated) {
+        if (vendorList.getVersion() != previousConsentString.getVendorListVersion()) {
+            return null;
+        }
+
+        Editor editor = previousConsentString.edit();
+        for (Purpose purpose : vendorList.getPurposes()) {
+            editor.revokePurposes(purpose.getId());
+        }
+
+        return editor.commit(lastUpdated);
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with a consent given for a particular vendor.
+     * <p>
+     * Note: this method will update the version config and the last updated date.
+     *
+     * @param vendorId      The vendor id which should be added to the consent list.
+     * @param consentString The consent string which should be copied.
+     * @return A new consent string with a consent given for a particular vendor.
+     */
+    static public ConsentString consentStringByAddingVendorConsent(@NonNull Integer vendorId, @NonNull ConsentString consentString) {
+        return consentStringByAddingVendorConsent(vendorId, consentString, new Date());
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with a consent given for a particular vendor.
+     * <p>
+     * Note: this method will update the version config and the last updated date.
+     *
+     * @param vendorId      The vendor id which should be added to the consent list.
+     * @param consentString The consent string which should be copied.
+     * @param lastUpdated   The date that will be used as last updated date.
+     * @return A new consent string with a consent given for a particular vendor.
+     */
+    static public ConsentString consentStringByAddingVendorConsent(@NonNull Integer vendorId, @NonNull ConsentString consentString, @NonNull Date lastUpdated) {
+        return consentString.edit().allowVendors(vendorId).commit(lastUpdated);
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with a consent removed for a particular vendor.
+     * <p>
+     * Note: this method will update the version config and the last updated date.
+     *
+     * @param vendorId      The vendor id which should be removed from the consent list.
+     * @param consentString The consent string which should be copied.
+     * @return A new consent string with a consent removed for a particular vendor.
+     */
+    static public ConsentString consentStringByRemovingVendorConsent(@NonNull Integer vendorId, @NonNull ConsentString consentString) {
+        return consentStringByRemovingVendorConsent(vendorId, consentString, new Date());
+    }
+
+    /**
+     * Return a new consent string identical to the one provided, with a consent removed for a particular vendor.
+     * <p>
+     * Note: this method will update the version config and the last updated date.
+     *
+     * @param vendorId      The vendor id which should be removed from the consent list.
+     * @param consentString The consent string which should be copied.
+     * @param lastUpdated   The date that will be used as last updated date.
+     * @return A new consent string with a consent removed for a particular vendor.
+     */
+    static public ConsentString consentStringByRemovingVendorConsent(@NonNull Integer vendorId, @NonNull ConsentString consentString, @NonNull Date lastUpdated) {
+        return consentString.edit().revokeVendors(vendorId).commit(lastUpdated);
+    }
+}
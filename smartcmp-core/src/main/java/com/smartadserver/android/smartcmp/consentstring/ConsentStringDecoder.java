@@ -0,0 +1,212 @@
+package com.smartadserver.android.smartcmp.consentstring;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberException;
+import com.smartadserver.android.smartcmp.model.Language;
+import com.smartadserver.android.smartcmp.model.VersionConfig;
+import com.smartadserver.android.smartcmp.util.BitSource;
+import com.smartadserver.android.smartcmp.util.IdRangeSet;
+
+/**
+ * Decodes the fields of a consent string from a BitSource.
+ * <p>
+ * Shared by ConsentString and ConsentStringView, so both apply the same decoding & validation rules.
+ */
+
+class ConsentStringDecoder {
+
+    /**
+     * The fields of a consent string preceding the vendors.
+     */
+    static class Header {
+        // The consent string version configuration.
+        @NonNull
+        final VersionConfig versionConfig;
+
+        // The date of the first consent string creation, in deciseconds.
+        long created;
+
+        // The date of the last consent string update, in deciseconds.
+        long lastUpdated;
+
+        // The id of the last Consent Manager Provider that updated the consent string.
+        int cmpId;
+
+        // The version of the Consent Manager Provider.
+        int cmpVersion;
+
+        // The screen number in the CMP where the consent was given.
+        int consentScreen;
+
+        // The language that the CMP asked for consent in, null if a letter index is invalid.
+        @Nullable
+        Language consentLanguage;
+
+        // The version of the vendor list used in the most recent consent string update.
+        int vendorListVersion;
+
+        // A mask of allowed purposes id (the bit n - 1 is set if the purpose n is allowed).
+        int allowedPurposes;
+
+        // The maximum vendor id that can be found in the consent string.
+        int maxVendorId;
+
+        // The vendors encoding type value.
+        int encodingType;
+
+        Header(@NonNull VersionConfig versionConfig) {
+            this.versionConfig = versionConfig;
+        }
+
+        /**
+         * @return true if the vendors are bitfield encoded.
+         */
+        boolean isBitfieldEncoded() {
+            return encodingType == ConsentString.bitsValue(versionConfig.getEncodingTypeBitfield());
+        }
+
+        /**
+         * @return true if the vendors are range encoded.
+         */
+        boolean isRangeEncoded() {
+            return encodingType == ConsentString.bitsValue(versionConfig.getEncodingTypeRange());
+        }
+    }
+
+    /**
+     * The range entries of a range encoded consent string.
+     */
+    static class RangeEntries {
+        // The consent of vendors which are not part of any entry.
+        final boolean defaultConsent;
+
+        // The sorted entries.
+        @NonNull
+        final IdRangeSet entries;
+
+        RangeEntries(boolean defaultConsent, @NonNull IdRangeSet entries) {
+            this.defaultConsent = defaultConsent;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * Read the header of a consent string, up to the vendors encoding type.
+     *
+     * @param reader A BitSource positioned at the beginning of the consent string.
+     * @return The decoded header.
+     * @throws IllegalArgumentException      if there are not enough bits to read.
+     * @throws UnknownVersionNumberException if the ConsentString version number is not valid.
+     */
+    @NonNull
+    static Header readHeader(@NonNull BitSource reader) throws UnknownVersionNumberException, IllegalArgumentException {
+        Header header = new Header(new VersionConfig(reader.readInt(VersionConfig.getVersionBitSize())));
+        VersionConfig versionConfig = header.versionConfig;
+
+        header.created = reader.readLong(versionConfig.getCreatedBitSize());
+        header.lastUpdated = reader.readLong(versionConfig.getLastUpdatedBitSize());
+        header.cmpId = reader.readInt(versionConfig.getCmpIdBitSize());
+        header.cmpVersion = reader.readInt(versionConfig.getCmpVersionBitSize());
+        header.consentScreen = reader.readInt(versionConfig.getConsentScreenBitSize());
+        header.consentLanguage = readLanguage(reader, versionConfig.getConsentLanguageBitSize());
+        header.vendorListVersion = reader.readInt(versionConfig.getVendorListVersionBitSize());
+        header.allowedPurposes = readPurposesBitField(reader, versionConfig);
+        header.maxVendorId = reader.readInt(versionConfig.getMaxVendorIdBitSize());
+        header.encodingType = reader.readInt(versionConfig.getEncodingTypeBitSize());
+        return header;
+    }
+
+    /**
+     * Read a language encoded as 6 bits letter indexes (left padded if the field is larger than needed).
+     *
+     * @param reader       The BitSource from where the language will be read.
+     * @param numberOfBits The number of bits used to encode the language.
+     * @return The decoded language, or null if a letter index is invalid.
+     * @throws IllegalArgumentException if there are not enough bits to read.
+     */
+    @Nullable
+    static private Language readLanguage(@NonNull BitSource reader, int numberOfBits) throws IllegalArgumentException {
+        int letterCount = numberOfBits / ConsentString.LANGUAGE_LETTER_BIT_SIZE;
+        reader.skip(numberOfBits - letterCount * ConsentString.LANGUAGE_LETTER_BIT_SIZE);
+
+        char[] letters = new char[letterCount];
+        for (int idx = 0; idx < letterCount; idx++) {
+            int letterIndex = reader.readInt(ConsentString.LANGUAGE_LETTER_BIT_SIZE);
+            if (letterIndex >= Language.VALID_LETTERS.length()) {
+                return null;
+            }
+            letters[idx] = Language.VALID_LETTERS.charAt(letterIndex);
+        }
+
+        return new Language(new String(letters));
+    }
+
+    /**
+     * Read the purposes bitfield into a purposes mask.
+     *
+     * @param reader        The BitSource from where the purposes will be read.
+     * @param versionConfig The consent string version configuration.
+     * @return A mask where the bit n - 1 is set if the purpose n is allowed.
+     * @throws IllegalArgumentException if there are not enough bits to read.
+     */
+    static private int readPurposesBitField(@NonNull BitSource reader, @NonNull VersionConfig versionConfig) throws IllegalArgumentException {
+        int mask = 0;
+
+        for (int idx = 0; idx < versionConfig.getAllowedPurposesBitSize(); idx++) {
+            if (reader.readBool() && idx < ConsentString.MAX_PURPOSE_ID) {
+                mask |= 1 << idx;
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Read the range entries of a range encoded consent string, sorted so they can be looked up with a binary search.
+     *
+     * @param reader The BitSource positioned after the encoding type.
+     * @param header The header of the consent string.
+     * @return The range entries if they can be decoded, null if an entry type is invalid.
+     * @throws IllegalArgumentException if there are not enough bits to read, or if an entry is out of bounds or overlaps another one.
+     */
+    @Nullable
+    static RangeEntries readRangeEntries(@NonNull BitSource reader, @NonNull Header header) throws IllegalArgumentException {
+        VersionConfig versionConfig = header.versionConfig;
+        boolean defaultConsent = reader.readInt(versionConfig.getDefaultConsentBitSize()) == 1;
+        int numEntries = reader.readInt(versionConfig.getNumEntriesBitSize());
+
+        int rangeSingleId = ConsentString.bitsValue(versionConfig.getRangeSingleId());
+        int rangeStartEndId = ConsentString.bitsValue(versionConfig.getRangeStartEndId());
+
+        int[] startIds = new int[numEntries];
+        int[] endIds = new int[numEntries];
+
+        for (int i = 0; i < numEntries; i++) {
+            int singleOrRange = reader.readInt(versionConfig.getSingleOrRangeBitSize());
+
+            int startId;
+            int endId;
+            if (singleOrRange == rangeSingleId) {
+                startId = reader.readInt(versionConfig.getSingleVendorIdBitSize());
+                endId = startId;
+            } else if (singleOrRange == rangeStartEndId) {
+                startId = reader.readInt(versionConfig.getStartVendorIdBitSize());
+                endId = reader.readInt(versionConfig.getEndVendorIdBitSize());
+            } else {
+                return null;
+            }
+
+            if (startId < 1 || startId > endId || endId > header.maxVendorId) {
+                throw new IllegalArgumentException("Range entry [" + startId + ", " + endId + "] is out of bounds.");
+            }
+
+            startIds[i] = startId;
+            endIds[i] = endId;
+        }
+
+        // Overlapping entries are rejected while the ranges are sorted.
+        return new RangeEntries(defaultConsent, IdRangeSet.fromRanges(startIds, endIds, numEntries));
+    }
+}
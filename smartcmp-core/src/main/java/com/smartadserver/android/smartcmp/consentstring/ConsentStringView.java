@@ -0,0 +1,290 @@
+package com.smartadserver.android.smartcmp.consentstring;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberException;
+import com.smartadserver.android.smartcmp.model.Language;
+import com.smartadserver.android.smartcmp.model.VersionConfig;
+import com.smartadserver.android.smartcmp.util.Base64BitReader;
+import com.smartadserver.android.smartcmp.util.IdRangeSet;
+
+import java.util.Date;
+
+/**
+ * Read-only view of a base64 consent string, answering consent queries without decoding the vendors.
+ * <p>
+ * Only the header is parsed when wrapping a string. Vendor queries read the bitfield directly from the base64
+ * characters, or binary search the range entries: no collection of vendors is ever built. Use it when only a few
+ * vendors must be checked, and ConsentString when the consent string needs to be modified.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class ConsentStringView {
+
+    // The wrapped base64 consent string.
+    @NonNull
+    private final String consentString;
+
+    // The reader giving access to the bits of the consent string.
+    @NonNull
+    private final Base64BitReader reader;
+
+    // The consent string version configuration.
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private VersionConfig versionConfig;
+
+    // The date of the first consent string creation, in deciseconds.
+    private long created;
+
+    // The date of the last consent string update, in deciseconds.
+    private long lastUpdated;
+
+    // The id of the last Consent Manager Provider that updated the consent string.
+    private int cmpId;
+
+    // The version of the Consent Manager Provider.
+    private int cmpVersion;
+
+    // The screen number in the CMP where the consent was given.
+    private int consentScreen;
+
+    // The language that the CMP asked for consent in.
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private Language consentLanguage;
+
+    // The version of the vendor list used in the most recent consent string update.
+    private int vendorListVersion;
+
+    // A mask of allowed purposes id (the bit n - 1 is set if the purpose n is allowed).
+    private int allowedPurposes;
+
+    // The maximum vendor id that can be found in the consent string.
+    private int maxVendorId;
+
+    // The type of vendors encoding of the consent string (BITFIELD or RANGE).
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private ConsentString.ConsentEncoding vendorListEncoding;
+
+    // The position of the bit of the vendor id 1 for the bitfield encoding.
+    private int bitfieldPosition;
+
+    // The consent of vendors which are not part of any range entry, for the range encoding.
+    private boolean defaultConsent;
+
+    // The range entries, for the range encoding.
+    @Nullable
+    private IdRangeSet rangeEntries;
+
+    /**
+     * Initialize a new instance of ConsentStringView, without parsing anything.
+     *
+     * @param consentString The base64 consent string.
+     * @throws IllegalArgumentException if the string is not valid base64.
+     */
+    private ConsentStringView(@NonNull String consentString) throws IllegalArgumentException {
+        this.consentString = consentString;
+        this.reader = new Base64BitReader(consentString);
+    }
+
+    /**
+     * Return a new view of a base64 consent string.
+     * <p>
+     * Only the header is parsed (and the range entries if the vendors are range encoded).
+     *
+     * @param base64String The base64 consent string.
+     * @return a new ConsentStringView if the string is valid, null if it is not a valid consent string.
+     * @throws IllegalArgumentException      if the string is not valid.
+     * @throws UnknownVersionNumberException if the ConsentString version number is not valid.
+     */
+    @Nullable
+    static public ConsentStringView wrap(@NonNull String base64String) throws UnknownVersionNumberException, IllegalArgumentException {
+        ConsentStringView view = new ConsentStringView(base64String);
+        return view.parse() ? view : null;
+    }
+
+    /**
+     * Parse the header & prepare the vendors lookup.
+     *
+     * @return true if the consent string is valid, false otherwise.
+     * @throws IllegalArgumentException      if the string is not valid.
+     * @throws UnknownVersionNumberException if the ConsentString version number is not valid.
+     */
+    private boolean parse() throws UnknownVersionNumberException, IllegalArgumentException {
+        ConsentStringDecoder.Header header = ConsentStringDecoder.readHeader(reader);
+
+        versionConfig = header.versionConfig;
+        created = header.created;
+        lastUpdated = header.lastUpdated;
+        cmpId = header.cmpId;
+        cmpVersion = header.cmpVersion;
+        consentScreen = header.consentScreen;
+        vendorListVersion = header.vendorListVersion;
+        allowedPurposes = header.allowedPurposes;
+        maxVendorId = header.maxVendorId;
+
+        if (header.consentLanguage == null) {
+            return false;
+        }
+        consentLanguage = header.consentLanguage;
+
+        if (header.isBitfieldEncoded()) {
+            vendorListEncoding = ConsentString.ConsentEncoding.BITFIELD;
+            bitfieldPosition = reader.getPosition();
+            reader.skip(maxVendorId);
+            return true;
+        } else if (header.isRangeEncoded()) {
+            vendorListEncoding = ConsentString.ConsentEncoding.RANGE;
+            ConsentStringDecoder.RangeEntries entries = ConsentStringDecoder.readRangeEntries(reader, header);
+            if (entries == null) {
+                return false;
+            }
+            defaultConsent = entries.defaultConsent;
+            rangeEntries = entries.entries;
+            return true;
+        }
+
+        return false; // invalid encoding.
+    }
+
+    /**
+     * Check if a purpose is allowed by the consent string.
+     *
+     * @param purposeId The purpose id which should be checked.
+     * @return true if the purpose is allowed, false otherwise.
+     */
+    public boolean isPurposeAllowed(int purposeId) {
+        return ConsentString.isPurposeInMask(allowedPurposes, purposeId);
+    }
+
+    /**
+     * Check if a vendor is allowed by the consent string.
+     * <p>
+     * Takes a constant time for bitfield encoded strings, and a logarithmic time in the number of entries for range
+     * encoded strings. Nothing is allocated.
+     *
+     * @param vendorId The vendor id which should be checked.
+     * @return true if the vendor is allowed, false otherwise.
+     */
+    public boolean isVendorAllowed(int vendorId) {
+        if (vendorId < 1 || vendorId > maxVendorId) {
+            return false;
+        }
+
+        IdRangeSet entries = rangeEntries;
+        if (entries == null) {
+            return reader.bitAt(bitfieldPosition + vendorId - 1);
+        }
+
+        return entries.get(vendorId) != defaultConsent;
+    }
+
+    /**
+     * Fully decode the consent string, for instance to modify it.
+     *
+     * @return a new instance of ConsentString.
+     * @throws UnknownVersionNumberException should never happen, the version has already been checked.
+     */
+    @NonNull
+    public ConsentString toConsentString() throws UnknownVersionNumberException {
+        ConsentString result = ConsentString.fromBase64String(consentString);
+        if (result == null) {
+            // should never happen, the view has been successfully parsed.
+            throw new IllegalStateException("The consent string can not be decoded.");
+        }
+        return result;
+    }
+
+    /**
+     * @return The wrapped base64 consent string.
+     */
+    @NonNull
+    public String getConsentString() {
+        return consentString;
+    }
+
+    /**
+     * @return The consent string version.
+     */
+    public int getVersion() {
+        return versionConfig.getVersion();
+    }
+
+    /**
+     * @return The consent string version configuration.
+     */
+    @NonNull
+    public VersionConfig getVersionConfig() {
+        return versionConfig;
+    }
+
+    /**
+     * @return The date of the first consent string creation.
+     */
+    @NonNull
+    public Date getCreated() {
+        return new Date(created * 100);
+    }
+
+    /**
+     * @return The date of the last consent string update.
+     */
+    @NonNull
+    public Date getLastUpdated() {
+        return new Date(lastUpdated * 100);
+    }
+
+    /**
+     * @return The id of the last Consent Manager Provider that updated the consent string.
+     */
+    public int getCmpId() {
+        return cmpId;
+    }
+
+    /**
+     * @return The version of the Consent Manager Provider.
+     */
+    public int getCmpVersion() {
+        return cmpVersion;
+    }
+
+    /**
+     * @return The screen number in the CMP where the consent was given.
+     */
+    public int getConsentScreen() {
+        return consentScreen;
+    }
+
+    /**
+     * @return The language that the CMP asked for consent in.
+     */
+    @NonNull
+    public Language getConsentLanguage() {
+        return consentLanguage;
+    }
+
+    /**
+     * @return The version of the vendor list used in the most recent consent string update.
+     */
+    public int getVendorListVersion() {
+        return vendorListVersion;
+    }
+
+    /**
+     * @return The maximum vendor id that can be found in the consent string.
+     */
+    public int getMaxVendorId() {
+        return maxVendorId;
+    }
+
+    /**
+     * @return The type of vendors encoding of the consent string (BITFIELD or RANGE).
+     */
+    @NonNull
+    public ConsentString.ConsentEncoding getVendorListEncoding() {
+        return vendorListEncoding;
+    }
+}
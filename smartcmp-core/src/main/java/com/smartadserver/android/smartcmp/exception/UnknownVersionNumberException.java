@@ -1,8 +1,5 @@
 package com.smartadserver.android.smartcmp.exception;
 
-import android.os.Build;
-import android.support.annotation.RequiresApi;
-
 @SuppressWarnings("unused")
 public class UnknownVersionNumberException extends Exception {
     public UnknownVersionNumberException() {
@@ -20,7 +17,6 @@ public class UnknownVersionNumberException extends Exception {
         super(cause);
     }
 
-    @RequiresApi(api = Build.VERSION_CODES.N)
     public UnknownVersionNumberException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
         super(message, cause, enableSuppression, writableStackTrace);
     }
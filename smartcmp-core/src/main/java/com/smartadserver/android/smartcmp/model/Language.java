@@ -1,8 +1,6 @@
 package com.smartadserver.android.smartcmp.model;
 
 
-import android.os.Parcel;
-import android.os.Parcelable;
 import android.support.annotation.NonNull;
 
 import java.util.Arrays;
@@ -10,7 +8,7 @@ import java.util.Arrays;
 /**
  * ISO 639-1 language representation for the ConsentString
  */
-public class Language implements Parcelable {
+public class Language {
 
     // The list of valid letters for the language string.
     static public final String VALID_LETTERS = "abcdefghijklmnopqrstuvwxyz";
@@ -76,34 +74,4 @@ public class Language implements Parcelable {
     public int hashCode() {
         return Arrays.hashCode(new Object[]{string});
     }
-
-    ////////////////////////////
-    //// Parcelable section ////
-    ////////////////////////////
-
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeString(this.string);
-    }
-
-    protected Language(Parcel in) {
-        this.string = in.readString();
-    }
-
-    public static final Creator<Language> CREATOR = new Creator<Language>() {
-        @Override
-        public Language createFromParcel(Parcel source) {
-            return new Language(source);
-        }
-
-        @Override
-        public Language[] newArray(int size) {
-            return new Language[size];
-        }
-    };
 }
@@ -1,7 +1,5 @@
 package com.smartadserver.android.smartcmp.model;
 
-import android.os.Parcel;
-import android.os.Parcelable;
 import android.support.annotation.NonNull;
 
 import java.util.Arrays;
@@ -11,7 +9,7 @@ import java.util.Arrays;
  */
 
 @SuppressWarnings("WeakerAccess")
-public class Purpose implements Parcelable {
+public class Purpose {
 
     // The id of the purpose.
     private int id;
@@ -95,35 +93,4 @@ public class Purpose implements Parcelable {
     public int hashCode() {
         return Arrays.hashCode(new Object[]{id, name, description});
     }
-
-
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeInt(this.id);
-        dest.writeString(this.name);
-        dest.writeString(this.description);
-    }
-
-    protected Purpose(Parcel in) {
-        this.id = in.readInt();
-        this.name = in.readString();
-        this.description = in.readString();
-    }
-
-    public static final Parcelable.Creator<Purpose> CREATOR = new Parcelable.Creator<Purpose>() {
-        @Override
-        public Purpose createFromParcel(Parcel source) {
-            return new Purpose(source);
-        }
-
-        @Override
-        public Purpose[] newArray(int size) {
-            return new Purpose[size];
-        }
-    };
 }
@@ -1,7 +1,5 @@
 package com.smartadserver.android.smartcmp.model;
 
-import android.os.Parcel;
-import android.os.Parcelable;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
@@ -15,7 +13,7 @@ import java.util.Date;
  */
 
 @SuppressWarnings({"WeakerAccess"})
-public class Vendor implements Parcelable {
+public class Vendor {
 
     // The id of the vendor.
     private int id;
@@ -209,46 +207,4 @@ public class Vendor implements Parcelable {
     public int hashCode() {
         return Arrays.hashCode(new Object[]{id, name, purposes, legitimatePurposes, features, policyURL, deletedDate});
     }
-
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeInt(this.id);
-        dest.writeString(this.name);
-        dest.writeList(this.purposes);
-        dest.writeList(this.legitimatePurposes);
-        dest.writeList(this.features);
-        dest.writeSerializable(this.policyURL);
-        dest.writeLong(this.deletedDate != null ? this.deletedDate.getTime() : -1);
-    }
-
-    protected Vendor(Parcel in) {
-        this.id = in.readInt();
-        this.name = in.readString();
-        this.purposes = new ArrayList<>();
-        in.readList(this.purposes, Integer.class.getClassLoader());
-        this.legitimatePurposes = new ArrayList<>();
-        in.readList(this.legitimatePurposes, Integer.class.getClassLoader());
-        this.features = new ArrayList<>();
-        in.readList(this.features, Integer.class.getClassLoader());
-        this.policyURL = (URL) in.readSerializable();
-        long tmpDeletedDate = in.readLong();
-        this.deletedDate = tmpDeletedDate == -1 ? null : new Date(tmpDeletedDate);
-    }
-
-    public static final Creator<Vendor> CREATOR = new Creator<Vendor>() {
-        @Override
-        public Vendor createFromParcel(Parcel source) {
-            return new Vendor(source);
-        }
-
-        @Override
-        public Vendor[] newArray(int size) {
-            return new Vendor[size];
-        }
-    };
 }
@@ -1,11 +1,10 @@
 package com.smartadserver.android.smartcmp.model;
 
-import android.os.Parcel;
-import android.os.Parcelable;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import com.smartadserver.android.smartcmp.util.DateUtils;
+import com.smartadserver.android.smartcmp.util.IdIndex;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -21,7 +20,7 @@ import java.util.Date;
  */
 
 @SuppressWarnings("WeakerAccess")
-public class VendorList implements Parcelable {
+public class VendorList {
 
     /**
      * class storing all JSON keys used to parse the vendors list.
@@ -78,6 +77,18 @@ public class VendorList implements Parcelable {
     // A list of activated vendors.
     private ArrayList<Vendor> activatedVendors;
 
+    // The purposes, features & vendors indexed by id, built once the lists are set.
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private IdIndex<Purpose> purposesById;
+
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private IdIndex<Feature> featuresById;
+
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private IdIndex<Vendor> vendorsById;
 
     /**
      * Initialize a list of vendors using direct parameters.
@@ -94,6 +105,7 @@ public class VendorList implements Parcelable {
         this.purposes = purposes;
         this.features = features;
         this.vendors = vendors;
+        buildIndexes();
     }
 
     /**
@@ -121,38 +133,56 @@ public class VendorList implements Parcelable {
         }
         this.lastUpdated = lastUpdated;
 
-        JSONArray rawLocalizedPurposesArray = null;
-        JSONArray rawLocalizedFeaturesArray = null;
+        ArrayList<Purpose> purposes = parsePurposes(JSON.getJSONArray(JSONKey.Purposes.PURPOSES));
+        ArrayList<Feature> features = parseFeatures(JSON.getJSONArray(JSONKey.Features.FEATURES));
+        ArrayList<Vendor> vendors = parseVendors(JSON.getJSONArray(JSONKey.Vendors.VENDORS));
 
+        // The localized entries are indexed by id once, then joined in a single pass.
         if (localizedJSON != null) {
-            try {
-                rawLocalizedPurposesArray = localizedJSON.getJSONArray(JSONKey.Purposes.PURPOSES);
-            } catch (JSONException e) {
-                // do nothing
+            VendorListLocalization localization = VendorListLocalization.fromJSON(localizedJSON);
+            if (!localization.isEmpty()) {
+                purposes = localization.localizePurposes(purposes);
+                features = localization.localizeFeatures(features);
+                vendors = localization.localizeVendors(vendors);
             }
+        }
 
-            try {
-                rawLocalizedFeaturesArray = localizedJSON.getJSONArray(JSONKey.Features.FEATURES);
-            } catch (JSONException e) {
-                // do nothing
-            }
+        this.purposes = purposes;
+        this.features = features;
+        this.vendors = vendors;
+        buildIndexes();
+    }
+
+    /**
+     * Index the purposes, features & vendors by id, so they can be retrieved in constant time.
+     * <p>
+     * Note: the lists must not be modified afterwards.
+     */
+    private void buildIndexes() {
+        int[] purposeIds = new int[purposes.size()];
+        for (int i = 0; i < purposeIds.length; i++) {
+            purposeIds[i] = purposes.get(i).getId();
         }
+        purposesById = new IdIndex<>(purposeIds, purposes);
 
-        purposes = parsePurposes(JSON.getJSONArray(JSONKey.Purposes.PURPOSES), rawLocalizedPurposesArray);
-        features = parseFeatures(JSON.getJSONArray(JSONKey.Features.FEATURES), rawLocalizedFeaturesArray);
-        vendors = parseVendors(JSON.getJSONArray(JSONKey.Vendors.VENDORS));
+        int[] featureIds = new int[features.size()];
+        for (int i = 0; i < featureIds.length; i++) {
+            featureIds[i] = features.get(i).getId();
+        }
+        featuresById = new IdIndex<>(featureIds, features);
+
+        int[] vendorIds = new int[vendors.size()];
+        for (int i = 0; i < vendorIds.length; i++) {
+            vendorIds[i] = vendors.get(i).getId();
+        }
+        vendorsById = new IdIndex<>(vendorIds, vendors);
     }
 
     /**
      * @return The maximum vendor id used in the vendor list.
      */
     public int getMaxVendorId() {
-        int maxId = 0;
-        for (Vendor vendor : vendors) {
-            maxId = maxId < vendor.getId() ? vendor.getId() : maxId;
-        }
-
-        return maxId;
+        return vendorsById.maxId();
     }
 
     /**
@@ -201,12 +231,7 @@ public class VendorList implements Parcelable {
      * @return The wanted purpose if it exists, null otherwise.
      */
     public Purpose getPurposeWithId(int id) {
-        for (Purpose purpose : purposes) {
-            if (purpose.getId() == id) {
-                return purpose;
-            }
-        }
-        return null;
+        return purposesById.get(id);
     }
 
     /**
@@ -216,12 +241,17 @@ public class VendorList implements Parcelable {
      * @return The wanted feature if it exists, null otherwise.
      */
     public Feature getFeatureWithId(int id) {
-        for (Feature feature : features) {
-            if (feature.getId() == id) {
-                return feature;
-            }
-        }
-        return null;
+        return featuresById.get(id);
+    }
+
+    /**
+     * Get the vendor with the given id.
+     *
+     * @param id The id of the wanted vendor.
+     * @return The wanted vendor if it exists, null otherwise.
+     */
+    public Vendor getVendorWithId(int id) {
+        return vendorsById.get(id);
     }
 
     /**
@@ -231,13 +261,7 @@ public class VendorList implements Parcelable {
      * @return whether or not the vendor list contains a specific vendor.
      */
     public boolean containsVendorWithId(int id) {
-        for (Vendor vendor : vendors) {
-            if (vendor.getId() == id) {
-                return true;
-            }
-        }
-
-        return false;
+        return vendorsById.contains(id);
     }
 
     /**
@@ -263,7 +287,7 @@ public class VendorList implements Parcelable {
      * @return An ArrayList of purposes, or throw an exception if the JSON is invalid.
      * @throws JSONException if JSON is invalid.
      */
-    static private ArrayList<Purpose> parsePurposes(@NonNull JSONArray rawPurposesArray, @Nullable JSONArray rawLocalizedPurposesArray) throws JSONException {
+    static private ArrayList<Purpose> parsePurposes(@NonNull JSONArray rawPurposesArray) throws JSONException {
         ArrayList<Purpose> purposes = new ArrayList<>();
 
         for (int i = 0; i < rawPurposesArray.length(); i++) {
@@ -273,32 +297,6 @@ public class VendorList implements Parcelable {
             String name = rawPurpose.getString(JSONKey.Purposes.NAME);
             String description = rawPurpose.getString(JSONKey.Purposes.DESCRIPTION);
 
-            if (rawLocalizedPurposesArray != null) {
-                try {
-                    // try to get the localization. Do not throw exception if something is missing.
-                    for (int idx = 0; idx < rawLocalizedPurposesArray.length(); idx++) {
-                        JSONObject rawLocalizedPurpose = (JSONObject) rawLocalizedPurposesArray.get(idx);
-
-                        if (rawLocalizedPurpose.getInt(JSONKey.Purposes.ID) == id) {
-                            try {
-                                name = rawLocalizedPurpose.getString(JSONKey.Purposes.NAME);
-                            } catch (Exception e) {
-                                // do nothing
-                            }
-
-                            try {
-                                description = rawLocalizedPurpose.getString(JSONKey.Purposes.DESCRIPTION);
-                            } catch (Exception e) {
-                                // do nothing
-                            }
-                            break;
-                        }
-                    }
-                } catch (Exception e) {
-                    // do nothing
-                }
-            }
-
             purposes.add(new Purpose(id, name, description));
         }
 
@@ -312,7 +310,7 @@ public class VendorList implements Parcelable {
      * @return An ArrayList of features, or throw an exception if the JSON is invalid.
      * @throws JSONException if JSON is invalid.
      */
-    static private ArrayList<Feature> parseFeatures(@NonNull JSONArray rawFeaturesArray, @Nullable JSONArray rawLocalizedFeaturesArray) throws JSONException {
+    static private ArrayList<Feature> parseFeatures(@NonNull JSONArray rawFeaturesArray) throws JSONException {
         ArrayList<Feature> features = new ArrayList<>();
 
         for (int i = 0; i < rawFeaturesArray.length(); i++) {
@@ -322,32 +320,6 @@ public class VendorList implements Parcelable {
             String name = rawFeature.getString(JSONKey.Features.NAME);
             String description = rawFeature.getString(JSONKey.Features.DESCRIPTION);
 
-            if (rawLocalizedFeaturesArray != null) {
-                try {
-                    // try to get the localization. Do not throw exception if something is missing.
-                    for (int idx = 0; idx < rawLocalizedFeaturesArray.length(); idx++) {
-                        JSONObject rawLocalizedFeature = (JSONObject) rawLocalizedFeaturesArray.get(idx);
-
-                        if (rawLocalizedFeature.getInt(JSONKey.Features.ID) == id) {
-                            try {
-                                name = rawLocalizedFeature.getString(JSONKey.Features.NAME);
-                            } catch (Exception e) {
-                                // do nothing
-                            }
-
-                            try {
-                                description = rawLocalizedFeature.getString(JSONKey.Features.DESCRIPTION);
-                            } catch (Exception e) {
-                                // do nothing
-                            }
-                            break;
-                        }
-                    }
-                } catch (Exception e) {
-                    // do nothing
-                }
-            }
-
             features.add(new Feature(id, name, description));
         }
 
@@ -433,40 +405,4 @@ public class VendorList implements Parcelable {
         result = 31 * result + vendors.hashCode();
         return result;
     }
-
-
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeInt(this.version);
-        dest.writeLong(this.lastUpdated.getTime());
-        dest.writeTypedList(this.purposes);
-        dest.writeTypedList(this.features);
-        dest.writeTypedList(this.vendors);
-    }
-
-    protected VendorList(Parcel in) {
-        this.version = in.readInt();
-        long tmpLastUpdated = in.readLong();
-        this.lastUpdated = new Date(tmpLastUpdated);
-        this.purposes = in.createTypedArrayList(Purpose.CREATOR);
-        this.features = in.createTypedArrayList(Feature.CREATOR);
-        this.vendors = in.createTypedArrayList(Vendor.CREATOR);
-    }
-
-    public static final Creator<VendorList> CREATOR = new Creator<VendorList>() {
-        @Override
-        public VendorList createFromParcel(Parcel source) {
-            return new VendorList(source);
-        }
-
-        @Override
-        public VendorList[] newArray(int size) {
-            return new VendorList[size];
-        }
-    };
 }
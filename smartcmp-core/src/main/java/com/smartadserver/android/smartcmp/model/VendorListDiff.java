@@ -0,0 +1,201 @@
+package com.smartadserver.android.smartcmp.model;
+
+import android.support.annotation.NonNull;
+
+import com.smartadserver.android.smartcmp.util.IdBitSet;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Differences between two versions of a vendor list.
+ * <p>
+ * A diff is computed in a single pass over both vendor lists and only depends on their versions, so it is cached
+ * per (old version, new version) pair: migrating many consent strings to the same vendor list only computes it once.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class VendorListDiff {
+
+    // The maximum number of diffs kept in cache.
+    static private final int CACHE_SIZE = 8;
+
+    // The cached diffs, by version pair, the least recently used first.
+    static private final LinkedHashMap<Long, VendorListDiff> cache = new LinkedHashMap<Long, VendorListDiff>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, VendorListDiff> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // The versions & last updated dates of the compared vendor lists, checked before a cached diff is reused.
+    private final int oldVersion;
+    private final int newVersion;
+
+    @NonNull
+    private final Date oldLastUpdated;
+
+    @NonNull
+    private final Date newLastUpdated;
+
+    // The purposes of the new vendor list that are not in the old one.
+    @NonNull
+    private final IdBitSet addedPurposes;
+
+    // The purposes of the old vendor list that are not in the new one.
+    @NonNull
+    private final IdBitSet removedPurposes;
+
+    // The vendors of the new vendor list that are not in the old one.
+    @NonNull
+    private final IdBitSet addedVendors;
+
+    // The vendors of the old vendor list that are not in the new one.
+    @NonNull
+    private final IdBitSet removedVendors;
+
+    // The vendors activated in the old vendor list and deleted in the new one.
+    @NonNull
+    private final IdBitSet deletedVendors;
+
+    // The vendors deleted in the old vendor list and activated in the new one.
+    @NonNull
+    private final IdBitSet reactivatedVendors;
+
+    /**
+     * Compute the differences between two vendor lists.
+     *
+     * @param oldVendorList The old vendor list.
+     * @param newVendorList The new vendor list.
+     */
+    private VendorListDiff(@NonNull VendorList oldVendorList, @NonNull VendorList newVendorList) {
+        this.oldVersion = oldVendorList.getVersion();
+        this.newVersion = newVendorList.getVersion();
+        this.oldLastUpdated = oldVendorList.getLastUpdated();
+        this.newLastUpdated = newVendorList.getLastUpdated();
+
+        addedPurposes = new IdBitSet();
+        for (Purpose purpose : newVendorList.getPurposes()) {
+            if (oldVendorList.getPurposeWithId(purpose.getId()) == null) {
+                addedPurposes.set(purpose.getId());
+            }
+        }
+
+        removedPurposes = new IdBitSet();
+        for (Purpose purpose : oldVendorList.getPurposes()) {
+            if (newVendorList.getPurposeWithId(purpose.getId()) == null) {
+                removedPurposes.set(purpose.getId());
+            }
+        }
+
+        addedVendors = new IdBitSet();
+        deletedVendors = new IdBitSet();
+        reactivatedVendors = new IdBitSet();
+        for (Vendor vendor : newVendorList.getVendors()) {
+            Vendor oldVendor = oldVendorList.getVendorWithId(vendor.getId());
+            if (oldVendor == null) {
+                addedVendors.set(vendor.getId());
+            } else if (oldVendor.isActivated() && !vendor.isActivated()) {
+                deletedVendors.set(vendor.getId());
+            } else if (!oldVendor.isActivated() && vendor.isActivated()) {
+                reactivatedVendors.set(vendor.getId());
+            }
+        }
+
+        removedVendors = new IdBitSet();
+        for (Vendor vendor : oldVendorList.getVendors()) {
+            if (!newVendorList.containsVendorWithId(vendor.getId())) {
+                removedVendors.set(vendor.getId());
+            }
+        }
+    }
+
+    /**
+     * Get the differences between two vendor lists, from the cache if they have already been computed.
+     *
+     * @param oldVendorList The old vendor list.
+     * @param newVendorList The new vendor list.
+     * @return The differences between the two vendor lists.
+     */
+    @NonNull
+    static public VendorListDiff between(@NonNull VendorList oldVendorList, @NonNull VendorList newVendorList) {
+        long key = (long) oldVendorList.getVersion() << 32 | (newVendorList.getVersion() & 0xFFFFFFFFL);
+
+        synchronized (cache) {
+            VendorListDiff diff = cache.get(key);
+            if (diff != null && diff.oldLastUpdated.equals(oldVendorList.getLastUpdated()) && diff.newLastUpdated.equals(newVendorList.getLastUpdated())) {
+                return diff;
+            }
+        }
+
+        // Computed outside of the lock: concurrent callers may compute the same diff, which is harmless.
+        VendorListDiff diff = new VendorListDiff(oldVendorList, newVendorList);
+        synchronized (cache) {
+            cache.put(key, diff);
+        }
+        return diff;
+    }
+
+    /**
+     * @return The version of the old vendor list.
+     */
+    public int getOldVersion() {
+        return oldVersion;
+    }
+
+    /**
+     * @return The version of the new vendor list.
+     */
+    public int getNewVersion() {
+        return newVersion;
+    }
+
+    /**
+     * @return The ids of the purposes of the new vendor list that are not in the old one. Must not be modified.
+     */
+    @NonNull
+    public IdBitSet getAddedPurposes() {
+        return addedPurposes;
+    }
+
+    /**
+     * @return The ids of the purposes of the old vendor list that are not in the new one. Must not be modified.
+     */
+    @NonNull
+    public IdBitSet getRemovedPurposes() {
+        return removedPurposes;
+    }
+
+    /**
+     * @return The ids of the vendors of the new vendor list that are not in the old one. Must not be modified.
+     */
+    @NonNull
+    public IdBitSet getAddedVendors() {
+        return addedVendors;
+    }
+
+    /**
+     * @return The ids of the vendors of the old vendor list that are not in the new one. Must not be modified.
+     */
+    @NonNull
+    public IdBitSet getRemovedVendors() {
+        return removedVendors;
+    }
+
+    /**
+     * @return The ids of the vendors activated in the old vendor list and deleted in the new one. Must not be modified.
+     */
+    @NonNull
+    public IdBitSet getDeletedVendors() {
+        return deletedVendors;
+    }
+
+    /**
+     * @return The ids of the vendors deleted in the old vendor list and activated in the new one. Must not be modified.
+     */
+    @NonNull
+    public IdBitSet getReactivatedVendors() {
+        return reactivatedVendors;
+    }
+}
@@ -0,0 +1,224 @@
+package com.smartadserver.android.smartcmp.model;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Localized names & descriptions of a vendor list, indexed by id.
+ * <p>
+ * The localized entries are indexed once, then joined with the purposes, features & vendors of a vendor list in a
+ * single pass. Missing or invalid localized entries are ignored: the original name or description is kept.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class VendorListLocalization {
+
+    // The JSON keys of a localized vendor list.
+    static final String PURPOSES = "purposes";
+    static final String FEATURES = "features";
+    static final String VENDORS = "vendors";
+    static final String ID = "id";
+    static final String NAME = "name";
+    static final String DESCRIPTION = "description";
+
+    /**
+     * The localized fields of a purpose, a feature or a vendor, each one being null if not localized.
+     */
+    static private class Entry {
+        @Nullable
+        final String name;
+
+        @Nullable
+        final String description;
+
+        Entry(@Nullable String name, @Nullable String description) {
+            this.name = name;
+            this.description = description;
+        }
+    }
+
+    // The localized purposes, features & vendors by id.
+    @NonNull
+    private final HashMap<Integer, Entry> purposes = new HashMap<>();
+
+    @NonNull
+    private final HashMap<Integer, Entry> features = new HashMap<>();
+
+    @NonNull
+    private final HashMap<Integer, Entry> vendors = new HashMap<>();
+
+    /**
+     * Initialize an empty VendorListLocalization.
+     */
+    public VendorListLocalization() {
+    }
+
+    /**
+     * Index the entries of a localized vendor list JSON.
+     *
+     * @param localizedJSON The data representation of the localized vendor list JSON.
+     * @return A new VendorListLocalization.
+     */
+    @NonNull
+    static public VendorListLocalization fromJSON(@NonNull JSONObject localizedJSON) {
+        VendorListLocalization localization = new VendorListLocalization();
+        putEntries(localization.purposes, localizedJSON.optJSONArray(PURPOSES));
+        putEntries(localization.features, localizedJSON.optJSONArray(FEATURES));
+        putEntries(localization.vendors, localizedJSON.optJSONArray(VENDORS));
+        return localization;
+    }
+
+    static private void putEntries(@NonNull HashMap<Integer, Entry> entries, @Nullable JSONArray rawEntries) {
+        if (rawEntries == null) {
+            return;
+        }
+
+        for (int i = 0; i < rawEntries.length(); i++) {
+            JSONObject rawEntry = rawEntries.optJSONObject(i);
+            if (rawEntry == null) {
+                continue;
+            }
+
+            // Entries without a valid id cannot be joined.
+            Object id = rawEntry.opt(ID);
+            if (id instanceof Number) {
+                put(entries, ((Number) id).intValue(), optString(rawEntry, NAME), optString(rawEntry, DESCRIPTION));
+            }
+        }
+    }
+
+    @Nullable
+    static private String optString(@NonNull JSONObject rawEntry, @NonNull String key) {
+        Object value = rawEntry.opt(key);
+        return value instanceof String ? (String) value : null;
+    }
+
+    static private void put(@NonNull HashMap<Integer, Entry> entries, int id, @Nullable String name, @Nullable String description) {
+        if (name != null || description != null) {
+            entries.put(id, new Entry(name, description));
+        }
+    }
+
+    /**
+     * Add a localized purpose.
+     *
+     * @param id          The id of the purpose.
+     * @param name        The localized name, null to keep the original one.
+     * @param description The localized description, null to keep the original one.
+     */
+    public void putPurpose(int id, @Nullable String name, @Nullable String description) {
+        put(purposes, id, name, description);
+    }
+
+    /**
+     * Add a localized feature.
+     *
+     * @param id          The id of the feature.
+     * @param name        The localized name, null to keep the original one.
+     * @param description The localized description, null to keep the original one.
+     */
+    public void putFeature(int id, @Nullable String name, @Nullable String description) {
+        put(features, id, name, description);
+    }
+
+    /**
+     * Add a localized vendor.
+     *
+     * @param id   The id of the vendor.
+     * @param name The localized name, null to keep the original one.
+     */
+    public void putVendor(int id, @Nullable String name) {
+        put(vendors, id, name, null);
+    }
+
+    /**
+     * @return true if nothing is localized, false otherwise.
+     */
+    public boolean isEmpty() {
+        return purposes.isEmpty() && features.isEmpty() && vendors.isEmpty();
+    }
+
+    /**
+     * Localize a list of purposes.
+     *
+     * @param purposes The purposes to localize. They are not modified.
+     * @return A new list where the localized purposes are replaced by localized copies.
+     */
+    @NonNull
+    public ArrayList<Purpose> localizePurposes(@NonNull List<Purpose> purposes) {
+        ArrayList<Purpose> localizedPurposes = new ArrayList<>(purposes.size());
+        for (Purpose purpose : purposes) {
+            Entry entry = this.purposes.get(purpose.getId());
+            localizedPurposes.add(entry == null ? purpose : new Purpose(purpose.getId(),
+                    entry.name != null ? entry.name : purpose.getName(),
+                    entry.description != null ? entry.description : purpose.getDescription()));
+        }
+        return localizedPurposes;
+    }
+
+    /**
+     * Localize a list of features.
+     *
+     * @param features The features to localize. They are not modified.
+     * @return A new list where the localized features are replaced by localized copies.
+     */
+    @NonNull
+    public ArrayList<Feature> localizeFeatures(@NonNull List<Feature> features) {
+        ArrayList<Feature> localizedFeatures = new ArrayList<>(features.size());
+        for (Feature feature : features) {
+            Entry entry = this.features.get(feature.getId());
+            localizedFeatures.add(entry == null ? feature : new Feature(feature.getId(),
+                    entry.name != null ? entry.name : feature.getName(),
+                    entry.description != null ? entry.description : feature.getDescription()));
+        }
+        return localizedFeatures;
+    }
+
+    /**
+     * Localize a list of vendors.
+     *
+     * @param vendors The vendors to localize. They are not modified.
+     * @return A new list where the localized vendors are replaced by localized copies.
+     */
+    @NonNull
+    public ArrayList<Vendor> localizeVendors(@NonNull List<Vendor> vendors) {
+        ArrayList<Vendor> localizedVendors = new ArrayList<>(vendors.size());
+        for (Vendor vendor : vendors) {
+            Entry entry = this.vendors.get(vendor.getId());
+            localizedVendors.add(entry == null || entry.name == null ? vendor : new Vendor(vendor.getId(),
+                    entry.name,
+                    vendor.getPurposes(),
+                    vendor.getLegitimatePurposes(),
+                    vendor.getFeatures(),
+                    vendor.getPolicyURL(),
+                    vendor.getDeletedDate()));
+        }
+        return localizedVendors;
+    }
+
+    /**
+     * Localize a vendor list.
+     *
+     * @param vendorList The vendor list to localize. It is not modified.
+     * @return A new localized vendor list, or the given vendor list if nothing is localized.
+     */
+    @NonNull
+    public VendorList localize(@NonNull VendorList vendorList) {
+        if (isEmpty()) {
+            return vendorList;
+        }
+
+        return new VendorList(vendorList.getVersion(),
+                vendorList.getLastUpdated(),
+                localizePurposes(vendorList.getPurposes()),
+                localizeFeatures(vendorList.getFeatures()),
+                vendors.isEmpty() ? vendorList.getVendors() : localizeVendors(vendorList.getVendors()));
+    }
+}
@@ -0,0 +1,386 @@
+package com.smartadserver.android.smartcmp.model;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.smartadserver.android.smartcmp.util.DateUtils;
+import com.smartadserver.android.smartcmp.util.JSONStreamReader;
+
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Date;
+
+/**
+ * Streaming parser building a VendorList directly from a vendor list JSON stream.
+ * <p>
+ * Purposes, features & vendors are built in one pass while the stream is read, so neither the raw JSON string nor
+ * a JSONObject tree is ever kept in memory: the peak memory used is roughly the size of the resulting VendorList.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class VendorListParser {
+
+    // The JSON keys, identical to the ones used by VendorList(JSONObject).
+    static private final String VENDOR_LIST_VERSION = "vendorListVersion";
+    static private final String LAST_UPDATED = "lastUpdated";
+    static private final String PURPOSES = "purposes";
+    static private final String FEATURES = "features";
+    static private final String VENDORS = "vendors";
+    static private final String ID = "id";
+    static private final String NAME = "name";
+    static private final String DESCRIPTION = "description";
+    static private final String PURPOSE_IDS = "purposeIds";
+    static private final String LEGITIMATE_PURPOSE_IDS = "legIntPurposeIds";
+    static private final String FEATURE_IDS = "featureIds";
+    static private final String POLICY_URL = "policyUrl";
+    static private final String DELETED_DATE = "deletedDate";
+
+    private VendorListParser() {
+    }
+
+    /**
+     * Parse a vendor list from a UTF-8 JSON stream.
+     * <p>
+     * Note: the stream is read until the end of the JSON document but is not closed.
+     *
+     * @param inputStream The vendor list JSON stream.
+     * @return The parsed vendor list.
+     * @throws IOException   if the stream cannot be read or is not valid JSON.
+     * @throws JSONException if a mandatory value is missing from the vendor list.
+     */
+    @NonNull
+    static public VendorList parse(@NonNull InputStream inputStream) throws IOException, JSONException {
+        return parse(new InputStreamReader(inputStream, "UTF-8"));
+    }
+
+    /**
+     * Parse a vendor list from a JSON character stream.
+     * <p>
+     * Note: the stream is read until the end of the JSON document but is not closed.
+     *
+     * @param reader The vendor list JSON character stream.
+     * @return The parsed vendor list.
+     * @throws IOException   if the stream cannot be read or is not valid JSON.
+     * @throws JSONException if a mandatory value is missing from the vendor list.
+     */
+    @NonNull
+    static public VendorList parse(@NonNull Reader reader) throws IOException, JSONException {
+        JSONStreamReader jsonReader = new JSONStreamReader(reader);
+
+        Integer version = null;
+        String lastUpdatedString = null;
+        ArrayList<Purpose> purposes = null;
+        ArrayList<Feature> features = null;
+        ArrayList<Vendor> vendors = null;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (VENDOR_LIST_VERSION.equals(name)) {
+                version = jsonReader.nextInt();
+            } else if (LAST_UPDATED.equals(name)) {
+                lastUpdatedString = jsonReader.nextString();
+            } else if (PURPOSES.equals(name)) {
+                purposes = new ArrayList<>();
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    String[] fields = readNamedObject(jsonReader, PURPOSES);
+                    purposes.add(new Purpose(Integer.parseInt(fields[0]), fields[1], fields[2]));
+                }
+                jsonReader.endArray();
+            } else if (FEATURES.equals(name)) {
+                features = new ArrayList<>();
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    String[] fields = readNamedObject(jsonReader, FEATURES);
+                    features.add(new Feature(Integer.parseInt(fields[0]), fields[1], fields[2]));
+                }
+                jsonReader.endArray();
+            } else if (VENDORS.equals(name)) {
+                vendors = new ArrayList<>();
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    vendors.add(readVendor(jsonReader));
+                }
+                jsonReader.endArray();
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        if (version == null) {
+            throw new JSONException("No value for " + VENDOR_LIST_VERSION + ".");
+        }
+        if (lastUpdatedString == null) {
+            throw new JSONException("No value for " + LAST_UPDATED + ".");
+        }
+        Date lastUpdated = DateUtils.dateFromString(lastUpdatedString);
+        if (lastUpdated == null) {
+            throw new JSONException("lastUpdated date format invalid.");
+        }
+        if (purposes == null) {
+            throw new JSONException("No value for " + PURPOSES + ".");
+        }
+        if (features == null) {
+            throw new JSONException("No value for " + FEATURES + ".");
+        }
+        if (vendors == null) {
+            throw new JSONException("No value for " + VENDORS + ".");
+        }
+
+        return new VendorList(version, lastUpdated, purposes, features, vendors);
+    }
+
+    /**
+     * Apply a localized vendor list read from a UTF-8 JSON stream to a vendor list.
+     * <p>
+     * The localized entries are indexed while the stream is read, then joined with the vendor list in a single pass.
+     * Missing or invalid localized entries are ignored, and the original name or description is kept.
+     * <p>
+     * Note: the stream is read until the end of the JSON document but is not closed.
+     *
+     * @param vendorList  The vendor list to localize. It is not modified.
+     * @param inputStream The localized vendor list JSON stream.
+     * @return A new localized vendor list, or the given vendor list if nothing is localized.
+     * @throws IOException if the stream cannot be read or is not valid JSON.
+     */
+    @NonNull
+    static public VendorList localize(@NonNull VendorList vendorList, @NonNull InputStream inputStream) throws IOException {
+        return parseLocalization(inputStream).localize(vendorList);
+    }
+
+    /**
+     * Parse a localized vendor list from a UTF-8 JSON stream, so it can be applied later on any vendor list.
+     * <p>
+     * Missing or invalid localized entries are ignored.
+     * <p>
+     * Note: the stream is read until the end of the JSON document but is not closed.
+     *
+     * @param inputStream The localized vendor list JSON stream.
+     * @return The localized entries, indexed by id.
+     * @throws IOException if the stream cannot be read or is not valid JSON.
+     */
+    @NonNull
+    static public VendorListLocalization parseLocalization(@NonNull InputStream inputStream) throws IOException {
+        JSONStreamReader jsonReader = new JSONStreamReader(new InputStreamReader(inputStream, "UTF-8"));
+        VendorListLocalization localization = new VendorListLocalization();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (jsonReader.peek() != JSONStreamReader.Token.BEGIN_ARRAY) {
+                jsonReader.skipValue();
+            } else if (PURPOSES.equals(name)) {
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    String[] fields = readLocalizedObject(jsonReader);
+                    if (fields != null) {
+                        localization.putPurpose(Integer.parseInt(fields[0]), fields[1], fields[2]);
+                    }
+                }
+                jsonReader.endArray();
+            } else if (FEATURES.equals(name)) {
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    String[] fields = readLocalizedObject(jsonReader);
+                    if (fields != null) {
+                        localization.putFeature(Integer.parseInt(fields[0]), fields[1], fields[2]);
+                    }
+                }
+                jsonReader.endArray();
+            } else if (VENDORS.equals(name)) {
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    String[] fields = readLocalizedObject(jsonReader);
+                    if (fields != null) {
+                        localization.putVendor(Integer.parseInt(fields[0]), fields[1]);
+                    }
+                }
+                jsonReader.endArray();
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        return localization;
+    }
+
+    /**
+     * Read a purpose or a feature object.
+     *
+     * @param jsonReader The reader positioned on the object.
+     * @param arrayName  The name of the enclosing array, for error messages.
+     * @return The id (a valid int), the name and the description of the object.
+     * @throws IOException   if the stream cannot be read or is not valid JSON.
+     * @throws JSONException if the id, the name or the description is missing.
+     */
+    @NonNull
+    static private String[] readNamedObject(@NonNull JSONStreamReader jsonReader, @NonNull String arrayName) throws IOException, JSONException {
+        String[] fields = readObjectFields(jsonReader);
+        if (parseId(fields[0]) == null || fields[1] == null || fields[2] == null) {
+            throw new JSONException("Invalid entry in " + arrayName + ".");
+        }
+        return fields;
+    }
+
+    /**
+     * Read a localized purpose, feature or vendor.
+     *
+     * @param jsonReader The reader positioned on the entry.
+     * @return The id (a valid int), the name and the description of the entry, null if the entry has no valid id.
+     * @throws IOException if the stream cannot be read or is not valid JSON.
+     */
+    @Nullable
+    static private String[] readLocalizedObject(@NonNull JSONStreamReader jsonReader) throws IOException {
+        if (jsonReader.peek() != JSONStreamReader.Token.BEGIN_OBJECT) {
+            jsonReader.skipValue();
+            return null;
+        }
+
+        String[] fields = readObjectFields(jsonReader);
+        return parseId(fields[0]) != null ? fields : null;
+    }
+
+    /**
+     * Read the id, name & description of an object, ignoring every other property.
+     *
+     * @param jsonReader The reader positioned on the object.
+     * @return The id, the name and the description of the object, each one being null if missing or not a string or number.
+     * @throws IOException if the stream cannot be read or is not valid JSON.
+     */
+    @NonNull
+    static private String[] readObjectFields(@NonNull JSONStreamReader jsonReader) throws IOException {
+        String[] fields = new String[3];
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (ID.equals(name)) {
+                fields[0] = readOptionalString(jsonReader);
+            } else if (NAME.equals(name)) {
+                fields[1] = readOptionalString(jsonReader);
+            } else if (DESCRIPTION.equals(name)) {
+                fields[2] = readOptionalString(jsonReader);
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        return fields;
+    }
+
+    /**
+     * Read a vendor object.
+     *
+     * @param jsonReader The reader positioned on the vendor.
+     * @return The parsed vendor.
+     * @throws IOException   if the stream cannot be read or is not valid JSON.
+     * @throws JSONException if a mandatory value of the vendor is missing.
+     */
+    @NonNull
+    static private Vendor readVendor(@NonNull JSONStreamReader jsonReader) throws IOException, JSONException {
+        Integer id = null;
+        String name = null;
+        String policyURLString = null;
+        ArrayList<Integer> purposes = null;
+        ArrayList<Integer> legPurposes = null;
+        ArrayList<Integer> features = null;
+        Date deletedDate = null;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String key = jsonReader.nextName();
+            if (ID.equals(key)) {
+                id = jsonReader.nextInt();
+            } else if (NAME.equals(key)) {
+                name = readOptionalString(jsonReader);
+            } else if (POLICY_URL.equals(key)) {
+                policyURLString = readOptionalString(jsonReader);
+            } else if (PURPOSE_IDS.equals(key)) {
+                purposes = readIntArray(jsonReader);
+            } else if (LEGITIMATE_PURPOSE_IDS.equals(key)) {
+                legPurposes = readIntArray(jsonReader);
+            } else if (FEATURE_IDS.equals(key)) {
+                features = readIntArray(jsonReader);
+            } else if (DELETED_DATE.equals(key)) {
+                // deletedDate can be undefined. No need to throw an exception.
+                String deletedDateString = readOptionalString(jsonReader);
+                deletedDate = deletedDateString != null ? DateUtils.dateFromString(deletedDateString) : null;
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        if (id == null || name == null || policyURLString == null || purposes == null || legPurposes == null || features == null) {
+            throw new JSONException("Invalid entry in " + VENDORS + (id != null ? " for vendor " + id : "") + ".");
+        }
+
+        URL policyURL = null;
+        try {
+            policyURL = new URL(policyURLString);
+        } catch (MalformedURLException e) {
+            // The privacy policy URL is optional, no need to throw exception if the URL is malformed.
+        }
+
+        return new Vendor(id, name, purposes, legPurposes, features, policyURL, deletedDate);
+    }
+
+    /**
+     * @param jsonReader The reader positioned on an array of ints.
+     * @return The ints of the array.
+     * @throws IOException if the stream cannot be read, is not valid JSON or if the value is not an array of ints.
+     */
+    @NonNull
+    static private ArrayList<Integer> readIntArray(@NonNull JSONStreamReader jsonReader) throws IOException {
+        ArrayList<Integer> values = new ArrayList<>();
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            values.add(jsonReader.nextInt());
+        }
+        jsonReader.endArray();
+        return values;
+    }
+
+    /**
+     * @param jsonReader The reader positioned on a value.
+     * @return The value if it is a string or a number, null otherwise (the value is skipped).
+     * @throws IOException if the stream cannot be read or is not valid JSON.
+     */
+    @Nullable
+    static private String readOptionalString(@NonNull JSONStreamReader jsonReader) throws IOException {
+        JSONStreamReader.Token token = jsonReader.peek();
+        if (token == JSONStreamReader.Token.STRING || token == JSONStreamReader.Token.NUMBER) {
+            return jsonReader.nextString();
+        }
+        jsonReader.skipValue();
+        return null;
+    }
+
+    /**
+     * @param value A string that should hold an int id.
+     * @return The id, or null if the string is null or not an int.
+     */
+    @Nullable
+    static private Integer parseId(@Nullable String value) {
+        if (value == null || value.isEmpty() || value.length() > 9) {
+            return null;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return null;
+            }
+        }
+        return Integer.parseInt(value);
+    }
+}
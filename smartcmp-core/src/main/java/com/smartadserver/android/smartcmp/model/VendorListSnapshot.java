@@ -0,0 +1,396 @@
+package com.smartadserver.android.smartcmp.model;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Compact binary serialization of a VendorList, much cheaper to load than the vendor list JSON.
+ * <p>
+ * A snapshot is made of:
+ * <ul>
+ * <li>a header: magic number, format version, vendor list version, last updated date & element counts,</li>
+ * <li>a string table holding every distinct name, description & URL once, as UTF-8,</li>
+ * <li>the purposes & features as (id, name index, description index) records,</li>
+ * <li>the vendors as fixed size records, their purpose, legitimate purpose & feature ids being stored in a shared
+ * packed int array using 1, 2 or 4 bytes per id depending on the highest id.</li>
+ * </ul>
+ * All values are big endian. Snapshots with another magic number or format version are rejected.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class VendorListSnapshot {
+
+    // The magic number of a snapshot ("SCVL").
+    static private final int MAGIC = 0x5343564C;
+
+    // The version of the snapshot format, to increment each time the format changes.
+    static private final int FORMAT_VERSION = 1;
+
+    // The header size: magic, format version, vendor list version, last updated, 4 counts & the packed ids width.
+    static private final int HEADER_SIZE = 4 + 4 + 4 + 8 + 4 * 4 + 1;
+
+    // The string index of a missing string.
+    static private final int NO_STRING = -1;
+
+    // The value of a missing date.
+    static private final long NO_DATE = Long.MIN_VALUE;
+
+    // The charset of the strings of the string table.
+    static private final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private VendorListSnapshot() {
+    }
+
+    /**
+     * Index of distinct strings, in their order of insertion.
+     */
+    static private class StringTable {
+        @NonNull
+        final HashMap<String, Integer> indexes = new HashMap<>();
+
+        @NonNull
+        final ArrayList<byte[]> strings = new ArrayList<>();
+
+        int size;
+
+        int indexOf(@Nullable String string) {
+            if (string == null) {
+                return NO_STRING;
+            }
+
+            Integer index = indexes.get(string);
+            if (index == null) {
+                index = strings.size();
+                byte[] bytes = string.getBytes(UTF_8);
+                indexes.put(string, index);
+                strings.add(bytes);
+                size += 4 + bytes.length;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Serialize a vendor list.
+     *
+     * @param vendorList The vendor list to serialize.
+     * @return A buffer holding the snapshot, positioned at its beginning.
+     */
+    @NonNull
+    static public ByteBuffer encode(@NonNull VendorList vendorList) {
+        ArrayList<Purpose> purposes = vendorList.getPurposes();
+        ArrayList<Feature> features = vendorList.getFeatures();
+        ArrayList<Vendor> vendors = vendorList.getVendors();
+
+        // Index the strings & measure the packed ids beforehand, so the buffer is allocated once.
+        StringTable stringTable = new StringTable();
+        for (Purpose purpose : purposes) {
+            stringTable.indexOf(purpose.getName());
+            stringTable.indexOf(purpose.getDescription());
+        }
+        for (Feature feature : features) {
+            stringTable.indexOf(feature.getName());
+            stringTable.indexOf(feature.getDescription());
+        }
+
+        int packedIdCount = 0;
+        int maxPackedId = 0;
+        for (Vendor vendor : vendors) {
+            stringTable.indexOf(vendor.getName());
+            stringTable.indexOf(vendor.getPolicyURL() != null ? vendor.getPolicyURL().toString() : null);
+            for (List<Integer> ids : idLists(vendor)) {
+                packedIdCount += ids.size();
+                for (int id : ids) {
+                    if (id < 0) {
+                        throw new IllegalArgumentException("Negative id in vendor " + vendor.getId() + ".");
+                    }
+                    maxPackedId = Math.max(maxPackedId, id);
+                }
+            }
+        }
+        int packedIdWidth = maxPackedId <= 0xFF ? 1 : maxPackedId <= 0xFFFF ? 2 : 4;
+
+        int size = HEADER_SIZE
+                + 4 + stringTable.size
+                + (purposes.size() + features.size()) * 12
+                + vendors.size() * (4 + 4 + 4 + 8 + 3 * 4)
+                + packedIdCount * packedIdWidth;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        // Header.
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putInt(vendorList.getVersion());
+        buffer.putLong(vendorList.getLastUpdated().getTime());
+        buffer.putInt(purposes.size());
+        buffer.putInt(features.size());
+        buffer.putInt(vendors.size());
+        buffer.putInt(packedIdCount);
+        buffer.put((byte) packedIdWidth);
+
+        // String table.
+        buffer.putInt(stringTable.strings.size());
+        for (byte[] string : stringTable.strings) {
+            buffer.putInt(string.length);
+            buffer.put(string);
+        }
+
+        // Purposes & features.
+        for (Purpose purpose : purposes) {
+            buffer.putInt(purpose.getId());
+            buffer.putInt(stringTable.indexOf(purpose.getName()));
+            buffer.putInt(stringTable.indexOf(purpose.getDescription()));
+        }
+        for (Feature feature : features) {
+            buffer.putInt(feature.getId());
+            buffer.putInt(stringTable.indexOf(feature.getName()));
+            buffer.putInt(stringTable.indexOf(feature.getDescription()));
+        }
+
+        // Vendors, followed by their packed ids.
+        for (Vendor vendor : vendors) {
+            buffer.putInt(vendor.getId());
+            buffer.putInt(stringTable.indexOf(vendor.getName()));
+            buffer.putInt(stringTable.indexOf(vendor.getPolicyURL() != null ? vendor.getPolicyURL().toString() : null));
+            buffer.putLong(vendor.getDeletedDate() != null ? vendor.getDeletedDate().getTime() : NO_DATE);
+            buffer.putInt(vendor.getPurposes().size());
+            buffer.putInt(vendor.getLegitimatePurposes().size());
+            buffer.putInt(vendor.getFeatures().size());
+        }
+        for (Vendor vendor : vendors) {
+            for (List<Integer> ids : idLists(vendor)) {
+                for (int id : ids) {
+                    putPackedId(buffer, id, packedIdWidth);
+                }
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Deserialize a vendor list.
+     *
+     * @param buffer The buffer holding the snapshot, read from its position.
+     * @return The deserialized vendor list.
+     * @throws IOException if the buffer does not hold a valid snapshot of the current format version.
+     */
+    @NonNull
+    static public VendorList decode(@NonNull ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a vendor list snapshot.");
+            }
+            int formatVersion = buffer.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported vendor list snapshot format version " + formatVersion + ".");
+            }
+
+            int version = buffer.getInt();
+            Date lastUpdated = new Date(buffer.getLong());
+            int purposeCount = checkCount(buffer.getInt(), buffer, 12);
+            int featureCount = checkCount(buffer.getInt(), buffer, 12);
+            int vendorCount = checkCount(buffer.getInt(), buffer, 32);
+            int packedIdCount = checkCount(buffer.getInt(), buffer, 1);
+            int packedIdWidth = buffer.get();
+            if (packedIdWidth != 1 && packedIdWidth != 2 && packedIdWidth != 4) {
+                throw new IOException("Invalid packed ids width " + packedIdWidth + ".");
+            }
+
+            String[] strings = new String[checkCount(buffer.getInt(), buffer, 4)];
+            byte[] bytes = new byte[256];
+            for (int i = 0; i < strings.length; i++) {
+                int length = checkCount(buffer.getInt(), buffer, 1);
+                if (length > bytes.length) {
+                    bytes = new byte[Math.max(length, bytes.length * 2)];
+                }
+                buffer.get(bytes, 0, length);
+                strings[i] = new String(bytes, 0, length, UTF_8);
+            }
+
+            ArrayList<Purpose> purposes = new ArrayList<>(purposeCount);
+            for (int i = 0; i < purposeCount; i++) {
+                purposes.add(new Purpose(buffer.getInt(), requireString(strings, buffer.getInt()), requireString(strings, buffer.getInt())));
+            }
+
+            ArrayList<Feature> features = new ArrayList<>(featureCount);
+            for (int i = 0; i < featureCount; i++) {
+                features.add(new Feature(buffer.getInt(), requireString(strings, buffer.getInt()), requireString(strings, buffer.getInt())));
+            }
+
+            // The packed ids follow the vendor records: read them from a second view of the buffer.
+            ByteBuffer packedIds = buffer.duplicate();
+            packedIds.position(buffer.position() + vendorCount * 32);
+            if (packedIds.remaining() < packedIdCount * packedIdWidth) {
+                throw new IOException("Truncated vendor list snapshot.");
+            }
+
+            ArrayList<Vendor> vendors = new ArrayList<>(vendorCount);
+            for (int i = 0; i < vendorCount; i++) {
+                int id = buffer.getInt();
+                String name = requireString(strings, buffer.getInt());
+                String policyURLString = optString(strings, buffer.getInt());
+                long deletedTime = buffer.getLong();
+                int purposesSize = buffer.getInt();
+                int legitimatePurposesSize = buffer.getInt();
+                int featuresSize = buffer.getInt();
+
+                URL policyURL = null;
+                if (policyURLString != null) {
+                    try {
+                        policyURL = new URL(policyURLString);
+                    } catch (MalformedURLException ignored) {
+                    }
+                }
+
+                vendors.add(new Vendor(id,
+                        name,
+                        getPackedIds(packedIds, purposesSize, packedIdWidth),
+                        getPackedIds(packedIds, legitimatePurposesSize, packedIdWidth),
+                        getPackedIds(packedIds, featuresSize, packedIdWidth),
+                        policyURL,
+                        deletedTime != NO_DATE ? new Date(deletedTime) : null));
+            }
+            buffer.position(packedIds.position());
+
+            return new VendorList(version, lastUpdated, purposes, features, vendors);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated vendor list snapshot.");
+        } catch (IllegalArgumentException e) {
+            // Thrown by the buffer if a size or a position is out of its bounds.
+            throw new IOException("Invalid vendor list snapshot.");
+        }
+    }
+
+    /**
+     * Write the snapshot of a vendor list in a file, replacing its content.
+     *
+     * @param vendorList The vendor list to serialize.
+     * @param file       The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    static public void write(@NonNull VendorList vendorList, @NonNull File file) throws IOException {
+        ByteBuffer buffer = encode(vendorList);
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            FileChannel channel = outputStream.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Read a vendor list from a snapshot file.
+     *
+     * @param file The file to read.
+     * @return The deserialized vendor list.
+     * @throws IOException if the file cannot be read or is not a valid snapshot of the current format version.
+     */
+    @NonNull
+    static public VendorList read(@NonNull File file) throws IOException {
+        FileInputStream inputStream = new FileInputStream(file);
+        try {
+            FileChannel channel = inputStream.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Vendor list snapshot too large.");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Truncated vendor list snapshot.");
+                }
+            }
+            buffer.flip();
+            return decode(buffer);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    @NonNull
+    static private ArrayList<List<Integer>> idLists(@NonNull Vendor vendor) {
+        ArrayList<List<Integer>> idLists = new ArrayList<>(3);
+        idLists.add(vendor.getPurposes());
+        idLists.add(vendor.getLegitimatePurposes());
+        idLists.add(vendor.getFeatures());
+        return idLists;
+    }
+
+    static private void putPackedId(@NonNull ByteBuffer buffer, int id, int width) {
+        if (width == 1) {
+            buffer.put((byte) id);
+        } else if (width == 2) {
+            buffer.putShort((short) id);
+        } else {
+            buffer.putInt(id);
+        }
+    }
+
+    @NonNull
+    static private ArrayList<Integer> getPackedIds(@NonNull ByteBuffer buffer, int count, int width) throws IOException {
+        checkCount(count, buffer, width);
+        ArrayList<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (width == 1) {
+                ids.add(buffer.get() & 0xFF);
+            } else if (width == 2) {
+                ids.add(buffer.getShort() & 0xFFFF);
+            } else {
+                ids.add(buffer.getInt());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Check that a count read from a snapshot is consistent with the remaining bytes, so a corrupted snapshot
+     * cannot trigger huge allocations.
+     */
+    static private int checkCount(int count, @NonNull ByteBuffer buffer, int minElementSize) throws IOException {
+        if (count < 0 || (long) count * minElementSize > buffer.remaining()) {
+            throw new IOException("Invalid vendor list snapshot.");
+        }
+        return count;
+    }
+
+    @NonNull
+    static private String requireString(@NonNull String[] strings, int index) throws IOException {
+        String string = optString(strings, index);
+        if (string == null) {
+            throw new IOException("Invalid string index " + index + " in vendor list snapshot.");
+        }
+        return string;
+    }
+
+    @Nullable
+    static private String optString(@NonNull String[] strings, int index) throws IOException {
+        if (index == NO_STRING) {
+            return null;
+        }
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Invalid string index " + index + " in vendor list snapshot.");
+        }
+        return strings[index];
+    }
+}
@@ -1,7 +1,5 @@
 package com.smartadserver.android.smartcmp.model;
 
-import android.os.Parcel;
-import android.os.Parcelable;
 
 import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberException;
 
@@ -9,7 +7,7 @@ import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberExceptio
  * Configuration for a given version of the consent string.
  */
 
-public class VersionConfig implements Parcelable {
+public class VersionConfig {
 
     // the version of the consent string.
     private int version;
@@ -244,6 +242,21 @@ public class VersionConfig implements Parcelable {
         return endVendorIdBitSize;
     }
 
+    /**
+     * @return The number of bits used by all the fields preceding the maxVendorId field.
+     */
+    public int getHeaderBitSize() {
+        return versionBitSize
+                + createdBitSize
+                + lastUpdatedBitSize
+                + cmpIdBitSize
+                + cmpVersionBitSize
+                + consentScreenBitSize
+                + consentLanguageBitSize
+                + vendorListVersionBitSize
+                + allowedPurposesBitSize;
+    }
+
     /**
      * @return The bit representing a bitfield encoding.
      */
@@ -283,75 +296,4 @@ public class VersionConfig implements Parcelable {
             return null;
         }
     }
-
-    ////////////////////////////
-    //// Parcelable section ////
-    ////////////////////////////
-
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeInt(this.version);
-        dest.writeInt(this.createdBitSize);
-        dest.writeInt(this.lastUpdatedBitSize);
-        dest.writeInt(this.cmpIdBitSize);
-        dest.writeInt(this.cmpVersionBitSize);
-        dest.writeInt(this.consentScreenBitSize);
-        dest.writeInt(this.consentLanguageBitSize);
-        dest.writeInt(this.vendorListVersionBitSize);
-        dest.writeInt(this.allowedPurposesBitSize);
-        dest.writeInt(this.maxVendorIdBitSize);
-        dest.writeInt(this.encodingTypeBitSize);
-        dest.writeInt(this.defaultConsentBitSize);
-        dest.writeInt(this.numEntriesBitSize);
-        dest.writeInt(this.singleOrRangeBitSize);
-        dest.writeInt(this.singleVendorIdBitSize);
-        dest.writeInt(this.startVendorIdBitSize);
-        dest.writeInt(this.endVendorIdBitSize);
-        dest.writeString(this.encodingTypeBitfield);
-        dest.writeString(this.encodingTypeRange);
-        dest.writeString(this.rangeSingleId);
-        dest.writeString(this.rangeStartEndId);
-    }
-
-    @SuppressWarnings("WeakerAccess")
-    protected VersionConfig(Parcel in) {
-        this.version = in.readInt();
-        this.createdBitSize = in.readInt();
-        this.lastUpdatedBitSize = in.readInt();
-        this.cmpIdBitSize = in.readInt();
-        this.cmpVersionBitSize = in.readInt();
-        this.consentScreenBitSize = in.readInt();
-        this.consentLanguageBitSize = in.readInt();
-        this.vendorListVersionBitSize = in.readInt();
-        this.allowedPurposesBitSize = in.readInt();
-        this.maxVendorIdBitSize = in.readInt();
-        this.encodingTypeBitSize = in.readInt();
-        this.defaultConsentBitSize = in.readInt();
-        this.numEntriesBitSize = in.readInt();
-        this.singleOrRangeBitSize = in.readInt();
-        this.singleVendorIdBitSize = in.readInt();
-        this.startVendorIdBitSize = in.readInt();
-        this.endVendorIdBitSize = in.readInt();
-        this.encodingTypeBitfield = in.readString();
-        this.encodingTypeRange = in.readString();
-        this.rangeSingleId = in.readString();
-        this.rangeStartEndId = in.readString();
-    }
-
-    public static final Creator<VersionConfig> CREATOR = new Creator<VersionConfig>() {
-        @Override
-        public VersionConfig createFromParcel(Parcel source) {
-            return new VersionConfig(source);
-        }
-
-        @Override
-        public VersionConfig[] newArray(int size) {
-            return new VersionConfig[size];
-        }
-    };
 }
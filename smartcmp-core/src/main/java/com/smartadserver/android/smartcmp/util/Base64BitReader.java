@@ -0,0 +1,97 @@
+package com.smartadserver.android.smartcmp.util;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Reads fixed-width fields directly from a base64URL string, most significant bit first, using a bit cursor.
+ * <p>
+ * The string is never decoded into bytes: every read only looks at the characters holding the requested bits.
+ * The readable bits are the same as the bytes returned by Base64URLUtils.decode.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class Base64BitReader extends BitSource {
+
+    // The number of bits stored in a base64 character.
+    static private final int BITS_PER_CHAR = 6;
+
+    // The base64URL string being read.
+    @NonNull
+    private final String base64URLString;
+
+    /**
+     * Initialize a Base64BitReader on a base64URL string.
+     * <p>
+     * Every character is validated, but nothing is allocated.
+     *
+     * @param base64URLString The base64URL string that will be read (trailing padding characters are ignored).
+     * @throws IllegalArgumentException If the given Base64 string is invalid.
+     */
+    public Base64BitReader(@NonNull String base64URLString) throws IllegalArgumentException {
+        super(readableBitLength(base64URLString));
+        this.base64URLString = base64URLString;
+    }
+
+    /**
+     * Validate a base64URL string and compute its number of readable bits.
+     *
+     * @param base64URLString The base64URL string that will be read.
+     * @return The number of readable bits.
+     * @throws IllegalArgumentException If the given Base64 string is invalid.
+     */
+    static private int readableBitLength(@NonNull String base64URLString) throws IllegalArgumentException {
+        int length = base64URLString.length();
+        while (length > 0 && base64URLString.charAt(length - 1) == '=') {
+            length--;
+        }
+
+        if (length % 4 == 1) {
+            throw new IllegalArgumentException("Invalid base64 string length.");
+        }
+
+        for (int i = 0; i < length; i++) {
+            char c = base64URLString.charAt(i);
+            if (Base64URLUtils.valueOf(c) < 0) {
+                throw new IllegalArgumentException("Invalid base64 character '" + c + "'.");
+            }
+        }
+
+        // Incomplete trailing bits (less than a byte) are not readable, like when decoding the string.
+        return length * BITS_PER_CHAR / 8 * 8;
+    }
+
+    @Override
+    public long readLong(int numberOfBits) throws IllegalArgumentException {
+        checkReadableLong(numberOfBits);
+
+        long value = 0;
+        int remaining = numberOfBits;
+        while (remaining > 0) {
+            int availableBits = BITS_PER_CHAR - position % BITS_PER_CHAR;
+            int count = Math.min(availableBits, remaining);
+            int chunk = (charValue(position / BITS_PER_CHAR) >>> (availableBits - count)) & ((1 << count) - 1);
+
+            value = (value << count) | chunk;
+
+            remaining -= count;
+            position += count;
+        }
+
+        return value;
+    }
+
+    @Override
+    public boolean bitAt(int position) {
+        return (charValue(position / BITS_PER_CHAR) & (0x20 >>> (position % BITS_PER_CHAR))) != 0;
+    }
+
+    /**
+     * Return the 6 bits value of a character of the string.
+     *
+     * @param index The index of the character.
+     * @return The value of the character.
+     */
+    private int charValue(int index) {
+        return Base64URLUtils.valueOf(base64URLString.charAt(index));
+    }
+}
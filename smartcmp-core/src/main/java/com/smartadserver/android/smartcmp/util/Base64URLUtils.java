@@ -0,0 +1,153 @@
+package com.smartadserver.android.smartcmp.util;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Util class to encode / decode base64url strings (without padding) & Data objects.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class Base64URLUtils {
+
+    // The base64URL alphabet, indexed by 6 bits value.
+    static private final char[] ENCODING_TABLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    // The 6 bits value of every ASCII character, or -1 if the character is not part of the alphabet.
+    static private final byte[] DECODING_TABLE = new byte[128];
+
+    static {
+        Arrays.fill(DECODING_TABLE, (byte) -1);
+        for (int i = 0; i < ENCODING_TABLE.length; i++) {
+            DECODING_TABLE[ENCODING_TABLE[i]] = (byte) i;
+        }
+
+        // The standard base64 alphabet is accepted as well when decoding.
+        DECODING_TABLE['+'] = 62;
+        DECODING_TABLE['/'] = 63;
+    }
+
+    /**
+     * Create a base64URL (without padding) from string.
+     *
+     * @param string The string that needs to be converted.
+     * @return A base64URL string without padding.
+     */
+    @SuppressWarnings("SameParameterValue")
+    static public String getBase64URL(String string) {
+        return getBase64URL(string.getBytes());
+    }
+
+    /**
+     * Create a base64URL (without padding) from a byte array.
+     *
+     * @param data The byte array that needs to be converted.
+     * @return A base64URL string without padding.
+     */
+    static public String getBase64URL(byte[] data) {
+        char[] chars = new char[(data.length * 8 + 5) / 6];
+
+        int charIndex = 0;
+        int fullGroups = data.length / 3 * 3;
+        for (int i = 0; i < fullGroups; i += 3) {
+            int group = (data[i] & 0xFF) << 16 | (data[i + 1] & 0xFF) << 8 | (data[i + 2] & 0xFF);
+            chars[charIndex++] = ENCODING_TABLE[group >>> 18];
+            chars[charIndex++] = ENCODING_TABLE[(group >>> 12) & 0x3F];
+            chars[charIndex++] = ENCODING_TABLE[(group >>> 6) & 0x3F];
+            chars[charIndex++] = ENCODING_TABLE[group & 0x3F];
+        }
+
+        int remainingBytes = data.length - fullGroups;
+        if (remainingBytes == 1) {
+            int group = (data[fullGroups] & 0xFF) << 16;
+            chars[charIndex++] = ENCODING_TABLE[group >>> 18];
+            chars[charIndex] = ENCODING_TABLE[(group >>> 12) & 0x3F];
+        } else if (remainingBytes == 2) {
+            int group = (data[fullGroups] & 0xFF) << 16 | (data[fullGroups + 1] & 0xFF) << 8;
+            chars[charIndex++] = ENCODING_TABLE[group >>> 18];
+            chars[charIndex++] = ENCODING_TABLE[(group >>> 12) & 0x3F];
+            chars[charIndex] = ENCODING_TABLE[(group >>> 6) & 0x3F];
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * Return the 6 bits value of a base64URL character.
+     * <p>
+     * Characters of the standard base64 alphabet are accepted as well.
+     *
+     * @param c The character to decode.
+     * @return The 6 bits value of the character, or -1 if the character is not part of the alphabet.
+     */
+    static public int valueOf(char c) {
+        return c < DECODING_TABLE.length ? DECODING_TABLE[c] : -1;
+    }
+
+    /**
+     * Decode a base64URL string without padding into a byte array.
+     * <p>
+     * Trailing padding characters are tolerated and ignored. Incomplete trailing bits (less than a byte) are dropped.
+     *
+     * @param base64URLString The base64URL string to be decoded.
+     * @return The decoded bytes.
+     * @throws IllegalArgumentException If the given Base64 string is invalid.
+     */
+    static public byte[] decode(@NonNull String base64URLString) throws IllegalArgumentException {
+        int length = base64URLString.length();
+        while (length > 0 && base64URLString.charAt(length - 1) == '=') {
+            length--;
+        }
+
+        if (length % 4 == 1) {
+            throw new IllegalArgumentException("Invalid base64 string length.");
+        }
+
+        byte[] bytes = new byte[length * 6 / 8];
+
+        int byteIndex = 0;
+        int buffer = 0;
+        int bufferedBits = 0;
+        for (int i = 0; i < length; i++) {
+            char c = base64URLString.charAt(i);
+            int value = valueOf(c);
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid base64 character '" + c + "'.");
+            }
+
+            buffer = (buffer << 6) | value;
+            bufferedBits += 6;
+
+            if (bufferedBits >= 8) {
+                bufferedBits -= 8;
+                bytes[byteIndex++] = (byte) (buffer >>> bufferedBits);
+                buffer &= (1 << bufferedBits) - 1;
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Decode a base64URL string without padding.
+     *
+     * @param base64URLString The base64URL string to be decoded.
+     * @return The decoded string.
+     * @throws IllegalArgumentException If the given Base64 string is invalid.
+     */
+    static public String decodeString(@NonNull String base64URLString, boolean isBitsString) throws IllegalArgumentException {
+        byte[] bytes = decode(base64URLString);
+
+        if (isBitsString) {
+            char[] bits = new char[bytes.length * 8];
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = (bytes[i >>> 3] & (0x80 >>> (i & 7))) != 0 ? '1' : '0';
+            }
+            return new String(bits);
+        }
+
+        return new String(bytes);
+    }
+
+}
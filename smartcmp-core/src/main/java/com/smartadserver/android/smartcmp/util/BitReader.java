@@ -0,0 +1,83 @@
+package com.smartadserver.android.smartcmp.util;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Reads fixed-width fields from a byte array, most significant bit first, using a bit cursor.
+ * <p>
+ * Reading never copies the underlying bytes.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class BitReader extends BitSource {
+
+    // The bytes being read.
+    @NonNull
+    private final byte[] bytes;
+
+    /**
+     * Initialize a BitReader on a byte array.
+     *
+     * @param bytes The bytes that will be read. The array is used as is and must not be modified while reading.
+     */
+    public BitReader(@NonNull byte[] bytes) {
+        super(bytes.length * 8);
+        this.bytes = bytes;
+    }
+
+    @Override
+    public long readLong(int numberOfBits) throws IllegalArgumentException {
+        checkReadableLong(numberOfBits);
+
+        long value = 0;
+        int remaining = numberOfBits;
+        while (remaining > 0) {
+            int availableBits = 8 - (position & 7);
+            int count = Math.min(availableBits, remaining);
+            int chunk = ((bytes[position >>> 3] & 0xFF) >>> (availableBits - count)) & ((1 << count) - 1);
+
+            value = (value << count) | chunk;
+
+            remaining -= count;
+            position += count;
+        }
+
+        return value;
+    }
+
+    /**
+     * Read a bitfield where the n-th bit tells whether the id n is part of the set.
+     *
+     * @param count The number of bits of the bitfield.
+     * @return A packed set containing the id of every '1' bit of the bitfield.
+     * @throws IllegalArgumentException if there are not enough bits left.
+     */
+    @NonNull
+    public IdBitSet readBitfield(int count) throws IllegalArgumentException {
+        checkRemaining(count);
+
+        IdBitSet ids = new IdBitSet(count);
+        int start = position - 1;
+        int end = position + count;
+
+        while (position < end) {
+            // Skipping empty bytes at once.
+            if ((position & 7) == 0 && end - position >= 8 && bytes[position >>> 3] == 0) {
+                position += 8;
+                continue;
+            }
+
+            if (bitAt(position)) {
+                ids.set(position - start);
+            }
+            position++;
+        }
+
+        return ids;
+    }
+
+    @Override
+    public boolean bitAt(int position) {
+        return (bytes[position >>> 3] & (0x80 >>> (position & 7))) != 0;
+    }
+}
@@ -0,0 +1,123 @@
+package com.smartadserver.android.smartcmp.util;
+
+/**
+ * Source of bits read most significant bit first using a bit cursor.
+ * <p>
+ * Holds the cursor & the bounds checks shared by the readers: subclasses only define how bits are fetched from
+ * their underlying storage.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public abstract class BitSource {
+
+    // The number of readable bits.
+    private final int bitLength;
+
+    // The position of the next bit to read.
+    protected int position;
+
+    /**
+     * Initialize a BitSource.
+     *
+     * @param bitLength The number of readable bits.
+     */
+    protected BitSource(int bitLength) {
+        this.bitLength = bitLength;
+    }
+
+    /**
+     * Make sure enough bits remain to be read.
+     *
+     * @param numberOfBits The number of bits that will be read.
+     * @throws IllegalArgumentException if there are not enough bits left.
+     */
+    protected void checkRemaining(int numberOfBits) throws IllegalArgumentException {
+        if (numberOfBits < 0 || numberOfBits > bitLength - position) {
+            throw new IllegalArgumentException("Can not read " + numberOfBits + " bits, only " + (bitLength - position) + " bits left.");
+        }
+    }
+
+    /**
+     * Make sure a number can be read at once, and enough bits remain to read it.
+     *
+     * @param numberOfBits The number of bits used to encode the number.
+     * @throws IllegalArgumentException if the number is too large or if there are not enough bits left.
+     */
+    protected void checkReadableLong(int numberOfBits) throws IllegalArgumentException {
+        if (numberOfBits > 63) {
+            throw new IllegalArgumentException("Can not read more than 63 bits at once.");
+        }
+        checkRemaining(numberOfBits);
+    }
+
+    /**
+     * Read a positive number encoded on a given number of bits.
+     *
+     * @param numberOfBits The number of bits used to encode the value (between 0 and 63).
+     * @return The decoded number.
+     * @throws IllegalArgumentException if there are not enough bits left.
+     */
+    public abstract long readLong(int numberOfBits) throws IllegalArgumentException;
+
+    /**
+     * Return the value of the bit at a given absolute position, without moving the cursor.
+     * <p>
+     * Precondition: position must be lower than the number of readable bits.
+     *
+     * @param position The absolute position of the bit.
+     * @return true if the bit is '1', false otherwise.
+     */
+    public abstract boolean bitAt(int position);
+
+    /**
+     * Read a positive int encoded on a given number of bits.
+     *
+     * @param numberOfBits The number of bits used to encode the value (between 0 and 31).
+     * @return The decoded number.
+     * @throws IllegalArgumentException if there are not enough bits left.
+     */
+    public int readInt(int numberOfBits) throws IllegalArgumentException {
+        if (numberOfBits > 31) {
+            throw new IllegalArgumentException("Can not read more than 31 bits in an int.");
+        }
+        return (int) readLong(numberOfBits);
+    }
+
+    /**
+     * Read a single bit.
+     *
+     * @return true if the bit is '1', false otherwise.
+     * @throws IllegalArgumentException if there are no bits left.
+     */
+    public boolean readBool() throws IllegalArgumentException {
+        checkRemaining(1);
+        boolean value = bitAt(position);
+        position++;
+        return value;
+    }
+
+    /**
+     * Move the cursor forward without reading.
+     *
+     * @param numberOfBits The number of bits to skip.
+     * @throws IllegalArgumentException if there are not enough bits left.
+     */
+    public void skip(int numberOfBits) throws IllegalArgumentException {
+        checkRemaining(numberOfBits);
+        position += numberOfBits;
+    }
+
+    /**
+     * @return The position of the next bit to read.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return The number of bits that can still be read.
+     */
+    public int remaining() {
+        return bitLength - position;
+    }
+}
@@ -0,0 +1,198 @@
+package com.smartadserver.android.smartcmp.util;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Writes fixed-width fields into a growable byte buffer, most significant bit first.
+ * <p>
+ * The buffer can be reused for several payloads by calling {@link #reset()}.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class BitWriter {
+
+    // The buffer holding the written bits (unused trailing bits are always 0).
+    @NonNull
+    private byte[] buffer;
+
+    // The number of bits written so far.
+    private int bitLength;
+
+    /**
+     * Initialize an empty BitWriter.
+     */
+    public BitWriter() {
+        this(256);
+    }
+
+    /**
+     * Initialize an empty BitWriter with an initial capacity.
+     *
+     * @param expectedBitLength The number of bits expected to be written.
+     */
+    public BitWriter(int expectedBitLength) {
+        buffer = new byte[Math.max(1, (expectedBitLength + 7) >>> 3)];
+    }
+
+    /**
+     * Make sure the buffer can hold the given number of bits.
+     *
+     * @param bitCount The total number of bits the buffer must be able to hold.
+     */
+    private void ensureCapacity(int bitCount) {
+        int byteCount = (bitCount + 7) >>> 3;
+        if (byteCount > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(byteCount, buffer.length * 2));
+        }
+    }
+
+    /**
+     * Write a positive number on a given number of bits.
+     *
+     * @param value        The number to write.
+     *                     - Precondition: value must be a positive number (or equals to 0).
+     * @param numberOfBits The number of bits used to encode the value (between 0 and 63).
+     * @throws IllegalArgumentException if the value is negative or does not fit in the given number of bits.
+     */
+    public void writeLong(long value, int numberOfBits) throws IllegalArgumentException {
+        if (value < 0 || numberOfBits < 0 || numberOfBits > 63 || (value >>> numberOfBits) != 0) {
+            throw new IllegalArgumentException("Value " + value + " can not be encoded on " + numberOfBits + " bits.");
+        }
+
+        ensureCapacity(bitLength + numberOfBits);
+
+        int remaining = numberOfBits;
+        while (remaining > 0) {
+            int freeBits = 8 - (bitLength & 7);
+            int count = Math.min(freeBits, remaining);
+            int chunk = (int) (value >>> (remaining - count)) & ((1 << count) - 1);
+
+            buffer[bitLength >>> 3] |= (byte) (chunk << (freeBits - count));
+
+            remaining -= count;
+            bitLength += count;
+        }
+    }
+
+    /**
+     * Write a positive int on a given number of bits.
+     *
+     * @param value        The number to write.
+     * @param numberOfBits The number of bits used to encode the value.
+     * @throws IllegalArgumentException if the value is negative or does not fit in the given number of bits.
+     */
+    public void writeInt(int value, int numberOfBits) throws IllegalArgumentException {
+        writeLong(value, numberOfBits);
+    }
+
+    /**
+     * Write a single bit.
+     *
+     * @param value true to write a '1' bit, false to write a '0' bit.
+     */
+    public void writeBool(boolean value) {
+        ensureCapacity(bitLength + 1);
+        if (value) {
+            setBit(bitLength);
+        }
+        bitLength++;
+    }
+
+    /**
+     * Write a short constant bits string, like the encoding type flags of a VersionConfig.
+     *
+     * @param bits A string only containing '0' and '1' characters.
+     * @throws IllegalArgumentException if the string contains other characters.
+     */
+    public void writeBits(@NonNull String bits) throws IllegalArgumentException {
+        ensureCapacity(bitLength + bits.length());
+        for (int i = 0; i < bits.length(); i++) {
+            char c = bits.charAt(i);
+            if (c == '1') {
+                setBit(bitLength);
+            } else if (c != '0') {
+                throw new IllegalArgumentException("Bad bits string.");
+            }
+            bitLength++;
+        }
+    }
+
+    /**
+     * Write a bitfield of a given length where the n-th bit is set if the id n is part of the set.
+     *
+     * @param ids   The packed set of ids to write.
+     * @param count The number of bits of the bitfield (ids greater than count are not written).
+     */
+    public void writeBitfield(@NonNull IdBitSet ids, int count) {
+        ensureCapacity(bitLength + count);
+
+        // The buffer is zeroed, so only the set ids need to be visited.
+        int start = bitLength - 1;
+        for (int id = ids.nextSetId(1); id != -1 && id <= count; id = ids.nextSetId(id + 1)) {
+            setBit(start + id);
+        }
+
+        bitLength += count;
+    }
+
+    /**
+     * Append every bit written in another BitWriter.
+     *
+     * @param writer The BitWriter to append.
+     */
+    public void write(@NonNull BitWriter writer) {
+        int fullBytes = writer.bitLength >>> 3;
+        for (int i = 0; i < fullBytes; i++) {
+            writeLong(writer.buffer[i] & 0xFF, 8);
+        }
+
+        int remainingBits = writer.bitLength & 7;
+        if (remainingBits > 0) {
+            writeLong((writer.buffer[fullBytes] & 0xFF) >>> (8 - remainingBits), remainingBits);
+        }
+    }
+
+    /**
+     * Set the bit at the given position.
+     * <p>
+     * Precondition: the position must fit in the buffer.
+     *
+     * @param position The position of the bit to set.
+     */
+    private void setBit(int position) {
+        buffer[position >>> 3] |= (byte) (0x80 >>> (position & 7));
+    }
+
+    /**
+     * @return The number of bits written so far.
+     */
+    public int length() {
+        return bitLength;
+    }
+
+    /**
+     * Clear every written bit so the buffer can be reused.
+     */
+    public void reset() {
+        Arrays.fill(buffer, 0, (bitLength + 7) >>> 3, (byte) 0);
+        bitLength = 0;
+    }
+
+    /**
+     * @return The written bits as a byte array, right padded with '0' bits to a complete byte.
+     */
+    @NonNull
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (bitLength + 7) >>> 3);
+    }
+
+    /**
+     * @return The written bits as a base64URL string (without padding).
+     */
+    @NonNull
+    public String toBase64URL() {
+        return Base64URLUtils.getBase64URL(toByteArray());
+    }
+}
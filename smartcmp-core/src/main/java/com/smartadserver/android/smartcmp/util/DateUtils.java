@@ -1,6 +1,5 @@
 package com.smartadserver.android.smartcmp.util;
 
-import android.annotation.SuppressLint;
 import android.support.annotation.NonNull;
 
 import java.text.DateFormat;
@@ -20,8 +19,9 @@ public class DateUtils {
      * @param stringDate The string that needs to be parsed as a date (the date needs to be in ISO 8601 format).
      * @return A date if the string is valid, null otherwise.
      */
-    @SuppressLint("SimpleDateFormat")
     static public Date dateFromString(@NonNull String stringDate) {
+        stringDate = normalizeFractionalSeconds(stringDate);
+
         DateFormat format = new SimpleDateFormat(DATE_FORMAT_MILLISECOND);
         format.setTimeZone(TimeZone.getTimeZone("UTC"));
         try {
@@ -39,4 +39,31 @@ public class DateUtils {
             return null;
         }
     }
+
+    /**
+     * Pad or truncate the fractional seconds of an ISO 8601 date to exactly 3 digits.
+     * <p>
+     * Android reads '.9' as 900 milliseconds while the JVM SimpleDateFormat reads it as 9 milliseconds: normalizing
+     * the fraction beforehand gives the same result on both platforms.
+     *
+     * @param stringDate The ISO 8601 date string.
+     * @return The date string with a 3 digits fraction, or the original string if it has no fraction.
+     */
+    @NonNull
+    static private String normalizeFractionalSeconds(@NonNull String stringDate) {
+        int dotIndex = stringDate.lastIndexOf('.');
+        int endIndex = stringDate.length() - 1;
+        if (dotIndex < 0 || !stringDate.endsWith("Z") || endIndex - dotIndex < 2 || endIndex - dotIndex == 4) {
+            return stringDate;
+        }
+
+        for (int i = dotIndex + 1; i < endIndex; i++) {
+            if (!Character.isDigit(stringDate.charAt(i))) {
+                return stringDate;
+            }
+        }
+
+        String fraction = (stringDate.substring(dotIndex + 1, endIndex) + "000").substring(0, 3);
+        return stringDate.substring(0, dotIndex + 1) + fraction + "Z";
+    }
 }
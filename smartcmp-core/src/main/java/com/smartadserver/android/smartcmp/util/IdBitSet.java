@@ -0,0 +1,455 @@
+package com.smartadserver.android.smartcmp.util;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Packed set of strictly positive ids (vendor ids, purpose ids…) backed by an array of longs.
+ * <p>
+ * Each id is stored as a single bit, so membership checks are O(1) and do not allocate.
+ * Ids lower than 1 are never members of the set.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class IdBitSet {
+
+    // The number of bits stored in each word.
+    static private final int WORD_SIZE = 64;
+
+    // The shift used to convert an id into a word index.
+    static private final int WORD_SHIFT = 6;
+
+    // The operations that can be applied on a range of ids.
+    static private final int RANGE_SET = 0;
+    static private final int RANGE_CLEAR = 1;
+    static private final int RANGE_FLIP = 2;
+
+    // The words storing the ids (bit n of the set is stored in words[n >>> 6]).
+    @NonNull
+    private long[] words;
+
+    /**
+     * Initialize an empty IdBitSet.
+     */
+    public IdBitSet() {
+        this(0);
+    }
+
+    /**
+     * Initialize an empty IdBitSet able to store ids up to the given one without growing.
+     *
+     * @param maxId The highest id expected in the set.
+     */
+    public IdBitSet(int maxId) {
+        words = new long[wordCount(maxId)];
+    }
+
+    /**
+     * Initialize an IdBitSet by copying the given one.
+     *
+     * @param bitSet The IdBitSet to copy.
+     */
+    public IdBitSet(@NonNull IdBitSet bitSet) {
+        words = bitSet.words.clone();
+    }
+
+    /**
+     * Initialize an IdBitSet containing all the ids of the given collection.
+     *
+     * @param ids A collection of ids.
+     */
+    public IdBitSet(@NonNull Collection<Integer> ids) {
+        int maxId = 0;
+        for (Integer id : ids) {
+            maxId = Math.max(maxId, id);
+        }
+
+        words = new long[wordCount(maxId)];
+        for (Integer id : ids) {
+            set(id);
+        }
+    }
+
+    /**
+     * Return the number of words needed to store ids up to the given one.
+     *
+     * @param maxId The highest id that must fit in the words.
+     * @return The number of words needed.
+     */
+    static private int wordCount(int maxId) {
+        return maxId <= 0 ? 0 : (maxId >>> WORD_SHIFT) + 1;
+    }
+
+    /**
+     * Make sure that the given id fits in the words array.
+     *
+     * @param id The id that must fit in the words array.
+     */
+    private void ensureCapacity(int id) {
+        int count = wordCount(id);
+        if (count > words.length) {
+            words = Arrays.copyOf(words, Math.max(count, words.length * 2));
+        }
+    }
+
+    /**
+     * Check if an id is part of the set.
+     *
+     * @param id The id which should be checked.
+     * @return true if the id is part of the set, false otherwise.
+     */
+    public boolean get(int id) {
+        if (id <= 0) {
+            return false;
+        }
+
+        int wordIndex = id >>> WORD_SHIFT;
+        return wordIndex < words.length && (words[wordIndex] & (1L << id)) != 0;
+    }
+
+    /**
+     * Add an id to the set.
+     *
+     * @param id The id to add (ignored if lower than 1).
+     */
+    public void set(int id) {
+        if (id <= 0) {
+            return;
+        }
+
+        ensureCapacity(id);
+        words[id >>> WORD_SHIFT] |= 1L << id;
+    }
+
+    /**
+     * Add or remove an id from the set.
+     *
+     * @param id    The id to add or remove.
+     * @param value true to add the id, false to remove it.
+     */
+    public void set(int id, boolean value) {
+        if (value) {
+            set(id);
+        } else {
+            clear(id);
+        }
+    }
+
+    /**
+     * Remove an id from the set.
+     *
+     * @param id The id to remove.
+     */
+    public void clear(int id) {
+        if (id <= 0) {
+            return;
+        }
+
+        int wordIndex = id >>> WORD_SHIFT;
+        if (wordIndex < words.length) {
+            words[wordIndex] &= ~(1L << id);
+        }
+    }
+
+    /**
+     * Add every id between two bounds (both included) to the set.
+     *
+     * @param fromId The first id to add.
+     * @param toId   The last id to add.
+     */
+    public void setRange(int fromId, int toId) {
+        fromId = Math.max(fromId, 1);
+        if (fromId > toId) {
+            return;
+        }
+
+        ensureCapacity(toId);
+        applyRange(fromId, toId, RANGE_SET);
+    }
+
+    /**
+     * Remove every id between two bounds (both included) from the set.
+     *
+     * @param fromId The first id to remove.
+     * @param toId   The last id to remove.
+     */
+    public void clearRange(int fromId, int toId) {
+        fromId = Math.max(fromId, 1);
+        toId = Math.min(toId, words.length * WORD_SIZE - 1);
+        if (fromId > toId) {
+            return;
+        }
+
+        applyRange(fromId, toId, RANGE_CLEAR);
+    }
+
+    /**
+     * Invert every id between two bounds (both included): ids of the set are removed, the others are added.
+     *
+     * @param fromId The first id to invert.
+     * @param toId   The last id to invert.
+     */
+    public void flipRange(int fromId, int toId) {
+        fromId = Math.max(fromId, 1);
+        if (fromId > toId) {
+            return;
+        }
+
+        ensureCapacity(toId);
+        applyRange(fromId, toId, RANGE_FLIP);
+    }
+
+    /**
+     * Set, clear or flip every bit between two bounds (both included), a word at a time.
+     * <p>
+     * Precondition: both bounds must fit in the words array.
+     *
+     * @param fromId    The first bit to modify.
+     * @param toId      The last bit to modify.
+     * @param operation One of RANGE_SET, RANGE_CLEAR or RANGE_FLIP.
+     */
+    private void applyRange(int fromId, int toId, int operation) {
+        int startWord = fromId >>> WORD_SHIFT;
+        int endWord = toId >>> WORD_SHIFT;
+        long startMask = -1L << fromId;
+        long endMask = -1L >>> (WORD_SIZE - 1 - (toId & (WORD_SIZE - 1)));
+
+        for (int i = startWord; i <= endWord; i++) {
+            long mask = -1L;
+            if (i == startWord) {
+                mask &= startMask;
+            }
+            if (i == endWord) {
+                mask &= endMask;
+            }
+
+            switch (operation) {
+                case RANGE_SET:
+                    words[i] |= mask;
+                    break;
+                case RANGE_CLEAR:
+                    words[i] &= ~mask;
+                    break;
+                default:
+                    words[i] ^= mask;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Check whether at least one id between two bounds (both included) is part of the set.
+     *
+     * @param fromId The first id to check.
+     * @param toId   The last id to check.
+     * @return true if the set contains an id between the two bounds, false otherwise.
+     */
+    public boolean intersectsRange(int fromId, int toId) {
+        fromId = Math.max(fromId, 1);
+        toId = Math.min(toId, words.length * WORD_SIZE - 1);
+        if (fromId > toId) {
+            return false;
+        }
+
+        int startWord = fromId >>> WORD_SHIFT;
+        int endWord = toId >>> WORD_SHIFT;
+        for (int i = startWord; i <= endWord; i++) {
+            long mask = -1L;
+            if (i == startWord) {
+                mask &= -1L << fromId;
+            }
+            if (i == endWord) {
+                mask &= -1L >>> (WORD_SIZE - 1 - (toId & (WORD_SIZE - 1)));
+            }
+
+            if ((words[i] & mask) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Return the first id of the set greater or equal to the given one.
+     *
+     * @param fromId The id from which the search starts.
+     * @return The first id of the set greater or equal to fromId, -1 if there is none.
+     */
+    public int nextSetId(int fromId) {
+        fromId = Math.max(fromId, 1);
+        int wordIndex = fromId >>> WORD_SHIFT;
+        if (wordIndex >= words.length) {
+            return -1;
+        }
+
+        long word = words[wordIndex] & (-1L << fromId);
+        while (true) {
+            if (word != 0) {
+                return wordIndex * WORD_SIZE + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+    }
+
+    /**
+     * Return the first id not part of the set greater or equal to the given one.
+     *
+     * @param fromId The id from which the search starts.
+     * @return The first id (greater than 0) not part of the set greater or equal to fromId.
+     */
+    public int nextClearId(int fromId) {
+        fromId = Math.max(fromId, 1);
+        int wordIndex = fromId >>> WORD_SHIFT;
+        if (wordIndex >= words.length) {
+            return fromId;
+        }
+
+        long word = ~words[wordIndex] & (-1L << fromId);
+        while (true) {
+            if (word != 0) {
+                return wordIndex * WORD_SIZE + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return wordIndex * WORD_SIZE;
+            }
+            word = ~words[wordIndex];
+        }
+    }
+
+    /**
+     * @return The number of ids in the set.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return The highest id of the set, 0 if the set is empty.
+     */
+    public int maxId() {
+        for (int i = words.length - 1; i >= 0; i--) {
+            if (words[i] != 0) {
+                return i * WORD_SIZE + WORD_SIZE - 1 - Long.numberOfLeadingZeros(words[i]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return true if the set does not contain any id, false otherwise.
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A sorted array of all the ids of the set.
+     */
+    @NonNull
+    public int[] toArray() {
+        int[] ids = new int[cardinality()];
+        int idx = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                ids[idx++] = i * WORD_SIZE + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return A sorted ArrayList of all the ids of the set.
+     */
+    @NonNull
+    public ArrayList<Integer> toList() {
+        int[] ids = toArray();
+        ArrayList<Integer> list = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        IdBitSet that = (IdBitSet) o;
+
+        // Trailing empty words are not significant.
+        int commonLength = Math.min(words.length, that.words.length);
+        for (int i = 0; i < commonLength; i++) {
+            if (words[i] != that.words[i]) {
+                return false;
+            }
+        }
+
+        long[] longest = words.length > that.words.length ? words : that.words;
+        for (int i = commonLength; i < longest.length; i++) {
+            if (longest[i] != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // Trailing empty words are not significant.
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+
+        int result = 1;
+        for (int i = 0; i < length; i++) {
+            result = 31 * result + (int) (words[i] ^ (words[i] >>> 32));
+        }
+        return result;
+    }
+
+    /**
+     * Initialize an IdBitSet from raw words.
+     *
+     * @param words The words storing the set. The array is used as is and must not be modified afterwards.
+     * @return A new IdBitSet backed by the given words.
+     */
+    @NonNull
+    static public IdBitSet fromWords(@NonNull long[] words) {
+        IdBitSet bitSet = new IdBitSet();
+        bitSet.words = words;
+        return bitSet;
+    }
+
+    /**
+     * @return A copy of the words storing the set, trimmed of its trailing empty words.
+     */
+    @NonNull
+    public long[] toWords() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(words, length);
+    }
+}
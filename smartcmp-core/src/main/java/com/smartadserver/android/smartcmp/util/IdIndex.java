@@ -0,0 +1,135 @@
+package com.smartadserver.android.smartcmp.util;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable index of objects by integer id.
+ * <p>
+ * Dense ids (the usual case for purposes, features & vendors) are stored in an array indexed by id, so lookups take
+ * a constant time. Sparse ids are stored as sorted arrays of ids and objects and looked up with a binary search,
+ * so the memory used never depends on the highest id.
+ *
+ * @param <T> The type of the indexed objects.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class IdIndex<T> {
+
+    // Ids are stored densely as long as no more than this number of slots per object is wasted.
+    static private final int MAX_SLOTS_PER_OBJECT = 4;
+
+    // The objects by id if ids are dense, null otherwise.
+    @Nullable
+    private final Object[] objectsById;
+
+    // The sorted ids if ids are sparse, null otherwise.
+    @Nullable
+    private final int[] sortedIds;
+
+    // The objects in the order of sortedIds if ids are sparse, null otherwise.
+    @Nullable
+    private final Object[] sortedObjects;
+
+    // The highest id of the index.
+    private final int maxId;
+
+    /**
+     * Initialize an IdIndex.
+     * <p>
+     * If several objects have the same id, the first one is indexed. Negative ids are ignored.
+     *
+     * @param ids     The id of each object.
+     * @param objects The objects to index, in the same order as ids.
+     */
+    public IdIndex(@NonNull int[] ids, @NonNull List<T> objects) {
+        int maxId = 0;
+        int count = 0;
+        for (int id : ids) {
+            if (id >= 0) {
+                maxId = Math.max(maxId, id);
+                count++;
+            }
+        }
+        this.maxId = maxId;
+
+        if (maxId < MAX_SLOTS_PER_OBJECT * count + 16) {
+            Object[] objectsById = new Object[maxId + 1];
+            for (int i = ids.length - 1; i >= 0; i--) {
+                if (ids[i] >= 0) {
+                    objectsById[ids[i]] = objects.get(i);
+                }
+            }
+            this.objectsById = objectsById;
+            this.sortedIds = null;
+            this.sortedObjects = null;
+        } else {
+            // Sorting (id << 32 | position) pairs keeps the first object of each id first.
+            long[] entries = new long[count];
+            int idx = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] >= 0) {
+                    entries[idx++] = (long) ids[i] << 32 | i;
+                }
+            }
+            Arrays.sort(entries);
+
+            int[] sortedIds = new int[count];
+            Object[] sortedObjects = new Object[count];
+            int uniqueCount = 0;
+            for (long entry : entries) {
+                int id = (int) (entry >>> 32);
+                if (uniqueCount == 0 || sortedIds[uniqueCount - 1] != id) {
+                    sortedIds[uniqueCount] = id;
+                    sortedObjects[uniqueCount] = objects.get((int) entry);
+                    uniqueCount++;
+                }
+            }
+
+            this.objectsById = null;
+            this.sortedIds = Arrays.copyOf(sortedIds, uniqueCount);
+            this.sortedObjects = Arrays.copyOf(sortedObjects, uniqueCount);
+        }
+    }
+
+    /**
+     * Get the object with the given id.
+     *
+     * @param id The id of the wanted object.
+     * @return The object if it exists, null otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public T get(int id) {
+        if (id < 0 || id > maxId) {
+            return null;
+        }
+
+        if (objectsById != null) {
+            return (T) objectsById[id];
+        }
+
+        //noinspection ConstantConditions
+        int position = Arrays.binarySearch(sortedIds, id);
+        //noinspection ConstantConditions
+        return position >= 0 ? (T) sortedObjects[position] : null;
+    }
+
+    /**
+     * @param id The id to look for.
+     * @return true if an object has the given id, false otherwise.
+     */
+    public boolean contains(int id) {
+        return get(id) != null;
+    }
+
+    /**
+     * @return The highest id of the index, 0 if it is empty.
+     */
+    public int maxId() {
+        return maxId;
+    }
+}
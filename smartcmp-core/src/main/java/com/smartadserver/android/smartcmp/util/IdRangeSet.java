@@ -0,0 +1,292 @@
+package com.smartadserver.android.smartcmp.util;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Immutable set of strictly positive ids stored as sorted, disjoint ranges of consecutive ids.
+ * <p>
+ * The memory used depends on the number of ranges rather than on the number of ids, which makes it the natural
+ * representation of range encoded vendor consents. Membership checks use a binary search and do not allocate.
+ * Adjacent ranges are merged so two sets containing the same ids always have the same ranges.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class IdRangeSet {
+
+    // The first id of each range, sorted.
+    @NonNull
+    private final int[] starts;
+
+    // The last id (included) of each range.
+    @NonNull
+    private final int[] ends;
+
+    // The number of ids in the set.
+    private final int cardinality;
+
+    /**
+     * Initialize an IdRangeSet from canonical ranges (sorted, disjoint & non adjacent).
+     *
+     * @param starts The first id of each range. The array is used as is.
+     * @param ends   The last id of each range. The array is used as is.
+     */
+    private IdRangeSet(@NonNull int[] starts, @NonNull int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+
+        int count = 0;
+        for (int i = 0; i < starts.length; i++) {
+            count += ends[i] - starts[i] + 1;
+        }
+        this.cardinality = count;
+    }
+
+    /**
+     * Create an IdRangeSet from ranges given in any order.
+     *
+     * @param starts The first id of each range (greater than 0).
+     * @param ends   The last id (included) of each range.
+     * @param count  The number of ranges to read from the arrays.
+     * @return A new IdRangeSet containing every id of the ranges.
+     * @throws IllegalArgumentException if a range is invalid or if two ranges overlap.
+     */
+    @NonNull
+    static public IdRangeSet fromRanges(@NonNull int[] starts, @NonNull int[] ends, int count) throws IllegalArgumentException {
+        // Ranges are packed as (start << 32 | end) so they can be sorted by start id at once.
+        long[] ranges = new long[count];
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            if (starts[i] < 1 || starts[i] > ends[i]) {
+                throw new IllegalArgumentException("Range [" + starts[i] + ", " + ends[i] + "] is invalid.");
+            }
+            ranges[i] = (long) starts[i] << 32 | ends[i];
+            sorted &= i == 0 || ranges[i] > ranges[i - 1];
+        }
+
+        if (!sorted) {
+            Arrays.sort(ranges);
+        }
+
+        int[] mergedStarts = new int[count];
+        int[] mergedEnds = new int[count];
+        int mergedCount = 0;
+        for (long range : ranges) {
+            int start = (int) (range >>> 32);
+            int end = (int) range;
+
+            if (mergedCount > 0 && start <= mergedEnds[mergedCount - 1]) {
+                throw new IllegalArgumentException("Range [" + start + ", " + end + "] overlaps another range.");
+            }
+
+            if (mergedCount > 0 && start == mergedEnds[mergedCount - 1] + 1) {
+                mergedEnds[mergedCount - 1] = end;
+            } else {
+                mergedStarts[mergedCount] = start;
+                mergedEnds[mergedCount] = end;
+                mergedCount++;
+            }
+        }
+
+        if (mergedCount < count) {
+            mergedStarts = Arrays.copyOf(mergedStarts, mergedCount);
+            mergedEnds = Arrays.copyOf(mergedEnds, mergedCount);
+        }
+
+        return new IdRangeSet(mergedStarts, mergedEnds);
+    }
+
+    /**
+     * Return the ids between 1 and maxId that are not part of this set.
+     *
+     * @param maxId The highest id of the complement.
+     * @return A new IdRangeSet containing the ids between 1 and maxId not part of this set.
+     */
+    @NonNull
+    public IdRangeSet complement(int maxId) {
+        int[] gapStarts = new int[starts.length + 1];
+        int[] gapEnds = new int[starts.length + 1];
+        int gapCount = 0;
+
+        int nextId = 1;
+        for (int i = 0; i < starts.length && nextId <= maxId; i++) {
+            if (starts[i] > nextId) {
+                gapStarts[gapCount] = nextId;
+                gapEnds[gapCount] = Math.min(starts[i] - 1, maxId);
+                gapCount++;
+            }
+            nextId = ends[i] + 1;
+        }
+        if (nextId <= maxId) {
+            gapStarts[gapCount] = nextId;
+            gapEnds[gapCount] = maxId;
+            gapCount++;
+        }
+
+        return new IdRangeSet(Arrays.copyOf(gapStarts, gapCount), Arrays.copyOf(gapEnds, gapCount));
+    }
+
+    /**
+     * Return the index of the last range starting at or before an id.
+     *
+     * @param id The id to look for.
+     * @return The index of the range, -1 if every range starts after the id.
+     */
+    private int rangeIndex(int id) {
+        int low = 0;
+        int high = starts.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= id) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Check if an id is part of the set.
+     *
+     * @param id The id to check.
+     * @return true if the id is part of the set, false otherwise.
+     */
+    public boolean get(int id) {
+        int index = rangeIndex(id);
+        return index >= 0 && id <= ends[index];
+    }
+
+    /**
+     * Return the first id of the set greater or equal to the given one.
+     *
+     * @param fromId The id from which the search starts.
+     * @return The first id of the set greater or equal to fromId, -1 if there is none.
+     */
+    public int nextSetId(int fromId) {
+        fromId = Math.max(fromId, 1);
+        int index = rangeIndex(fromId);
+        if (index >= 0 && fromId <= ends[index]) {
+            return fromId;
+        }
+        return index + 1 < starts.length ? starts[index + 1] : -1;
+    }
+
+    /**
+     * Return the first id not part of the set greater or equal to the given one.
+     *
+     * @param fromId The id from which the search starts.
+     * @return The first id (greater than 0) not part of the set greater or equal to fromId.
+     */
+    public int nextClearId(int fromId) {
+        fromId = Math.max(fromId, 1);
+        int index = rangeIndex(fromId);
+        if (index >= 0 && fromId <= ends[index]) {
+            // Ranges are never adjacent, the id following a range is never part of the set.
+            return ends[index] + 1;
+        }
+        return fromId;
+    }
+
+    /**
+     * @return The number of ranges of the set.
+     */
+    public int rangeCount() {
+        return starts.length;
+    }
+
+    /**
+     * @param index The index of the range, between 0 and rangeCount() - 1.
+     * @return The first id of the range.
+     */
+    public int rangeStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * @param index The index of the range, between 0 and rangeCount() - 1.
+     * @return The last id (included) of the range.
+     */
+    public int rangeEnd(int index) {
+        return ends[index];
+    }
+
+    /**
+     * @return The number of ids in the set.
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return The highest id of the set, 0 if the set is empty.
+     */
+    public int maxId() {
+        return ends.length > 0 ? ends[ends.length - 1] : 0;
+    }
+
+    /**
+     * @return true if the set does not contain any id, false otherwise.
+     */
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /**
+     * @return A new IdBitSet containing the same ids.
+     */
+    @NonNull
+    public IdBitSet toBitSet() {
+        IdBitSet bitSet = new IdBitSet(maxId());
+        for (int i = 0; i < starts.length; i++) {
+            bitSet.setRange(starts[i], ends[i]);
+        }
+        return bitSet;
+    }
+
+    /**
+     * @return A sorted array of all the ids of the set.
+     */
+    @NonNull
+    public int[] toArray() {
+        int[] ids = new int[cardinality];
+        int idx = 0;
+        for (int i = 0; i < starts.length; i++) {
+            for (int id = starts[i]; id <= ends[i]; id++) {
+                ids[idx++] = id;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return A sorted ArrayList of all the ids of the set.
+     */
+    @NonNull
+    public ArrayList<Integer> toList() {
+        int[] ids = toArray();
+        ArrayList<Integer> list = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        IdRangeSet that = (IdRangeSet) o;
+
+        // Ranges are canonical, equal sets have equal ranges.
+        return Arrays.equals(starts, that.starts) && Arrays.equals(ends, that.ends);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(starts) + Arrays.hashCode(ends);
+    }
+}
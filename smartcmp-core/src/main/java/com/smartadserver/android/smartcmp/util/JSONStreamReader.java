@@ -0,0 +1,515 @@
+package com.smartadserver.android.smartcmp.util;
+
+import android.support.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull parser reading a JSON document one token at a time from a character stream.
+ * <p>
+ * It mirrors the subset of android.util.JsonReader needed to parse vendor lists, but only depends on the JDK so
+ * it can be used outside of Android. Nothing but the current token is kept in memory, so the document is never
+ * fully loaded as a string or as a tree of JSONObject.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class JSONStreamReader implements Closeable {
+
+    /**
+     * The type of a JSON token.
+     */
+    public enum Token {
+        BEGIN_ARRAY,
+        END_ARRAY,
+        BEGIN_OBJECT,
+        END_OBJECT,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        END_DOCUMENT
+    }
+
+    // The position of the reader in the enclosing scope.
+    static private final int EMPTY_DOCUMENT = 0;
+    static private final int NONEMPTY_DOCUMENT = 1;
+    static private final int EMPTY_ARRAY = 2;
+    static private final int NONEMPTY_ARRAY = 3;
+    static private final int EMPTY_OBJECT = 4;
+    static private final int DANGLING_NAME = 5;
+    static private final int NONEMPTY_OBJECT = 6;
+
+    // The character stream being parsed.
+    @NonNull
+    private final Reader reader;
+
+    // The characters read from the stream but not consumed yet.
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int limit = 0;
+
+    // The stack of enclosing scopes.
+    private int[] scopes = new int[32];
+    private int scopeCount = 1;
+
+    // The next token, null if it has not been read yet.
+    private Token peeked;
+
+    // The value of the next token, for names, strings, numbers & booleans.
+    private String peekedValue;
+
+    /**
+     * Initialize a new JSONStreamReader.
+     *
+     * @param reader The character stream to parse. It is not buffered further, so it does not need to be a BufferedReader.
+     */
+    public JSONStreamReader(@NonNull Reader reader) {
+        this.reader = reader;
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * @return The type of the next token, without consuming it.
+     * @throws IOException if the stream cannot be read or is not valid JSON.
+     */
+    @NonNull
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+
+        int c;
+        switch (scopes[scopeCount - 1]) {
+            case EMPTY_DOCUMENT:
+                scopes[scopeCount - 1] = NONEMPTY_DOCUMENT;
+                return readValue(nextNonWhitespace());
+
+            case NONEMPTY_DOCUMENT:
+                c = nextNonWhitespace();
+                if (c != -1) {
+                    throw syntaxError("Unexpected character after the document");
+                }
+                return peeked = Token.END_DOCUMENT;
+
+            case EMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                scopes[scopeCount - 1] = NONEMPTY_ARRAY;
+                return readValue(c);
+
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntaxError("Unterminated array");
+                }
+                return readValue(nextNonWhitespace());
+
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+                if (scopes[scopeCount - 1] == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("Unterminated object");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError("Expected a name");
+                }
+                scopes[scopeCount - 1] = DANGLING_NAME;
+                peekedValue = readString();
+                return peeked = Token.NAME;
+
+            case DANGLING_NAME:
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("Expected ':'");
+                }
+                scopes[scopeCount - 1] = NONEMPTY_OBJECT;
+                return readValue(nextNonWhitespace());
+
+            default:
+                throw new IllegalStateException("The reader is closed");
+        }
+    }
+
+    /**
+     * @return true if the current array or object has another element, false otherwise.
+     * @throws IOException if the stream cannot be read or is not valid JSON.
+     */
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consume the beginning of an array.
+     *
+     * @throws IOException if the next token is not the beginning of an array.
+     */
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        pushScope(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consume the end of the current array.
+     *
+     * @throws IOException if the next token is not the end of an array.
+     */
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        scopeCount--;
+    }
+
+    /**
+     * Consume the beginning of an object.
+     *
+     * @throws IOException if the next token is not the beginning of an object.
+     */
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        pushScope(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consume the end of the current object.
+     *
+     * @throws IOException if the next token is not the end of an object.
+     */
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        scopeCount--;
+    }
+
+    /**
+     * @return The name of the next property of the current object.
+     * @throws IOException if the next token is not a property name.
+     */
+    @NonNull
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return peekedValue;
+    }
+
+    /**
+     * @return The next string value. Numbers are returned as they are written.
+     * @throws IOException if the next token is neither a string nor a number.
+     */
+    @NonNull
+    public String nextString() throws IOException {
+        Token token = peek();
+        if (token != Token.STRING && token != Token.NUMBER) {
+            throw new IOException("Expected a string but was " + token);
+        }
+        peeked = null;
+        return peekedValue;
+    }
+
+    /**
+     * @return The next int value. Strings holding an int are accepted too.
+     * @throws IOException if the next token is not a number, or does not fit in an int.
+     */
+    public int nextInt() throws IOException {
+        Token token = peek();
+        if (token != Token.NUMBER && token != Token.STRING) {
+            throw new IOException("Expected an int but was " + token);
+        }
+
+        int value;
+        try {
+            value = Integer.parseInt(peekedValue);
+        } catch (NumberFormatException e) {
+            double doubleValue;
+            try {
+                doubleValue = Double.parseDouble(peekedValue);
+            } catch (NumberFormatException ignored) {
+                throw new IOException("Expected an int but was " + peekedValue);
+            }
+            value = (int) doubleValue;
+            if (value != doubleValue) {
+                throw new IOException("Expected an int but was " + peekedValue);
+            }
+        }
+
+        peeked = null;
+        return value;
+    }
+
+    /**
+     * @return The next boolean value.
+     * @throws IOException if the next token is not a boolean.
+     */
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        return "true".equals(peekedValue);
+    }
+
+    /**
+     * Consume the next null value.
+     *
+     * @throws IOException if the next token is not null.
+     */
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+    }
+
+    /**
+     * Skip the next value, including every nested array or object.
+     *
+     * @throws IOException if the stream cannot be read or is not valid JSON.
+     */
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_ARRAY:
+                    beginArray();
+                    depth++;
+                    break;
+                case BEGIN_OBJECT:
+                    beginObject();
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    depth--;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    depth--;
+                    break;
+                case END_DOCUMENT:
+                    throw new IOException("Unexpected end of document");
+                default:
+                    peeked = null;
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = null;
+        scopes[0] = -1;
+        scopeCount = 1;
+        reader.close();
+    }
+
+    /**
+     * Consume the next token, checking its type.
+     *
+     * @param expected The expected type of the next token.
+     * @throws IOException if the next token does not have the expected type.
+     */
+    private void expect(@NonNull Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw new IOException("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    private void pushScope(int scope) {
+        if (scopeCount == scopes.length) {
+            int[] newScopes = new int[scopeCount * 2];
+            System.arraycopy(scopes, 0, newScopes, 0, scopeCount);
+            scopes = newScopes;
+        }
+        scopes[scopeCount++] = scope;
+    }
+
+    /**
+     * Read the token of a value starting with the given character.
+     *
+     * @param c The first character of the value.
+     * @return The type of the value.
+     * @throws IOException if the value is not valid JSON.
+     */
+    @NonNull
+    private Token readValue(int c) throws IOException {
+        switch (c) {
+            case '{':
+                return peeked = Token.BEGIN_OBJECT;
+            case '[':
+                return peeked = Token.BEGIN_ARRAY;
+            case '"':
+                peekedValue = readString();
+                return peeked = Token.STRING;
+            case 't':
+                readLiteral("rue");
+                peekedValue = "true";
+                return peeked = Token.BOOLEAN;
+            case 'f':
+                readLiteral("alse");
+                peekedValue = "false";
+                return peeked = Token.BOOLEAN;
+            case 'n':
+                readLiteral("ull");
+                peekedValue = null;
+                return peeked = Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    peekedValue = readNumber((char) c);
+                    return peeked = Token.NUMBER;
+                }
+                throw syntaxError("Expected a value");
+        }
+    }
+
+    private void readLiteral(@NonNull String expected) throws IOException {
+        for (int i = 0; i < expected.length(); i++) {
+            if (nextChar() != expected.charAt(i)) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+    }
+
+    @NonNull
+    private String readNumber(char firstChar) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        builder.append(firstChar);
+        while (fillBuffer()) {
+            char c = buffer[position];
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                builder.append(c);
+                position++;
+            } else {
+                break;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Read a string whose opening quote has already been consumed.
+     *
+     * @return The unescaped string.
+     * @throws IOException if the string is not terminated or contains an invalid escape sequence.
+     */
+    @NonNull
+    private String readString() throws IOException {
+        StringBuilder builder = null;
+        while (true) {
+            // Appending whole chunks of characters until a quote or an escape sequence is found.
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '"') {
+                    String chunk = new String(buffer, start, position - start);
+                    position++;
+                    return builder == null ? chunk : builder.append(chunk).toString();
+                }
+                if (c == '\\') {
+                    break;
+                }
+                position++;
+            }
+
+            if (builder == null) {
+                builder = new StringBuilder(Math.max(16, 2 * (position - start)));
+            }
+            builder.append(buffer, start, position - start);
+
+            if (position < limit) {
+                position++;
+                builder.append(readEscapedChar());
+            } else if (!fillBuffer()) {
+                throw syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    private char readEscapedChar() throws IOException {
+        int c = nextChar();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(nextChar(), 16);
+                    if (digit == -1) {
+                        throw syntaxError("Invalid unicode escape sequence");
+                    }
+                    value = value << 4 | digit;
+                }
+                return (char) value;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    /**
+     * @return The next character which is not a whitespace, or -1 at the end of the stream.
+     * @throws IOException if the stream cannot be read.
+     */
+    private int nextNonWhitespace() throws IOException {
+        while (fillBuffer()) {
+            char c = buffer[position++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The next character.
+     * @throws IOException if the stream cannot be read or has ended.
+     */
+    private char nextChar() throws IOException {
+        if (!fillBuffer()) {
+            throw syntaxError("Unexpected end of document");
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Read more characters from the stream if every buffered character has been consumed.
+     *
+     * @return true if at least one character is available, false at the end of the stream.
+     * @throws IOException if the stream cannot be read.
+     */
+    private boolean fillBuffer() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+
+        int count;
+        do {
+            count = reader.read(buffer, 0, buffer.length);
+        } while (count == 0);
+
+        position = 0;
+        limit = Math.max(count, 0);
+        return count > 0;
+    }
+
+    @NonNull
+    private IOException syntaxError(@NonNull String message) {
+        return new IOException(message + " at scope depth " + (scopeCount - 1));
+    }
+}
@@ -0,0 +1,103 @@
+package com.smartadserver.android.smartcmp.vendorlist;
+
+import android.support.annotation.NonNull;
+
+import java.util.Random;
+
+/**
+ * Policy computing the interval before retrying a failed vendor list refresh.
+ * <p>
+ * The interval starts at the initial interval and is multiplied after each consecutive failure, up to the maximum
+ * interval. A random part of each interval (the jitter) is removed, so devices failing at the same time do not
+ * retry at the same time. The failure count is reset by the caller after a successful refresh.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class RetryPolicy {
+
+    // The interval before the first retry (in millisecond).
+    private final long initialInterval;
+
+    // The maximum interval between two retries (in millisecond).
+    private final long maxInterval;
+
+    // The factor applied to the interval after each consecutive failure.
+    private final double multiplier;
+
+    // The maximum fraction of each interval removed at random, between 0 and 1.
+    private final double jitter;
+
+    /**
+     * Initialize a RetryPolicy retrying at a fixed interval.
+     *
+     * @param interval The interval between two retries (in millisecond).
+     * @throws IllegalArgumentException if the interval is negative.
+     */
+    public RetryPolicy(long interval) throws IllegalArgumentException {
+        this(interval, interval, 1, 0);
+    }
+
+    /**
+     * Initialize a RetryPolicy with exponential backoff.
+     *
+     * @param initialInterval The interval before the first retry (in millisecond).
+     * @param maxInterval     The maximum interval between two retries (in millisecond).
+     * @param multiplier      The factor applied to the interval after each consecutive failure (at least 1).
+     * @param jitter          The maximum fraction of each interval removed at random (between 0 and 1).
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    public RetryPolicy(long initialInterval, long maxInterval, double multiplier, double jitter) throws IllegalArgumentException {
+        if (initialInterval < 0 || maxInterval < initialInterval) {
+            throw new IllegalArgumentException("Invalid retry intervals.");
+        }
+        if (multiplier < 1 || jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("Invalid retry multiplier or jitter.");
+        }
+
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /**
+     * @return The interval before the first retry (in millisecond).
+     */
+    public long getInitialInterval() {
+        return initialInterval;
+    }
+
+    /**
+     * @return The maximum interval between two retries (in millisecond).
+     */
+    public long getMaxInterval() {
+        return maxInterval;
+    }
+
+    /**
+     * @return The factor applied to the interval after each consecutive failure.
+     */
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * @return The maximum fraction of each interval removed at random.
+     */
+    public double getJitter() {
+        return jitter;
+    }
+
+    /**
+     * Compute the interval before the next retry.
+     *
+     * @param failureCount The number of consecutive failures, including the one just happened (at least 1).
+     * @param random       The random generator used for the jitter.
+     * @return The interval before the next retry (in millisecond).
+     */
+    public long getRetryInterval(int failureCount, @NonNull Random random) {
+        // Computed as a double so a large failure count saturates at the maximum interval instead of overflowing.
+        double interval = Math.min(maxInterval, initialInterval * Math.pow(multiplier, Math.max(0, failureCount - 1)));
+        return (long) (interval * (1 - jitter * random.nextDouble()));
+    }
+}
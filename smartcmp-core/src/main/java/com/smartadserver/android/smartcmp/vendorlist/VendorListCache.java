@@ -0,0 +1,244 @@
+package com.smartadserver.android.smartcmp.vendorlist;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.smartadserver.android.smartcmp.model.Language;
+import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.model.VendorListSnapshot;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Persistent cache of the last vendor list retrieved for each language.
+ * <p>
+ * Each vendor list is stored in its own file, named after its version and language, so the most recent cached
+ * vendor list can be found without reading any file. Vendor lists are stored as VendorListSnapshot, which loads
+ * much faster than the vendor list JSON. Files are written in a temporary file first, then renamed, so an interrupted
+ * write never corrupts the cache.
+ * <p>
+ * Note: methods of this class access the disk and should not be called from the main thread.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class VendorListCache {
+
+    // The prefix & suffix of the cached vendor list file names.
+    static private final String FILE_PREFIX = "vendorlist-";
+    static private final String FILE_SUFFIX = ".snapshot";
+    static private final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    // The suffix of the files storing the HTTP validators of a cached vendor list.
+    static private final String VALIDATORS_FILE_SUFFIX = ".validators";
+
+    // The language key used for vendor lists without language.
+    static private final String NO_LANGUAGE = "default";
+
+    // The directory where vendor lists are stored.
+    @NonNull
+    private final File directory;
+
+    /**
+     * Initialize a VendorListCache.
+     *
+     * @param directory The directory where vendor lists are stored. It is created if needed.
+     */
+    public VendorListCache(@NonNull File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Load the most recent vendor list cached for a language.
+     *
+     * @param language The language of the vendor list.
+     * @return The cached vendor list, or null if there is none or if it cannot be read.
+     */
+    @Nullable
+    synchronized public VendorList load(@Nullable Language language) {
+        File file = fileForVersion(getCachedVersion(language), language);
+        if (file == null) {
+            return null;
+        }
+
+        try {
+            return VendorListSnapshot.read(file);
+        } catch (IOException e) {
+            // The cached file is unusable (or has an outdated format), remove it so it is replaced by the next vendor list.
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            //noinspection ResultOfMethodCallIgnored
+            validatorsFile(file).delete();
+            return null;
+        }
+    }
+
+    /**
+     * @param language The language of the vendor list.
+     * @return The version of the most recent vendor list cached for the language, -1 if there is none.
+     */
+    synchronized public int getCachedVersion(@Nullable Language language) {
+        String[] fileNames = directory.list();
+        if (fileNames == null) {
+            return -1;
+        }
+
+        String suffix = "-" + languageKey(language) + FILE_SUFFIX;
+        int cachedVersion = -1;
+        for (String fileName : fileNames) {
+            if (fileName.startsWith(FILE_PREFIX) && fileName.endsWith(suffix)) {
+                try {
+                    int version = Integer.parseInt(fileName.substring(FILE_PREFIX.length(), fileName.length() - suffix.length()));
+                    cachedVersion = Math.max(cachedVersion, version);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return cachedVersion;
+    }
+
+    /**
+     * Store a vendor list if it is more recent than the vendor list cached for its language, replacing it.
+     *
+     * @param vendorList The vendor list to store.
+     * @param language   The language of the vendor list.
+     * @return true if the vendor list has been stored, false if it is not more recent or could not be written.
+     */
+    synchronized public boolean saveIfNewer(@NonNull VendorList vendorList, @Nullable Language language) {
+        int cachedVersion = getCachedVersion(language);
+        if (vendorList.getVersion() <= cachedVersion) {
+            return false;
+        }
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return false;
+        }
+
+        File file = new File(directory, fileName(vendorList.getVersion(), language));
+        File temporaryFile = new File(directory, file.getName() + TEMPORARY_FILE_SUFFIX);
+
+        if (!write(vendorList, temporaryFile) || !temporaryFile.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            temporaryFile.delete();
+            return false;
+        }
+
+        // The previous vendor list of this language is not needed anymore.
+        File previousFile = fileForVersion(cachedVersion, language);
+        if (previousFile != null) {
+            //noinspection ResultOfMethodCallIgnored
+            previousFile.delete();
+            //noinspection ResultOfMethodCallIgnored
+            validatorsFile(previousFile).delete();
+        }
+        return true;
+    }
+
+    /**
+     * Load the HTTP validators stored with a cached vendor list.
+     *
+     * @param version  The version of the cached vendor list.
+     * @param language The language of the cached vendor list.
+     * @return The stored validators, empty if there are none.
+     */
+    @NonNull
+    synchronized public Properties loadValidators(int version, @Nullable Language language) {
+        Properties validators = new Properties();
+        File file = fileForVersion(version, language);
+        if (file == null) {
+            return validators;
+        }
+
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(validatorsFile(file));
+            validators.load(inputStream);
+        } catch (IOException e) {
+            validators.clear();
+        } finally {
+            closeQuietly(inputStream);
+        }
+        return validators;
+    }
+
+    /**
+     * Store the HTTP validators of a cached vendor list, replacing the previous ones.
+     *
+     * @param version    The version of the cached vendor list.
+     * @param language   The language of the cached vendor list.
+     * @param validators The validators to store.
+     * @return true if the validators have been stored, false if the vendor list is not cached or on write error.
+     */
+    synchronized public boolean saveValidators(int version, @Nullable Language language, @NonNull Properties validators) {
+        // Validators are only meaningful with the vendor list they validate.
+        if (version != getCachedVersion(language)) {
+            return false;
+        }
+
+        //noinspection ConstantConditions
+        File file = validatorsFile(fileForVersion(version, language));
+        File temporaryFile = new File(directory, file.getName() + TEMPORARY_FILE_SUFFIX);
+
+        OutputStream outputStream = null;
+        try {
+            outputStream = new FileOutputStream(temporaryFile);
+            validators.store(outputStream, null);
+            outputStream.close();
+            outputStream = null;
+            if (temporaryFile.renameTo(file)) {
+                return true;
+            }
+        } catch (IOException ignored) {
+        } finally {
+            closeQuietly(outputStream);
+        }
+
+        //noinspection ResultOfMethodCallIgnored
+        temporaryFile.delete();
+        return false;
+    }
+
+    static private boolean write(@NonNull VendorList vendorList, @NonNull File file) {
+        try {
+            VendorListSnapshot.write(vendorList, file);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @NonNull
+    private File validatorsFile(@NonNull File file) {
+        return new File(directory, file.getName() + VALIDATORS_FILE_SUFFIX);
+    }
+
+    @Nullable
+    private File fileForVersion(int version, @Nullable Language language) {
+        return version >= 0 ? new File(directory, fileName(version, language)) : null;
+    }
+
+    @NonNull
+    static private String fileName(int version, @Nullable Language language) {
+        return FILE_PREFIX + version + "-" + languageKey(language) + FILE_SUFFIX;
+    }
+
+    @NonNull
+    static private String languageKey(@Nullable Language language) {
+        return language != null ? language.toString() : NO_LANGUAGE;
+    }
+
+    static private void closeQuietly(@Nullable Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.smartadserver.android.smartcmp.vendorlist;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.model.VendorListLocalization;
+import com.smartadserver.android.smartcmp.model.VendorListParser;
+
+import org.json.JSONException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Downloads vendor lists and localized vendor lists using HTTP conditional requests.
+ * <p>
+ * The validators (ETag & Last-Modified) of each successful download are kept with the parsed result. The next
+ * download of the same URL sends them back, and a '304 Not Modified' response returns the kept result without
+ * downloading or parsing anything. Responses are requested gzip compressed.
+ * <p>
+ * Only the last responses are kept, and versioned vendor lists, which never change once published, can be
+ * downloaded without being kept at all.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class VendorListDownloader {
+
+    // The default connect & read timeout, in milliseconds.
+    static private final int DEFAULT_TIMEOUT = 30000;
+
+    // The maximum number of kept responses.
+    static private final int MAX_ENTRIES = 4;
+
+    // The HTTP headers used for conditional requests & compression.
+    static private final String HEADER_ETAG = "ETag";
+    static private final String HEADER_LAST_MODIFIED = "Last-Modified";
+    static private final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    static private final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    static private final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    static private final String GZIP = "gzip";
+
+    // The suffixes of the exported validator keys.
+    static private final String ETAG_KEY_SUFFIX = ".eTag";
+    static private final String LAST_MODIFIED_KEY_SUFFIX = ".lastModified";
+
+    /**
+     * A parsed response (a VendorList or a VendorListLocalization) and its validators.
+     */
+    static private class CachedResponse {
+        @NonNull
+        final Object result;
+
+        @Nullable
+        final String eTag;
+
+        @Nullable
+        final String lastModified;
+
+        CachedResponse(@NonNull Object result, @Nullable String eTag, @Nullable String lastModified) {
+            this.result = result;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    // The connect & read timeout, in milliseconds.
+    private final int timeout;
+
+    // The last parsed response by URL, only for responses having validators, the least recently used first.
+    @NonNull
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<String, CachedResponse>(MAX_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Initialize a VendorListDownloader with the default timeout.
+     */
+    public VendorListDownloader() {
+        this(DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Initialize a VendorListDownloader.
+     *
+     * @param timeout The connect & read timeout, in milliseconds.
+     */
+    public VendorListDownloader(int timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Download a vendor list.
+     * <p>
+     * Note: this method performs network calls and must not be called from the main thread.
+     *
+     * @param url The URL of the vendor list.
+     * @return The downloaded (or still current) vendor list, or null if the server answered with an unexpected status.
+     * @throws IOException   if the download fails or if the response is not valid JSON.
+     * @throws JSONException if a mandatory value is missing from the vendor list.
+     */
+    @Nullable
+    public VendorList downloadVendorList(@NonNull URL url) throws IOException, JSONException {
+        return downloadVendorList(url, true);
+    }
+
+    /**
+     * Download a vendor list.
+     * <p>
+     * Note: this method performs network calls and must not be called from the main thread.
+     *
+     * @param url        The URL of the vendor list.
+     * @param revalidate Whether the response is kept to revalidate the next download of the same URL. Versioned vendor
+     *                   lists never change and are usually downloaded once, so they do not need to be kept.
+     * @return The downloaded (or still current) vendor list, or null if the server answered with an unexpected status.
+     * @throws IOException   if the download fails or if the response is not valid JSON.
+     * @throws JSONException if a mandatory value is missing from the vendor list.
+     */
+    @Nullable
+    public VendorList downloadVendorList(@NonNull URL url, boolean revalidate) throws IOException, JSONException {
+        return (VendorList) download(url, false, revalidate);
+    }
+
+    /**
+     * Download a localized vendor list.
+     * <p>
+     * Note: this method performs network calls and must not be called from the main thread.
+     *
+     * @param url The URL of the localized vendor list.
+     * @return The downloaded (or still current) localized entries, or null if the server answered with an unexpected status.
+     * @throws IOException if the download fails or if the response is not valid JSON.
+     */
+    @Nullable
+    public VendorListLocalization downloadLocalization(@NonNull URL url) throws IOException {
+        try {
+            return (VendorListLocalization) download(url, true, true);
+        } catch (JSONException e) {
+            // Never thrown by the localized vendor list parsing.
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    @Nullable
+    private Object download(@NonNull URL url, boolean localization, boolean revalidate) throws IOException, JSONException {
+        String key = url.toString();
+        CachedResponse entry = null;
+        if (revalidate) {
+            synchronized (entries) {
+                entry = entries.get(key);
+            }
+        }
+
+        InputStream inputStream = null;
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+
+            // Revalidation is handled here, not by the platform HTTP cache.
+            connection.setUseCaches(false);
+            connection.setRequestProperty(HEADER_ACCEPT_ENCODING, GZIP);
+            if (entry != null && entry.eTag != null) {
+                connection.setRequestProperty(HEADER_IF_NONE_MATCH, entry.eTag);
+            }
+            if (entry != null && entry.lastModified != null) {
+                connection.setRequestProperty(HEADER_IF_MODIFIED_SINCE, entry.lastModified);
+            }
+
+            int responseCode = connection.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && entry != null) {
+                // The previous response is still current.
+                return entry.result;
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                return null;
+            }
+
+            // Parse the response body while it is downloaded, decompressing it if needed.
+            inputStream = connection.getInputStream();
+            if (GZIP.equalsIgnoreCase(connection.getContentEncoding())) {
+                inputStream = new GZIPInputStream(inputStream);
+            }
+            InputStream bufferedInputStream = new BufferedInputStream(inputStream);
+            Object result = localization ? VendorListParser.parseLocalization(bufferedInputStream) : VendorListParser.parse(bufferedInputStream);
+
+            String eTag = connection.getHeaderField(HEADER_ETAG);
+            String lastModified = connection.getHeaderField(HEADER_LAST_MODIFIED);
+            synchronized (entries) {
+                if (revalidate && (eTag != null || lastModified != null)) {
+                    entries.put(key, new CachedResponse(result, eTag, lastModified));
+                } else {
+                    entries.remove(key);
+                }
+            }
+            return result;
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (IOException ignored) {
+                }
+            }
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Export the validators of the last downloads of some URLs, so they can be persisted.
+     *
+     * @param urls The URLs whose validators are exported.
+     * @return The validators, to restore with restoreValidators.
+     */
+    @NonNull
+    public Properties exportValidators(@NonNull String... urls) {
+        Properties validators = new Properties();
+        synchronized (entries) {
+            for (String url : urls) {
+                CachedResponse entry = entries.get(url);
+                if (entry != null && entry.eTag != null) {
+                    validators.setProperty(url + ETAG_KEY_SUFFIX, entry.eTag);
+                }
+                if (entry != null && entry.lastModified != null) {
+                    validators.setProperty(url + LAST_MODIFIED_KEY_SUFFIX, entry.lastModified);
+                }
+            }
+        }
+        return validators;
+    }
+
+    /**
+     * Restore the validators of a previously downloaded vendor list.
+     *
+     * @param validators The validators returned by exportValidators.
+     * @param url        The URL whose validators are restored.
+     * @param vendorList The vendor list to return if the server answers that it has not been modified.
+     */
+    public void restoreValidators(@NonNull Properties validators, @NonNull String url, @NonNull VendorList vendorList) {
+        String eTag = validators.getProperty(url + ETAG_KEY_SUFFIX);
+        String lastModified = validators.getProperty(url + LAST_MODIFIED_KEY_SUFFIX);
+        if (eTag != null || lastModified != null) {
+            synchronized (entries) {
+                entries.put(url, new CachedResponse(vendorList, eTag, lastModified));
+            }
+        }
+    }
+}
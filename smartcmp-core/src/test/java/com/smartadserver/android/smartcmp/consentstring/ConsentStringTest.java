@@ -1,14 +1,16 @@
 package com.smartadserver.android.smartcmp.consentstring;
 
-
-import android.support.test.InstrumentationRegistry;
-
 import com.smartadserver.android.smartcmp.Constants;
 import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberException;
+import com.smartadserver.android.smartcmp.model.Feature;
 import com.smartadserver.android.smartcmp.model.Language;
+import com.smartadserver.android.smartcmp.model.Purpose;
+import com.smartadserver.android.smartcmp.model.Vendor;
 import com.smartadserver.android.smartcmp.model.VendorList;
 import com.smartadserver.android.smartcmp.model.VersionConfig;
+import com.smartadserver.android.smartcmp.util.BitWriter;
 import com.smartadserver.android.smartcmp.util.DateUtils;
+import com.smartadserver.android.smartcmp.util.IdBitSet;
 
 import junit.framework.Assert;
 
@@ -20,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Random;
 
 public class ConsentStringTest {
 
@@ -31,7 +34,7 @@ public class ConsentStringTest {
         JSONObject json = null;
 
         try {
-            InputStream is = InstrumentationRegistry.getContext().getAssets().open(fileName);
+            InputStream is = getClass().getClassLoader().getResourceAsStream(fileName);
             byte[] buffer = new byte[is.available()];
             is.read(buffer);
             is.close();
@@ -69,6 +72,43 @@ public class ConsentStringTest {
         return updatedVendorList;
     }
 
+    /**
+     * Build a version 1 range encoded consent string.
+     *
+     * @param defaultConsent The default consent of the range section.
+     * @param maxVendorId    The max vendor id.
+     * @param entries        The range entries, as {startId, endId} pairs (a single id if both are equal).
+     * @return A base64URL consent string.
+     */
+    private String rangeEncodedConsentString(boolean defaultConsent, int maxVendorId, int[][] entries) {
+        BitWriter writer = new BitWriter();
+        writer.writeInt(1, 6); // version
+        writer.writeLong(15100821554L, 36); // created
+        writer.writeLong(15100821554L, 36); // last updated
+        writer.writeInt(1, 12); // cmp id
+        writer.writeInt(2, 12); // cmp version
+        writer.writeInt(3, 6); // consent screen
+        writer.writeInt(4, 6); // language 'e'
+        writer.writeInt(13, 6); // language 'n'
+        writer.writeInt(1, 12); // vendor list version
+        writer.writeLong(0xC00000, 24); // purposes 1 & 2
+        writer.writeInt(maxVendorId, 16);
+        writer.writeBool(true); // range encoding
+        writer.writeBool(defaultConsent);
+        writer.writeInt(entries.length, 12);
+        for (int[] entry : entries) {
+            if (entry[0] == entry[1]) {
+                writer.writeBool(false);
+                writer.writeInt(entry[0], 16);
+            } else {
+                writer.writeBool(true);
+                writer.writeInt(entry[0], 16);
+                writer.writeInt(entry[1], 16);
+            }
+        }
+        return writer.toBase64URL();
+    }
+
     @Test
     public void testConsentStringEquatable() throws IllegalArgumentException, UnknownVersionNumberException{
         ConsentString consentString1 = new ConsentString(new VersionConfig(1),
@@ -483,6 +523,32 @@ public class ConsentStringTest {
             Assert.assertFalse(consentString.isVendorAllowed(6));
     }
 
+    @Test
+    public void testAllowedVendorIdsAndCount() throws IllegalArgumentException, UnknownVersionNumberException {
+        Date date = DateUtils.dateFromString("2017-11-07T18:59:04.9Z");
+
+        if (date == null) {
+            Assert.fail("Date is null");
+        }
+
+        ConsentString consentString = new ConsentString(new VersionConfig(1),
+                date,
+                date,
+                1,
+                2,
+                3,
+                new Language("en"),
+                1,
+                6,
+                new ArrayList<>(Arrays.asList(2, 1)),
+                new ArrayList<>(Arrays.asList(4, 2, 1)));
+
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2, 4}, consentString.allowedVendorIds()));
+        Assert.assertEquals(3, consentString.allowedVendorCount());
+        Assert.assertEquals(new ArrayList<>(Arrays.asList(1, 2, 4)), consentString.getAllowedVendors());
+        Assert.assertEquals(new ArrayList<>(Arrays.asList(1, 2)), consentString.getAllowedPurposes());
+    }
+
     @Test
     public void testParsedPurposeConsents() throws IllegalArgumentException, UnknownVersionNumberException {
         Date date = DateUtils.dateFromString("2017-11-07T18:59:04.9Z");
@@ -529,6 +595,26 @@ public class ConsentStringTest {
         Assert.assertEquals("110100", consentString.parsedVendorConsents());
     }
 
+    @Test
+    public void testParsedVendorConsentsForLargeVendorList() throws IllegalArgumentException, UnknownVersionNumberException {
+        // 10000 vendors, one out of three allowed. The parsing time is measured by ParsedConsentsBenchmark.
+        Date date = new Date(1510082155400L);
+        IdBitSet allowedVendors = new IdBitSet(10000);
+        for (int id = 1; id <= 10000; id += 3) {
+            allowedVendors.set(id);
+        }
+
+        ConsentString consentString = new ConsentString(new VersionConfig(1), date, date, 1, 2, 3, new Language("en"), 1,
+                10000, 3, allowedVendors, ConsentString.ConsentEncoding.AUTOMATIC);
+
+        String consents = consentString.parsedVendorConsents();
+        Assert.assertEquals(10000, consents.length());
+        Assert.assertEquals('1', consents.charAt(0));
+        Assert.assertEquals('0', consents.charAt(1));
+        Assert.assertEquals('1', consents.charAt(9999));
+        Assert.assertSame(consents, consentString.parsedVendorConsents());
+    }
+
     @Test
     public void testConsentStringCanBeCopied() throws IllegalArgumentException, UnknownVersionNumberException {
         Date date = DateUtils.dateFromString("2017-11-07T18:59:04.9Z");
@@ -636,6 +722,49 @@ public class ConsentStringTest {
         Assert.assertEquals(expectedConsentString, updatedConsentString);
     }
 
+    @Test
+    public void testConsentStringFromUpdatedVendorListKeepsReactivatedVendorsConsent() throws UnknownVersionNumberException {
+        Date date = DateUtils.dateFromString("2017-11-07T18:59:04.9Z");
+        Date updatedDate = DateUtils.dateFromString("2018-11-07T18:59:04.9Z");
+
+        if (date == null || updatedDate == null) {
+            Assert.fail("Date is null");
+        }
+
+        ArrayList<Purpose> purposes = new ArrayList<>(Collections.singletonList(new Purpose(1, "Purpose 1", "Description 1")));
+        ArrayList<Integer> noIds = new ArrayList<>();
+
+        // The vendors 2 & 3 are deleted in the previous vendor list and reactivated in the updated one.
+        VendorList previousVendorList = new VendorList(1, date, purposes, new ArrayList<Feature>(), new ArrayList<>(Arrays.asList(
+                new Vendor(1, "Vendor 1", noIds, noIds, noIds, null, null),
+                new Vendor(2, "Vendor 2", noIds, noIds, noIds, null, date),
+                new Vendor(3, "Vendor 3", noIds, noIds, noIds, null, date))));
+        VendorList updatedVendorList = new VendorList(2, updatedDate, purposes, new ArrayList<Feature>(), new ArrayList<>(Arrays.asList(
+                new Vendor(1, "Vendor 1", noIds, noIds, noIds, null, null),
+                new Vendor(2, "Vendor 2", noIds, noIds, noIds, null, null),
+                new Vendor(3, "Vendor 3", noIds, noIds, noIds, null, null),
+                new Vendor(4, "Vendor 4", noIds, noIds, noIds, null, null))));
+
+        ConsentString consentString = new ConsentString(new VersionConfig(1),
+                date,
+                date,
+                1,
+                2,
+                3,
+                new Language("en"),
+                previousVendorList,
+                new ArrayList<>(Collections.singletonList(1)),
+                new ArrayList<>(Arrays.asList(1, 3)));
+
+        ConsentString updatedConsentString = ConsentString.consentStringFromUpdatedVendorList(updatedVendorList, previousVendorList, consentString, updatedDate);
+
+        // Only the added vendor 4 is allowed, the reactivated vendors keep their previous consent.
+        Assert.assertTrue(updatedConsentString.isVendorAllowed(1));
+        Assert.assertFalse(updatedConsentString.isVendorAllowed(2));
+        Assert.assertTrue(updatedConsentString.isVendorAllowed(3));
+        Assert.assertTrue(updatedConsentString.isVendorAllowed(4));
+    }
+
     @Test
     public void testConsentStringByAddingPurpose() throws UnknownVersionNumberException {
         Date date = DateUtils.dateFromString("2017-11-07T18:59:04.9Z");
@@ -951,4 +1080,277 @@ public class ConsentStringTest {
         Assert.assertEquals(expectedConsentString1, idExistsConsentString);
         Assert.assertEquals(expectedConsentString2, idDoesNotExistsConsentString);
     }
+
+    @Test
+    public void testRangeDecodingWithDefaultConsent() throws IllegalArgumentException, UnknownVersionNumberException {
+        ConsentString consentString = ConsentString.fromBase64String(rangeEncodedConsentString(true, 10, new int[][]{{3, 3}, {5, 7}}));
+
+        Assert.assertNotNull(consentString);
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2, 4, 8, 9, 10}, consentString.allowedVendorIds()));
+        Assert.assertEquals(new ArrayList<>(Arrays.asList(1, 2)), consentString.getAllowedPurposes());
+
+        consentString = ConsentString.fromBase64String(rangeEncodedConsentString(false, 10, new int[][]{{3, 3}, {5, 7}}));
+
+        Assert.assertNotNull(consentString);
+        Assert.assertTrue(Arrays.equals(new int[]{3, 5, 6, 7}, consentString.allowedVendorIds()));
+    }
+
+    @Test
+    public void testLargeRangeDecodedConsentString() throws IllegalArgumentException, UnknownVersionNumberException {
+        ConsentString consentString = ConsentString.fromBase64String(rangeEncodedConsentString(false, 60010, new int[][]{{1, 60000}, {60005, 60005}}));
+
+        Assert.assertNotNull(consentString);
+        Assert.assertEquals(60001, consentString.allowedVendorCount());
+        Assert.assertTrue(consentString.isVendorAllowed(1));
+        Assert.assertTrue(consentString.isVendorAllowed(60000));
+        Assert.assertFalse(consentString.isVendorAllowed(60001));
+        Assert.assertTrue(consentString.isVendorAllowed(60005));
+        Assert.assertFalse(consentString.isVendorAllowed(60010));
+        Assert.assertFalse(consentString.isVendorAllowed(0));
+
+        String parsedVendorConsents = consentString.parsedVendorConsents();
+        Assert.assertEquals(60010, parsedVendorConsents.length());
+        Assert.assertEquals('1', parsedVendorConsents.charAt(59999));
+        Assert.assertEquals("0000100000", parsedVendorConsents.substring(60000));
+
+        // Comparing or editing the consent string works the same as with a bitfield decoded one
+        IdBitSet allowedVendors = new IdBitSet(60010);
+        allowedVendors.setRange(1, 60000);
+        allowedVendors.set(60005);
+        ConsentString bitfieldConsentString = ConsentString.fromBase64String(new ConsentString(new VersionConfig(1),
+                consentString.getCreated(), consentString.getLastUpdated(), 1, 2, 3, new Language("en"), 1, 60010, 3,
+                allowedVendors, ConsentString.ConsentEncoding.BITFIELD).getConsentString());
+        Assert.assertEquals(bitfieldConsentString, consentString);
+        Assert.assertEquals(bitfieldConsentString.hashCode(), consentString.hashCode());
+
+        ConsentString editedConsentString = consentString.edit().revokeVendors(2).allowVendors(60010).commit(consentString.getLastUpdated());
+        Assert.assertFalse(editedConsentString.isVendorAllowed(2));
+        Assert.assertTrue(editedConsentString.isVendorAllowed(60010));
+        Assert.assertEquals(60001, editedConsentString.allowedVendorCount());
+        Assert.assertTrue(consentString.isVendorAllowed(2));
+        Assert.assertEquals(consentString, ConsentString.fromBase64String(consentString.getConsentString()));
+    }
+
+    @Test
+    public void testInvalidRangesCantBeDecoded() throws UnknownVersionNumberException {
+        int[][][] invalidEntries = new int[][][]{
+                {{2, 5}, {4, 4}}, // overlapping single id
+                {{2, 5}, {5, 8}}, // overlapping range
+                {{0, 0}}, // id lower than 1
+                {{11, 11}}, // id greater than max vendor id
+                {{8, 11}}, // range ending after max vendor id
+                {{6, 4}}, // range ending before its start
+        };
+
+        for (int[][] entries : invalidEntries) {
+            try {
+                ConsentString.fromBase64String(rangeEncodedConsentString(true, 10, entries));
+                Assert.fail("Should have raised an exception for " + Arrays.deepToString(entries));
+            } catch (IllegalArgumentException e) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void testLargeRangeDecoding() throws IllegalArgumentException, UnknownVersionNumberException {
+        // 4095 entries (the maximum) over a 65534 vendors list, with default consent. The decoding time is measured by
+        // ConsentStringDecodeBenchmark.
+        int maxVendorId = 65534;
+        int[][] entries = new int[4095][];
+        for (int i = 0; i < entries.length; i++) {
+            int startId = 1 + i * 16;
+            entries[i] = i % 2 == 0 ? new int[]{startId, startId} : new int[]{startId, startId + 7};
+        }
+
+        String base64 = rangeEncodedConsentString(true, maxVendorId, entries);
+
+        ConsentString consentString = ConsentString.fromBase64String(base64);
+
+        Assert.assertNotNull(consentString);
+        Assert.assertEquals(maxVendorId - 2048 - 2047 * 8, consentString.allowedVendorCount());
+        Assert.assertFalse(consentString.isVendorAllowed(1));
+        Assert.assertTrue(consentString.isVendorAllowed(2));
+        Assert.assertFalse(consentString.isVendorAllowed(17 + 7));
+        Assert.assertTrue(consentString.isVendorAllowed(17 + 8));
+        Assert.assertTrue(consentString.isVendorAllowed(maxVendorId));
+    }
+
+    @Test
+    public void testAutomaticEncodingPicksTheShortestEncoding() throws IllegalArgumentException, UnknownVersionNumberException {
+        Random random = new Random(42);
+        Date date = new Date(1510082155400L);
+
+        for (int iteration = 0; iteration < 200; iteration++) {
+            int maxVendorId = 1 + random.nextInt(600);
+            double density = random.nextDouble();
+            int runLength = 1 + random.nextInt(30);
+
+            // Runs of consecutive ids, so both encodings get picked.
+            IdBitSet allowedVendors = new IdBitSet(maxVendorId);
+            for (int id = 1; id <= maxVendorId; id += runLength) {
+                if (random.nextDouble() < density) {
+                    allowedVendors.setRange(id, Math.min(maxVendorId, id + random.nextInt(runLength)));
+                }
+            }
+
+            ConsentString automatic = new ConsentString(new VersionConfig(1), date, date, 1, 2, 3, new Language("en"), 1,
+                    maxVendorId, 3, allowedVendors, ConsentString.ConsentEncoding.AUTOMATIC);
+            ConsentString bitfield = new ConsentString(new VersionConfig(1), date, date, 1, 2, 3, new Language("en"), 1,
+                    maxVendorId, 3, allowedVendors, ConsentString.ConsentEncoding.BITFIELD);
+            ConsentString range = new ConsentString(new VersionConfig(1), date, date, 1, 2, 3, new Language("en"), 1,
+                    maxVendorId, 3, allowedVendors, ConsentString.ConsentEncoding.RANGE);
+
+            int shortestLength = Math.min(bitfield.getConsentString().length(), range.getConsentString().length());
+            Assert.assertEquals(shortestLength, automatic.getConsentString().length());
+
+            Assert.assertEquals(automatic, ConsentString.fromBase64String(automatic.getConsentString()));
+            Assert.assertEquals(automatic, ConsentString.fromBase64String(bitfield.getConsentString()));
+            Assert.assertEquals(automatic, ConsentString.fromBase64String(range.getConsentString()));
+        }
+    }
+
+    @Test
+    public void testRangeEncodingUsesDefaultConsentWhenShorter() throws IllegalArgumentException, UnknownVersionNumberException {
+        Date date = new Date(1510082155400L);
+
+        IdBitSet allowedVendors = new IdBitSet();
+        allowedVendors.setRange(1, 500);
+        allowedVendors.clear(42);
+        allowedVendors.clear(300);
+
+        for (ConsentString.ConsentEncoding encoding : new ConsentString.ConsentEncoding[]{ConsentString.ConsentEncoding.AUTOMATIC, ConsentString.ConsentEncoding.RANGE}) {
+            ConsentString consentString = new ConsentString(new VersionConfig(1), date, date, 1, 2, 3, new Language("en"), 1,
+                    500, 3, allowedVendors, encoding);
+
+            // 173 header bits, 13 bits of range header and 2 single id entries of 17 bits: 220 bits (28 bytes).
+            Assert.assertEquals(38, consentString.getConsentString().length());
+
+            ConsentString decodedConsentString = ConsentString.fromBase64String(consentString.getConsentString());
+            Assert.assertEquals(consentString, decodedConsentString);
+            Assert.assertEquals(498, decodedConsentString.allowedVendorCount());
+            Assert.assertFalse(decodedConsentString.isVendorAllowed(42));
+            Assert.assertFalse(decodedConsentString.isVendorAllowed(300));
+            Assert.assertTrue(decodedConsentString.isVendorAllowed(500));
+        }
+
+        // Every vendor allowed: no entry at all.
+        allowedVendors.setRange(1, 500);
+        ConsentString consentString = new ConsentString(new VersionConfig(1), date, date, 1, 2, 3, new Language("en"), 1,
+                500, 3, allowedVendors, ConsentString.ConsentEncoding.AUTOMATIC);
+        Assert.assertEquals(32, consentString.getConsentString().length());
+        Assert.assertEquals(500, ConsentString.fromBase64String(consentString.getConsentString()).allowedVendorCount());
+    }
+
+    @Test
+    public void testDecodedConsentStringKeepsOriginalString() throws IllegalArgumentException, UnknownVersionNumberException {
+        // Bitfield encoded, while the automatic encoding would use a range.
+        String bitfieldString = "BOEFBi5OEFBi5ABACDENABwAAAAAaACgACAAQABA";
+        ConsentString consentString = ConsentString.fromBase64String(bitfieldString);
+
+        Assert.assertNotNull(consentString);
+        Assert.assertSame(bitfieldString, consentString.getConsentString());
+        Assert.assertSame(bitfieldString, new ConsentString(consentString).getConsentString());
+    }
+
+    @Test
+    public void testConsentStringIsEncodedOnce() throws IllegalArgumentException, UnknownVersionNumberException {
+        Date date = new Date(1510082155400L);
+        ConsentString consentString = new ConsentString(new VersionConfig(1), date, date, 1, 2, 3, new Language("en"), 1,
+                6, 3, new IdBitSet(new ArrayList<>(Arrays.asList(1, 2, 4))), ConsentString.ConsentEncoding.BITFIELD);
+
+        String base64 = consentString.getConsentString();
+        Assert.assertSame(base64, consentString.getConsentString());
+        Assert.assertEquals(consentString, ConsentString.fromBase64String(base64));
+    }
+
+    @Test
+    public void testInvalidValuesAreRejectedAtCreation() throws UnknownVersionNumberException {
+        Date date = new Date(1510082155400L);
+
+        try {
+            new ConsentString(new VersionConfig(1), date, date, 4096, 2, 3, new Language("en"), 1,
+                    6, 3, new IdBitSet(), ConsentString.ConsentEncoding.AUTOMATIC);
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        try {
+            new ConsentString(new VersionConfig(1), date, date, 1, 2, 3, new Language("en"), 1,
+                    65536, 3, new IdBitSet(), ConsentString.ConsentEncoding.AUTOMATIC);
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testEditorAppliesChangesAtOnce() throws IllegalArgumentException, UnknownVersionNumberException {
+        Date date = new Date(1510082155400L);
+        Date updatedDate = new Date(1510082255400L);
+
+        ConsentString consentString = new ConsentString(new VersionConfig(1), date, date, 1, 2, 3, new Language("en"), 1,
+                20, 3, new IdBitSet(new ArrayList<>(Arrays.asList(1, 2, 4))), ConsentString.ConsentEncoding.AUTOMATIC);
+
+        ConsentString.Editor editor = consentString.edit()
+                .allowVendors(10, 11, 12)
+                .revokeVendors(2)
+                .allowRange(15, 20)
+                .revokeRange(16, 17)
+                .allowPurposes(5)
+                .revokePurposes(1);
+
+        ConsentString editedConsentString = editor.commit(updatedDate);
+
+        Assert.assertTrue(Arrays.equals(new int[]{1, 4, 10, 11, 12, 15, 18, 19, 20}, editedConsentString.allowedVendorIds()));
+        Assert.assertEquals(new ArrayList<>(Arrays.asList(2, 5)), editedConsentString.getAllowedPurposes());
+        Assert.assertEquals(date, editedConsentString.getCreated());
+        Assert.assertEquals(updatedDate, editedConsentString.getLastUpdated());
+        Assert.assertEquals(editedConsentString, ConsentString.fromBase64String(editedConsentString.getConsentString()));
+
+        // The source is left untouched
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2, 4}, consentString.allowedVendorIds()));
+        Assert.assertEquals(new ArrayList<>(Arrays.asList(1, 2)), consentString.getAllowedPurposes());
+
+        // The editor can still be used without affecting committed consent strings
+        ConsentString fullConsentString = editor.setAllVendors(true).setAllPurposes(true).commit(updatedDate);
+        Assert.assertEquals(20, fullConsentString.allowedVendorCount());
+        Assert.assertEquals(24, fullConsentString.getAllowedPurposes().size());
+        Assert.assertEquals(9, editedConsentString.allowedVendorCount());
+
+        ConsentString emptyConsentString = editor.setAllVendors(false).setAllPurposes(false).commit(updatedDate);
+        Assert.assertEquals(0, emptyConsentString.allowedVendorCount());
+        Assert.assertTrue(emptyConsentString.getAllowedPurposes().isEmpty());
+        Assert.assertEquals(20, fullConsentString.allowedVendorCount());
+    }
+
+    @Test
+    public void testEditorRangesAreBoundedByTheMaxVendorId() throws IllegalArgumentException, UnknownVersionNumberException {
+        Date date = new Date(1510082155400L);
+
+        ConsentString consentString = new ConsentString(new VersionConfig(1), date, date, 1, 2, 3, new Language("en"), 1,
+                20, 3, new IdBitSet(), ConsentString.ConsentEncoding.AUTOMATIC);
+
+        // Vendors above the max vendor id are ignored instead of being allocated.
+        ConsentString editedConsentString = consentString.edit()
+                .allowRange(15, Integer.MAX_VALUE)
+                .revokeRange(18, Integer.MAX_VALUE - 1)
+                .commit(date);
+        Assert.assertTrue(Arrays.equals(new int[]{15, 16, 17}, editedConsentString.allowedVendorIds()));
+
+        try {
+            consentString.edit().allowRange(0, 5);
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        try {
+            consentString.edit().revokeRange(6, 5);
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
 }
@@ -0,0 +1,174 @@
+package com.smartadserver.android.smartcmp.consentstring;
+
+import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberException;
+import com.smartadserver.android.smartcmp.model.Language;
+import com.smartadserver.android.smartcmp.model.VersionConfig;
+import com.smartadserver.android.smartcmp.util.BitWriter;
+import com.smartadserver.android.smartcmp.util.IdBitSet;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Random;
+
+public class ConsentStringViewTest {
+
+    private String rangeEncodedConsentString(boolean defaultConsent, int maxVendorId, int[][] entries) {
+        BitWriter writer = new BitWriter();
+        writer.writeInt(1, 6); // version
+        writer.writeLong(15100821554L, 36); // created
+        writer.writeLong(15100821554L, 36); // last updated
+        writer.writeInt(1, 12); // cmp id
+        writer.writeInt(2, 12); // cmp version
+        writer.writeInt(3, 6); // consent screen
+        writer.writeInt(4, 6); // language 'e'
+        writer.writeInt(13, 6); // language 'n'
+        writer.writeInt(1, 12); // vendor list version
+        writer.writeLong(0xC00000, 24); // purposes 1 & 2
+        writer.writeInt(maxVendorId, 16);
+        writer.writeBool(true); // range encoding
+        writer.writeBool(defaultConsent);
+        writer.writeInt(entries.length, 12);
+        for (int[] entry : entries) {
+            if (entry[0] == entry[1]) {
+                writer.writeBool(false);
+                writer.writeInt(entry[0], 16);
+            } else {
+                writer.writeBool(true);
+                writer.writeInt(entry[0], 16);
+                writer.writeInt(entry[1], 16);
+            }
+        }
+        return writer.toBase64URL();
+    }
+
+    private void assertSameConsents(ConsentString consentString, ConsentStringView view) {
+        for (int purposeId = 0; purposeId <= 25; purposeId++) {
+            Assert.assertEquals(consentString.isPurposeAllowed(purposeId), view.isPurposeAllowed(purposeId));
+        }
+        for (int vendorId = -1; vendorId <= consentString.getMaxVendorId() + 2; vendorId++) {
+            Assert.assertEquals("vendor " + vendorId, consentString.isVendorAllowed(vendorId), view.isVendorAllowed(vendorId));
+        }
+    }
+
+    @Test
+    public void testHeaderIsParsed() throws UnknownVersionNumberException {
+        ConsentStringView view = ConsentStringView.wrap("BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA");
+        ConsentString consentString = ConsentString.fromBase64String("BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA");
+
+        Assert.assertNotNull(view);
+        Assert.assertEquals(consentString.getVersion(), view.getVersion());
+        Assert.assertEquals(consentString.getCreated(), view.getCreated());
+        Assert.assertEquals(consentString.getLastUpdated(), view.getLastUpdated());
+        Assert.assertEquals(consentString.getCmpId(), view.getCmpId());
+        Assert.assertEquals(consentString.getCmpVersion(), view.getCmpVersion());
+        Assert.assertEquals(consentString.getConsentScreen(), view.getConsentScreen());
+        Assert.assertEquals(consentString.getConsentLanguage(), view.getConsentLanguage());
+        Assert.assertEquals(consentString.getVendorListVersion(), view.getVendorListVersion());
+        Assert.assertEquals(consentString.getMaxVendorId(), view.getMaxVendorId());
+        Assert.assertEquals(consentString, view.toConsentString());
+        assertSameConsents(consentString, view);
+    }
+
+    @Test
+    public void testVendorQueriesMatchDecodedConsentString() throws UnknownVersionNumberException {
+        Random random = new Random(42);
+
+        for (int iteration = 0; iteration < 50; iteration++) {
+            int maxVendorId = 1 + random.nextInt(2000);
+            IdBitSet allowedVendors = new IdBitSet(maxVendorId);
+            int runStart = 1;
+            while (runStart <= maxVendorId) {
+                int runEnd = Math.min(runStart + random.nextInt(20), maxVendorId);
+                if (random.nextBoolean()) {
+                    allowedVendors.setRange(runStart, runEnd);
+                }
+                runStart = runEnd + 1;
+            }
+
+            for (ConsentString.ConsentEncoding encoding : new ConsentString.ConsentEncoding[]{ConsentString.ConsentEncoding.BITFIELD, ConsentString.ConsentEncoding.RANGE}) {
+                String base64String = new ConsentString(VersionConfig.getLatest(),
+                        new Date(1525168813000L),
+                        new Date(1527847213000L),
+                        33,
+                        5,
+                        0,
+                        new Language("fr"),
+                        12,
+                        maxVendorId,
+                        random.nextInt(1 << 24),
+                        allowedVendors,
+                        encoding).getConsentString();
+
+                ConsentStringView view = ConsentStringView.wrap(base64String);
+                Assert.assertNotNull(view);
+                Assert.assertEquals(encoding, view.getVendorListEncoding());
+                assertSameConsents(ConsentString.fromBase64String(base64String), view);
+            }
+        }
+    }
+
+    @Test
+    public void testUnsortedRangeEntries() throws UnknownVersionNumberException {
+        String base64String = rangeEncodedConsentString(true, 40, new int[][]{{30, 35}, {3, 3}, {10, 12}, {40, 40}});
+        ConsentStringView view = ConsentStringView.wrap(base64String);
+
+        Assert.assertNotNull(view);
+        Assert.assertEquals(ConsentString.ConsentEncoding.RANGE, view.getVendorListEncoding());
+        Assert.assertTrue(view.isVendorAllowed(1));
+        Assert.assertFalse(view.isVendorAllowed(3));
+        Assert.assertFalse(view.isVendorAllowed(11));
+        Assert.assertTrue(view.isVendorAllowed(13));
+        Assert.assertFalse(view.isVendorAllowed(30));
+        Assert.assertTrue(view.isVendorAllowed(39));
+        Assert.assertFalse(view.isVendorAllowed(40));
+        Assert.assertFalse(view.isVendorAllowed(41));
+        assertSameConsents(ConsentString.fromBase64String(base64String), view);
+    }
+
+    @Test
+    public void testInvalidRangesAreRejected() throws UnknownVersionNumberException {
+        int[][][] invalidEntries = {
+                {{0, 2}},
+                {{5, 3}},
+                {{3, 11}},
+                {{6, 8}, {2, 6}},
+        };
+
+        for (int[][] entries : invalidEntries) {
+            try {
+                ConsentStringView.wrap(rangeEncodedConsentString(false, 10, entries));
+                Assert.fail("Should have raised an exception.");
+            } catch (IllegalArgumentException e) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidStringsAreRejected() throws UnknownVersionNumberException {
+        try {
+            ConsentStringView.wrap("BOOlLqOOOl*qTABABAENAk-AAAAXx7");
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        // Truncated bitfield
+        try {
+            ConsentStringView.wrap("BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9");
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        try {
+            ConsentStringView.wrap("COOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA");
+            Assert.fail("Should have raised an exception.");
+        } catch (UnknownVersionNumberException e) {
+            // ok
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartadserver.android.smartcmp.model;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+public class VendorListDiffTest {
+
+    private static Vendor vendor(int id, boolean deleted) {
+        return new Vendor(id, "Vendor " + id, new ArrayList<Integer>(), new ArrayList<Integer>(), new ArrayList<Integer>(), null, deleted ? new Date(0) : null);
+    }
+
+    private static Purpose purpose(int id) {
+        return new Purpose(id, "Purpose " + id, "Description " + id);
+    }
+
+    private static VendorList vendorList(int version, long lastUpdated, ArrayList<Purpose> purposes, ArrayList<Vendor> vendors) {
+        return new VendorList(version, new Date(lastUpdated), purposes, new ArrayList<Feature>(), vendors);
+    }
+
+    @Test
+    public void testDiff() {
+        VendorList oldVendorList = vendorList(1, 1000,
+                new ArrayList<>(Arrays.asList(purpose(1), purpose(3))),
+                new ArrayList<>(Arrays.asList(vendor(1, false), vendor(2, false), vendor(3, true), vendor(4, false), vendor(5, true))));
+        VendorList newVendorList = vendorList(2, 2000,
+                new ArrayList<>(Arrays.asList(purpose(1), purpose(2), purpose(4))),
+                new ArrayList<>(Arrays.asList(vendor(1, false), vendor(3, false), vendor(4, true), vendor(5, true), vendor(6, false), vendor(7, true))));
+
+        VendorListDiff diff = VendorListDiff.between(oldVendorList, newVendorList);
+
+        Assert.assertEquals(1, diff.getOldVersion());
+        Assert.assertEquals(2, diff.getNewVersion());
+        Assert.assertEquals(Arrays.asList(2, 4), diff.getAddedPurposes().toList());
+        Assert.assertEquals(Arrays.asList(3), diff.getRemovedPurposes().toList());
+        Assert.assertEquals(Arrays.asList(6, 7), diff.getAddedVendors().toList());
+        Assert.assertEquals(Arrays.asList(2), diff.getRemovedVendors().toList());
+        Assert.assertEquals(Arrays.asList(4), diff.getDeletedVendors().toList());
+        Assert.assertEquals(Arrays.asList(3), diff.getReactivatedVendors().toList());
+    }
+
+    @Test
+    public void testDiffIsCachedPerVersions() {
+        VendorList oldVendorList = vendorList(10, 1000, new ArrayList<>(Arrays.asList(purpose(1))), new ArrayList<>(Arrays.asList(vendor(1, false))));
+        VendorList newVendorList = vendorList(11, 2000, new ArrayList<>(Arrays.asList(purpose(1))), new ArrayList<>(Arrays.asList(vendor(1, false), vendor(2, false))));
+        VendorList sameNewVendorList = vendorList(11, 2000, new ArrayList<>(Arrays.asList(purpose(1))), new ArrayList<>(Arrays.asList(vendor(1, false), vendor(2, false))));
+
+        VendorListDiff diff = VendorListDiff.between(oldVendorList, newVendorList);
+        Assert.assertSame(diff, VendorListDiff.between(oldVendorList, sameNewVendorList));
+
+        // A vendor list with the same version but another last updated date is not the same vendor list.
+        VendorList otherNewVendorList = vendorList(11, 3000, new ArrayList<>(Arrays.asList(purpose(1))), new ArrayList<>(Arrays.asList(vendor(3, false))));
+        VendorListDiff otherDiff = VendorListDiff.between(oldVendorList, otherNewVendorList);
+        Assert.assertNotSame(diff, otherDiff);
+        Assert.assertEquals(Arrays.asList(3), otherDiff.getAddedVendors().toList());
+        Assert.assertEquals(Arrays.asList(1), otherDiff.getRemovedVendors().toList());
+    }
+}
@@ -0,0 +1,83 @@
+package com.smartadserver.android.smartcmp.model;
+
+import junit.framework.Assert;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+public class VendorListLocalizationTest {
+
+    private VendorList getVendorList() throws MalformedURLException {
+        return new VendorList(1,
+                new Date(1524499402000L),
+                new ArrayList<>(Arrays.asList(new Purpose(1, "Purpose 1", "Description 1"), new Purpose(2, "Purpose 2", "Description 2"))),
+                new ArrayList<>(Arrays.asList(new Feature(1, "Feature 1", "Description 1"), new Feature(2, "Feature 2", "Description 2"))),
+                new ArrayList<>(Arrays.asList(
+                        new Vendor(1, "Vendor 1", new ArrayList<>(Arrays.asList(1)), new ArrayList<Integer>(), new ArrayList<Integer>(), new URL("https://www.vendor1.com"), null),
+                        new Vendor(2, "Vendor 2", new ArrayList<>(Arrays.asList(2)), new ArrayList<Integer>(), new ArrayList<Integer>(), null, null))));
+    }
+
+    @Test
+    public void testLocalizedEntriesAreJoinedById() throws JSONException, MalformedURLException {
+        VendorListLocalization localization = VendorListLocalization.fromJSON(new JSONObject("{"
+                + "\"purposes\":[{\"id\":2,\"name\":\"Objectif 2\",\"description\":\"Description objectif 2\"},{\"id\":1,\"name\":\"Objectif 1\"}],"
+                + "\"features\":[{\"id\":2,\"description\":\"Description fonctionnalit\u00e9 2\"},{\"id\":3,\"name\":\"Unknown feature\"}],"
+                + "\"vendors\":[{\"id\":2,\"name\":\"Partenaire 2\"}]}"));
+        VendorList vendorList = getVendorList();
+        VendorList localizedVendorList = localization.localize(vendorList);
+
+        Assert.assertEquals("Objectif 1", localizedVendorList.getPurposes().get(0).getName());
+        Assert.assertEquals("Description 1", localizedVendorList.getPurposes().get(0).getDescription());
+        Assert.assertEquals("Objectif 2", localizedVendorList.getPurposes().get(1).getName());
+        Assert.assertEquals("Description objectif 2", localizedVendorList.getPurposes().get(1).getDescription());
+
+        Assert.assertSame(vendorList.getFeatures().get(0), localizedVendorList.getFeatures().get(0));
+        Assert.assertEquals("Feature 2", localizedVendorList.getFeatures().get(1).getName());
+        Assert.assertEquals("Description fonctionnalit\u00e9 2", localizedVendorList.getFeatures().get(1).getDescription());
+        Assert.assertEquals(2, localizedVendorList.getFeatures().size());
+
+        Assert.assertSame(vendorList.getVendors().get(0), localizedVendorList.getVendors().get(0));
+        Assert.assertEquals("Partenaire 2", localizedVendorList.getVendors().get(1).getName());
+        Assert.assertEquals(vendorList.getVendors().get(1).getPurposes(), localizedVendorList.getVendors().get(1).getPurposes());
+
+        // The original vendor list is left untouched
+        Assert.assertEquals("Purpose 1", vendorList.getPurposes().get(0).getName());
+        Assert.assertEquals("Vendor 2", vendorList.getVendors().get(1).getName());
+    }
+
+    @Test
+    public void testInvalidLocalizedEntriesAreIgnored() throws JSONException, MalformedURLException {
+        VendorListLocalization localization = VendorListLocalization.fromJSON(new JSONObject("{"
+                + "\"purposes\":[{\"name\":\"No id\"},42,{\"id\":\"one\",\"name\":\"Invalid id\"},{\"id\":1,\"name\":null,\"description\":12}],"
+                + "\"features\":{\"id\":1,\"name\":\"Not an array\"}}"));
+
+        Assert.assertTrue(localization.isEmpty());
+
+        VendorList vendorList = getVendorList();
+        Assert.assertSame(vendorList, localization.localize(vendorList));
+    }
+
+    @Test
+    public void testLocalizationCanBeBuiltManually() throws MalformedURLException {
+        VendorListLocalization localization = new VendorListLocalization();
+        localization.putPurpose(2, null, "Description objectif 2");
+        localization.putFeature(1, "Fonctionnalit\u00e9 1", null);
+        localization.putVendor(1, "Partenaire 1");
+        localization.putVendor(2, null);
+
+        VendorList localizedVendorList = localization.localize(getVendorList());
+
+        Assert.assertEquals("Purpose 2", localizedVendorList.getPurposes().get(1).getName());
+        Assert.assertEquals("Description objectif 2", localizedVendorList.getPurposes().get(1).getDescription());
+        Assert.assertEquals("Fonctionnalit\u00e9 1", localizedVendorList.getFeatures().get(0).getName());
+        Assert.assertEquals("Partenaire 1", localizedVendorList.getVendors().get(0).getName());
+        Assert.assertEquals("Vendor 2", localizedVendorList.getVendors().get(1).getName());
+    }
+}
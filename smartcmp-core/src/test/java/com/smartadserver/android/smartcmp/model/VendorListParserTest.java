@@ -0,0 +1,133 @@
+package com.smartadserver.android.smartcmp.model;
+
+import junit.framework.Assert;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+
+public class VendorListParserTest {
+
+    private InputStream getInputStream(String fileName) {
+        return getClass().getClassLoader().getResourceAsStream(fileName);
+    }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private JSONObject getJSON(String fileName) throws IOException, JSONException {
+        InputStream is = getInputStream(fileName);
+        byte[] buffer = new byte[is.available()];
+        is.read(buffer);
+        is.close();
+
+        return new JSONObject(new String(buffer, "UTF-8"));
+    }
+
+    private VendorList parse(String json) throws IOException, JSONException {
+        return VendorListParser.parse(new ByteArrayInputStream(json.getBytes("UTF-8")));
+    }
+
+    @Test
+    public void testParsedVendorListMatchesJSONObjectVendorList() throws IOException, JSONException {
+        for (String fileName : new String[]{"vendors.json", "vendors_updated.json"}) {
+            InputStream inputStream = getInputStream(fileName);
+            VendorList vendorList = VendorListParser.parse(inputStream);
+            inputStream.close();
+
+            VendorList expectedVendorList = new VendorList(getJSON(fileName));
+            Assert.assertEquals(expectedVendorList, vendorList);
+            Assert.assertEquals(expectedVendorList.getMaxVendorId(), vendorList.getMaxVendorId());
+            Assert.assertEquals(expectedVendorList.getActivatedVendor(), vendorList.getActivatedVendor());
+        }
+    }
+
+    @Test
+    public void testLocalizedVendorListMatchesJSONObjectVendorList() throws IOException, JSONException {
+        InputStream inputStream = getInputStream("vendors.json");
+        VendorList vendorList = VendorListParser.parse(inputStream);
+        inputStream.close();
+
+        inputStream = getInputStream("vendors_localized.json");
+        VendorList localizedVendorList = VendorListParser.localize(vendorList, inputStream);
+        inputStream.close();
+
+        Assert.assertEquals(new VendorList(getJSON("vendors.json"), getJSON("vendors_localized.json")), localizedVendorList);
+        Assert.assertEquals("Purpose 3 name translated", localizedVendorList.getPurposes().get(2).getName());
+        Assert.assertEquals("Feature 2 name translated", localizedVendorList.getFeatures().get(1).getName());
+
+        // The original vendor list is left untouched
+        Assert.assertEquals("Ad selection, delivery, reporting", vendorList.getPurposes().get(2).getName());
+        Assert.assertEquals("Linking Devices", vendorList.getFeatures().get(1).getName());
+    }
+
+    @Test
+    public void testInvalidLocalizedEntriesAreIgnored() throws IOException, JSONException {
+        VendorList vendorList = parse("{\"vendorListVersion\":1,\"lastUpdated\":\"2018-04-23T16:03:22Z\","
+                + "\"purposes\":[{\"id\":1,\"name\":\"Purpose 1\",\"description\":\"Description 1\"},{\"id\":2,\"name\":\"Purpose 2\",\"description\":\"Description 2\"}],"
+                + "\"features\":[{\"id\":1,\"name\":\"Feature 1\",\"description\":\"Description 1\"}],"
+                + "\"vendors\":[]}");
+
+        String localizedJSON = "{\"purposes\":[{\"name\":\"No id\"},42,{\"id\":2,\"name\":\"Objet 2\",\"description\":null}],\"features\":{\"id\":1}}";
+        VendorList localizedVendorList = VendorListParser.localize(vendorList, new ByteArrayInputStream(localizedJSON.getBytes("UTF-8")));
+
+        Assert.assertEquals("Purpose 1", localizedVendorList.getPurposes().get(0).getName());
+        Assert.assertEquals("Objet 2", localizedVendorList.getPurposes().get(1).getName());
+        Assert.assertEquals("Description 2", localizedVendorList.getPurposes().get(1).getDescription());
+        Assert.assertEquals("Feature 1", localizedVendorList.getFeatures().get(0).getName());
+    }
+
+    @Test
+    public void testUnknownPropertiesAreSkipped() throws IOException, JSONException {
+        VendorList vendorList = VendorListParser.parse(new StringReader("{\"unknown\":{\"a\":[1,{\"b\":null}],\"c\":true},"
+                + "\"vendorListVersion\":3,\"lastUpdated\":\"2018-04-23T16:03:22Z\",\"purposes\":[],\"features\":[],"
+                + "\"vendors\":[{\"id\":8,\"name\":\"Vendor \\u00e9\",\"policyUrl\":\"https://www.vendor.com\",\"purposeIds\":[1],"
+                + "\"legIntPurposeIds\":[],\"featureIds\":[2],\"other\":\"value\",\"deletedDate\":\"2018-05-01T00:00:00Z\"}]}"));
+
+        Assert.assertEquals(3, vendorList.getVersion());
+        Assert.assertEquals(1, vendorList.getVendors().size());
+        Assert.assertEquals(8, vendorList.getVendors().get(0).getId());
+        Assert.assertEquals("Vendor \u00e9", vendorList.getVendors().get(0).getName());
+        Assert.assertFalse(vendorList.getVendors().get(0).isActivated());
+    }
+
+    @Test
+    public void testInvalidVendorListsAreRejected() throws IOException {
+        String[] invalidJSONs = {
+                "{}",
+                "{\"vendorListVersion\":1,\"lastUpdated\":\"not a date\",\"purposes\":[],\"features\":[],\"vendors\":[]}",
+                "{\"vendorListVersion\":1,\"lastUpdated\":\"2018-04-23T16:03:22Z\",\"purposes\":[{\"id\":1}],\"features\":[],\"vendors\":[]}",
+                "{\"vendorListVersion\":1,\"lastUpdated\":\"2018-04-23T16:03:22Z\",\"purposes\":[],\"features\":[],\"vendors\":[{\"id\":1,\"name\":\"Vendor\"}]}",
+        };
+
+        for (String json : invalidJSONs) {
+            try {
+                parse(json);
+                Assert.fail("Should have raised an exception for " + json);
+            } catch (JSONException e) {
+                // ok
+            }
+        }
+
+        String[] malformedJSONs = {
+                "",
+                "{\"vendorListVersion\":1,",
+                "{\"vendorListVersion\":\"one\",\"lastUpdated\":\"2018-04-23T16:03:22Z\",\"purposes\":[],\"features\":[],\"vendors\":[]}",
+                "[]",
+        };
+
+        for (String json : malformedJSONs) {
+            try {
+                parse(json);
+                Assert.fail("Should have raised an exception for " + json);
+            } catch (IOException e) {
+                // ok
+            } catch (JSONException e) {
+                Assert.fail("Should have raised an IOException for " + json);
+            }
+        }
+    }
+}
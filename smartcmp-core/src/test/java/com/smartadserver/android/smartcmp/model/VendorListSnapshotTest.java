@@ -0,0 +1,101 @@
+package com.smartadserver.android.smartcmp.model;
+
+import junit.framework.Assert;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+public class VendorListSnapshotTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private JSONObject getJSON(String fileName) throws IOException, JSONException {
+        InputStream is = getClass().getClassLoader().getResourceAsStream(fileName);
+        byte[] buffer = new byte[is.available()];
+        is.read(buffer);
+        is.close();
+
+        return new JSONObject(new String(buffer, "UTF-8"));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        VendorList[] vendorLists = {
+                new VendorList(getJSON("vendors.json")),
+                new VendorList(getJSON("vendors_updated.json")),
+                new VendorList(getJSON("vendors.json"), getJSON("vendors_localized.json"))
+        };
+
+        for (VendorList vendorList : vendorLists) {
+            VendorList decodedVendorList = VendorListSnapshot.decode(VendorListSnapshot.encode(vendorList));
+            Assert.assertEquals(vendorList, decodedVendorList);
+            Assert.assertEquals(vendorList.getMaxVendorId(), decodedVendorList.getMaxVendorId());
+            Assert.assertEquals(vendorList.getActivatedVendor(), decodedVendorList.getActivatedVendor());
+        }
+    }
+
+    @Test
+    public void testFileRoundTrip() throws Exception {
+        VendorList vendorList = new VendorList(getJSON("vendors_updated.json"));
+        File file = temporaryFolder.newFile();
+
+        VendorListSnapshot.write(vendorList, file);
+        Assert.assertEquals(vendorList, VendorListSnapshot.read(file));
+
+        // Writing again replaces the previous snapshot.
+        VendorList otherVendorList = new VendorList(getJSON("vendors.json"));
+        VendorListSnapshot.write(otherVendorList, file);
+        Assert.assertEquals(otherVendorList, VendorListSnapshot.read(file));
+    }
+
+    @Test
+    public void testRoundTripWithLargeIdsAndMissingValues() throws Exception {
+        ArrayList<Vendor> vendors = new ArrayList<>(Arrays.asList(
+                new Vendor(70000, "Vendor \u00e9", new ArrayList<>(Arrays.asList(1, 300)), new ArrayList<Integer>(), new ArrayList<>(Arrays.asList(70000)), null, new Date(-1000)),
+                new Vendor(2, "", new ArrayList<Integer>(), new ArrayList<>(Arrays.asList(2)), new ArrayList<Integer>(), new URL("https://www.vendor2.com"), null)));
+        VendorList vendorList = new VendorList(3, new Date(123456789), new ArrayList<>(Arrays.asList(new Purpose(1, "Purpose", ""))), new ArrayList<Feature>(), vendors);
+
+        Assert.assertEquals(vendorList, VendorListSnapshot.decode(VendorListSnapshot.encode(vendorList)));
+    }
+
+    @Test
+    public void testInvalidSnapshotsAreRejected() throws Exception {
+        ByteBuffer snapshot = VendorListSnapshot.encode(new VendorList(getJSON("vendors.json")));
+        byte[] bytes = new byte[snapshot.remaining()];
+        snapshot.get(bytes);
+
+        // Every truncated snapshot is rejected.
+        for (int length = 0; length < bytes.length; length++) {
+            try {
+                VendorListSnapshot.decode(ByteBuffer.wrap(bytes, 0, length));
+                Assert.fail("Truncated snapshot of " + length + " bytes should be rejected");
+            } catch (IOException ignored) {
+            }
+        }
+
+        // Snapshots with another magic number or format version are rejected.
+        for (int offset : new int[]{0, 7}) {
+            byte[] invalidBytes = bytes.clone();
+            invalidBytes[offset]++;
+            try {
+                VendorListSnapshot.decode(ByteBuffer.wrap(invalidBytes));
+                Assert.fail("Snapshot modified at " + offset + " should be rejected");
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
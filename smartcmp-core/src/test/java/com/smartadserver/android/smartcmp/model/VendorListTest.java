@@ -1,8 +1,5 @@
 package com.smartadserver.android.smartcmp.model;
 
-import android.content.res.Resources;
-import android.support.test.InstrumentationRegistry;
-
 import com.smartadserver.android.smartcmp.util.DateUtils;
 
 import junit.framework.Assert;
@@ -50,7 +47,7 @@ public class VendorListTest {
     @SuppressWarnings("ResultOfMethodCallIgnored")
     private JSONObject getJSON(String fileName) {
         try {
-            InputStream is = InstrumentationRegistry.getContext().getAssets().open(fileName);
+            InputStream is = getClass().getClassLoader().getResourceAsStream(fileName);
             byte[] buffer = new byte[is.available()];
             is.read(buffer);
             is.close();
@@ -115,6 +112,21 @@ public class VendorListTest {
         Assert.assertEquals(39, vendorList.getMaxVendorId());
     }
 
+    @Test
+    public void testFindingByIds() throws JSONException, MalformedURLException {
+        VendorList vendorList = new VendorList(getVendorsJSON());
+
+        Assert.assertSame(vendorList.getPurposes().get(2), vendorList.getPurposeWithId(3));
+        Assert.assertNull(vendorList.getPurposeWithId(6));
+        Assert.assertSame(vendorList.getFeatures().get(1), vendorList.getFeatureWithId(2));
+        Assert.assertNull(vendorList.getFeatureWithId(0));
+        Assert.assertSame(vendorList.getVendors().get(4), vendorList.getVendorWithId(27));
+        Assert.assertNull(vendorList.getVendorWithId(10));
+        Assert.assertTrue(vendorList.containsVendorWithId(39));
+        Assert.assertFalse(vendorList.containsVendorWithId(40));
+        Assert.assertFalse(vendorList.containsVendorWithId(-1));
+    }
+
     @Test
     public void testFindingVendorCount() throws JSONException, MalformedURLException {
         VendorList vendorList = new VendorList(getUpdatedVendorsJSON());
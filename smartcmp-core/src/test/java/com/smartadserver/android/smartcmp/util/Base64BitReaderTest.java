@@ -0,0 +1,87 @@
+package com.smartadserver.android.smartcmp.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class Base64BitReaderTest {
+
+    @Test
+    public void testReadSameBitsAsBitReader() {
+        Random random = new Random(42);
+        for (int length = 0; length < 40; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            String base64 = Base64URLUtils.getBase64URL(data);
+
+            BitReader bitReader = new BitReader(data);
+            Base64BitReader base64Reader = new Base64BitReader(base64);
+            Assert.assertEquals(bitReader.remaining(), base64Reader.remaining());
+
+            while (bitReader.remaining() > 0) {
+                int numberOfBits = Math.min(1 + random.nextInt(40), bitReader.remaining());
+                Assert.assertEquals(bitReader.readLong(numberOfBits), base64Reader.readLong(numberOfBits));
+            }
+
+            for (int position = 0; position < length * 8; position++) {
+                Assert.assertEquals(bitReader.bitAt(position), base64Reader.bitAt(position));
+            }
+        }
+    }
+
+    @Test
+    public void testReadIntAndBool() {
+        // 0x91 0x50
+        Base64BitReader reader = new Base64BitReader("kVA");
+
+        Assert.assertTrue(reader.readBool());
+        Assert.assertEquals(2, reader.readInt(4));
+        Assert.assertEquals(42, reader.readInt(8));
+        reader.skip(3);
+        Assert.assertEquals(16, reader.getPosition());
+        Assert.assertEquals(0, reader.remaining());
+    }
+
+    @Test
+    public void testPaddingAndStandardAlphabetAreTolerated() {
+        Base64BitReader reader = new Base64BitReader("+/8=");
+
+        Assert.assertEquals(16, reader.remaining());
+        Assert.assertEquals(0xFBFF, reader.readInt(16));
+    }
+
+    @Test
+    public void testInvalidStringsAreRejected() {
+        try {
+            new Base64BitReader("AAAAA");
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        try {
+            new Base64BitReader("AA*A");
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testReadingPastTheEndIsRejected() {
+        Base64BitReader reader = new Base64BitReader("_w");
+        reader.skip(6);
+
+        try {
+            reader.readInt(3);
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        Assert.assertEquals(6, reader.getPosition());
+        Assert.assertEquals(3, reader.readInt(2));
+    }
+}
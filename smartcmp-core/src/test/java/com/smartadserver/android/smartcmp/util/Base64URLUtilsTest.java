@@ -0,0 +1,81 @@
+package com.smartadserver.android.smartcmp.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class Base64URLUtilsTest {
+
+    @Test
+    public void testEncodeString() {
+        Assert.assertEquals("dGVzdCBzdHJpbmc", Base64URLUtils.getBase64URL("test string"));
+    }
+
+    @Test
+    public void testDecodeString() {
+        String decoded = Base64URLUtils.decodeString("dGVzdCBzdHJpbmc", false);
+        Assert.assertEquals("test string", decoded);
+    }
+
+    @Test
+    public void testEncodeData() {
+        Assert.assertEquals("dGVzdCBzdHJpbmc", Base64URLUtils.getBase64URL("test string".getBytes()));
+    }
+
+    @Test
+    public void testEncodeDataUsesURLAlphabetWithoutPadding() {
+        Assert.assertEquals("", Base64URLUtils.getBase64URL(new byte[0]));
+        Assert.assertEquals("-w", Base64URLUtils.getBase64URL(new byte[]{(byte) 0xFB}));
+        Assert.assertEquals("-_8", Base64URLUtils.getBase64URL(new byte[]{(byte) 0xFB, (byte) 0xFF}));
+        Assert.assertEquals("-__-", Base64URLUtils.getBase64URL(new byte[]{(byte) 0xFB, (byte) 0xFF, (byte) 0xFE}));
+    }
+
+    @Test
+    public void testDecodeData() {
+        Assert.assertTrue(Arrays.equals(new byte[0], Base64URLUtils.decode("")));
+        Assert.assertTrue(Arrays.equals(new byte[]{(byte) 0xFB}, Base64URLUtils.decode("-w")));
+        Assert.assertTrue(Arrays.equals(new byte[]{(byte) 0xFB, (byte) 0xFF}, Base64URLUtils.decode("-_8")));
+        Assert.assertTrue(Arrays.equals(new byte[]{(byte) 0xFB, (byte) 0xFF, (byte) 0xFE}, Base64URLUtils.decode("-__-")));
+
+        // Standard alphabet and padding are tolerated
+        Assert.assertTrue(Arrays.equals(new byte[]{(byte) 0xFB, (byte) 0xFF}, Base64URLUtils.decode("+/8=")));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (int length = 0; length < 64; length++) {
+            byte[] data = new byte[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = (byte) (i * 37 + length);
+            }
+
+            Assert.assertTrue(Arrays.equals(data, Base64URLUtils.decode(Base64URLUtils.getBase64URL(data))));
+        }
+    }
+
+    @Test
+    public void testInvalidStringsCantBeDecoded() {
+        try {
+            Base64URLUtils.decode("AAAAA");
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        try {
+            Base64URLUtils.decode("AA*A");
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        try {
+            Base64URLUtils.decode("AAéA");
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+}
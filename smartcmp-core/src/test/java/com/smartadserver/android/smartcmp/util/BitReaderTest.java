@@ -0,0 +1,82 @@
+package com.smartadserver.android.smartcmp.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class BitReaderTest {
+
+    @Test
+    public void testReadLong() {
+        BitReader reader = new BitReader(new byte[]{(byte) 0x91, (byte) 0x50});
+
+        Assert.assertEquals(1, reader.readLong(1));
+        Assert.assertEquals(2, reader.readLong(4));
+        Assert.assertEquals(42, reader.readInt(8));
+        Assert.assertEquals(0, reader.readInt(3));
+        Assert.assertEquals(16, reader.getPosition());
+        Assert.assertEquals(0, reader.remaining());
+    }
+
+    @Test
+    public void testReadBool() {
+        BitReader reader = new BitReader(new byte[]{(byte) 0xA8});
+
+        Assert.assertTrue(reader.readBool());
+        Assert.assertFalse(reader.readBool());
+        Assert.assertTrue(reader.readBool());
+        Assert.assertFalse(reader.readBool());
+        Assert.assertTrue(reader.readBool());
+        Assert.assertEquals(3, reader.remaining());
+    }
+
+    @Test
+    public void testReadBitfield() {
+        BitReader reader = new BitReader(new byte[]{(byte) 0xE8, (byte) 0x00, (byte) 0x01});
+        reader.skip(1);
+
+        IdBitSet ids = reader.readBitfield(23);
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2, 4, 23}, ids.toArray()));
+        Assert.assertEquals(0, reader.remaining());
+    }
+
+    @Test
+    public void testRoundTripWithBitWriter() {
+        BitWriter writer = new BitWriter();
+        writer.writeLong(15100821554L, 36);
+        writer.writeInt(7, 12);
+        writer.writeBool(true);
+        writer.writeInt(65535, 16);
+
+        BitReader reader = new BitReader(writer.toByteArray());
+        Assert.assertEquals(15100821554L, reader.readLong(36));
+        Assert.assertEquals(7, reader.readInt(12));
+        Assert.assertTrue(reader.readBool());
+        Assert.assertEquals(65535, reader.readInt(16));
+    }
+
+    @Test
+    public void testReadingPastTheEndIsRejected() {
+        BitReader reader = new BitReader(new byte[]{(byte) 0xFF});
+        reader.skip(6);
+
+        try {
+            reader.readInt(3);
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        Assert.assertEquals(6, reader.getPosition());
+        Assert.assertEquals(3, reader.readInt(2));
+
+        try {
+            reader.readBool();
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.smartadserver.android.smartcmp.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class BitWriterTest {
+
+    private final String SAMPLE_BITS_STRING = "000001001110001001001110011011001000010010001110001001001110011011001000010010000000000000000001000000000000000100001101000000000000111000000000000000000000000000000000101000000000000000000000";
+    private final String SAMPLE_BASE64_STRING = "BOJObISOJObISAABAAENAA4AAAAAoAAA";
+
+    @Test
+    public void testWriteLong() {
+        BitWriter writer = new BitWriter();
+        writer.writeLong(1, 1);
+        writer.writeLong(2, 4);
+        writer.writeLong(42, 8);
+        writer.writeLong(0, 3);
+
+        Assert.assertEquals(16, writer.length());
+        Assert.assertTrue(Arrays.equals(new byte[]{(byte) 0x91, (byte) 0x50}, writer.toByteArray()));
+    }
+
+    @Test
+    public void testWriteBoolAndBits() {
+        BitWriter writer = new BitWriter(1);
+        writer.writeBool(true);
+        writer.writeBool(false);
+        writer.writeBits("101");
+
+        Assert.assertEquals(5, writer.length());
+        Assert.assertTrue(Arrays.equals(new byte[]{(byte) 0xA8}, writer.toByteArray()));
+    }
+
+    @Test
+    public void testWriteBitfield() {
+        BitWriter writer = new BitWriter();
+        writer.writeBool(true);
+        writer.writeBitfield(new IdBitSet(new ArrayList<>(Arrays.asList(1, 2, 4, 12))), 10);
+
+        Assert.assertEquals(11, writer.length());
+        Assert.assertTrue(Arrays.equals(new byte[]{(byte) 0xE8, (byte) 0x00}, writer.toByteArray()));
+    }
+
+    @Test
+    public void testWriteBase64URL() {
+        BitWriter writer = new BitWriter();
+        writer.writeBits(SAMPLE_BITS_STRING);
+
+        Assert.assertEquals(SAMPLE_BASE64_STRING, writer.toBase64URL());
+    }
+
+    @Test
+    public void testAppendAndReset() {
+        BitWriter other = new BitWriter();
+        other.writeBits("1011011");
+
+        BitWriter writer = new BitWriter();
+        writer.writeBits("111");
+        writer.write(other);
+
+        Assert.assertEquals(10, writer.length());
+        Assert.assertTrue(Arrays.equals(new byte[]{(byte) 0xF6, (byte) 0xC0}, writer.toByteArray()));
+
+        writer.reset();
+        writer.writeBits("01");
+        Assert.assertTrue(Arrays.equals(new byte[]{(byte) 0x40}, writer.toByteArray()));
+    }
+
+    @Test
+    public void testValuesThatDoNotFitAreRejected() {
+        BitWriter writer = new BitWriter();
+
+        try {
+            writer.writeLong(2, 1);
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        try {
+            writer.writeLong(-1, 8);
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        try {
+            writer.writeBits("01a");
+            Assert.fail("Should have raised an exception.");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.smartadserver.android.smartcmp.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class IdBitSetTest {
+
+    @Test
+    public void testSetAndGet() {
+        IdBitSet bitSet = new IdBitSet();
+        bitSet.set(1);
+        bitSet.set(64);
+        bitSet.set(65535);
+
+        Assert.assertTrue(bitSet.get(1));
+        Assert.assertTrue(bitSet.get(64));
+        Assert.assertTrue(bitSet.get(65535));
+
+        Assert.assertFalse(bitSet.get(0));
+        Assert.assertFalse(bitSet.get(-1));
+        Assert.assertFalse(bitSet.get(2));
+        Assert.assertFalse(bitSet.get(63));
+        Assert.assertFalse(bitSet.get(100000));
+
+        bitSet.clear(64);
+        Assert.assertFalse(bitSet.get(64));
+        Assert.assertEquals(2, bitSet.cardinality());
+        Assert.assertEquals(65535, bitSet.maxId());
+    }
+
+    @Test
+    public void testIdsLowerThanOneAreIgnored() {
+        IdBitSet bitSet = new IdBitSet();
+        bitSet.set(0);
+        bitSet.set(-5);
+
+        Assert.assertTrue(bitSet.isEmpty());
+        Assert.assertEquals(0, bitSet.maxId());
+    }
+
+    @Test
+    public void testRanges() {
+        IdBitSet bitSet = new IdBitSet();
+        bitSet.setRange(60, 130);
+
+        Assert.assertEquals(71, bitSet.cardinality());
+        Assert.assertFalse(bitSet.get(59));
+        Assert.assertTrue(bitSet.get(60));
+        Assert.assertTrue(bitSet.get(130));
+        Assert.assertFalse(bitSet.get(131));
+
+        bitSet.clearRange(64, 127);
+        Assert.assertEquals(7, bitSet.cardinality());
+        Assert.assertTrue(bitSet.get(63));
+        Assert.assertFalse(bitSet.get(64));
+        Assert.assertFalse(bitSet.get(127));
+        Assert.assertTrue(bitSet.get(128));
+    }
+
+    @Test
+    public void testFlipAndIntersectRanges() {
+        IdBitSet bitSet = new IdBitSet(new ArrayList<>(Arrays.asList(3, 70)));
+
+        Assert.assertTrue(bitSet.intersectsRange(1, 3));
+        Assert.assertTrue(bitSet.intersectsRange(4, 100));
+        Assert.assertFalse(bitSet.intersectsRange(4, 69));
+        Assert.assertFalse(bitSet.intersectsRange(71, 100000));
+
+        bitSet.flipRange(1, 130);
+        Assert.assertEquals(128, bitSet.cardinality());
+        Assert.assertTrue(bitSet.get(1));
+        Assert.assertFalse(bitSet.get(3));
+        Assert.assertFalse(bitSet.get(70));
+        Assert.assertTrue(bitSet.get(130));
+        Assert.assertFalse(bitSet.get(131));
+    }
+
+    @Test
+    public void testNextSetId() {
+        IdBitSet bitSet = new IdBitSet(new ArrayList<>(Arrays.asList(3, 70, 200)));
+
+        Assert.assertEquals(3, bitSet.nextSetId(0));
+        Assert.assertEquals(3, bitSet.nextSetId(3));
+        Assert.assertEquals(70, bitSet.nextSetId(4));
+        Assert.assertEquals(200, bitSet.nextSetId(71));
+        Assert.assertEquals(-1, bitSet.nextSetId(201));
+        Assert.assertEquals(-1, bitSet.nextSetId(5000));
+    }
+
+    @Test
+    public void testNextClearId() {
+        IdBitSet bitSet = new IdBitSet();
+        bitSet.setRange(1, 130);
+        bitSet.clear(64);
+
+        Assert.assertEquals(64, bitSet.nextClearId(0));
+        Assert.assertEquals(64, bitSet.nextClearId(64));
+        Assert.assertEquals(131, bitSet.nextClearId(65));
+        Assert.assertEquals(200, bitSet.nextClearId(200));
+        Assert.assertEquals(5000, bitSet.nextClearId(5000));
+
+        bitSet.setRange(131, 191);
+        Assert.assertEquals(192, bitSet.nextClearId(65));
+    }
+
+    @Test
+    public void testConversions() {
+        IdBitSet bitSet = new IdBitSet(new ArrayList<>(Arrays.asList(42, 4, 1, 4)));
+
+        Assert.assertTrue(Arrays.equals(new int[]{1, 4, 42}, bitSet.toArray()));
+        Assert.assertEquals(new ArrayList<>(Arrays.asList(1, 4, 42)), bitSet.toList());
+        Assert.assertEquals(bitSet, IdBitSet.fromWords(bitSet.toWords()));
+    }
+
+    @Test
+    public void testEqualityIgnoresCapacity() {
+        IdBitSet bitSet1 = new IdBitSet(10);
+        bitSet1.set(5);
+
+        IdBitSet bitSet2 = new IdBitSet(10000);
+        bitSet2.set(5);
+
+        IdBitSet bitSet3 = new IdBitSet(bitSet2);
+        bitSet3.set(6);
+
+        Assert.assertEquals(bitSet1, bitSet2);
+        Assert.assertEquals(bitSet1.hashCode(), bitSet2.hashCode());
+        Assert.assertFalse(bitSet1.equals(bitSet3));
+    }
+}
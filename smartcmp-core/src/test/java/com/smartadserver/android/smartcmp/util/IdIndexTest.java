@@ -0,0 +1,60 @@
+package com.smartadserver.android.smartcmp.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class IdIndexTest {
+
+    @Test
+    public void testDenseIds() {
+        IdIndex<String> index = new IdIndex<>(new int[]{3, 1, 2, 5}, Arrays.asList("three", "one", "two", "five"));
+
+        Assert.assertEquals("one", index.get(1));
+        Assert.assertEquals("two", index.get(2));
+        Assert.assertEquals("three", index.get(3));
+        Assert.assertEquals("five", index.get(5));
+        Assert.assertNull(index.get(0));
+        Assert.assertNull(index.get(4));
+        Assert.assertNull(index.get(6));
+        Assert.assertNull(index.get(-1));
+        Assert.assertTrue(index.contains(5));
+        Assert.assertFalse(index.contains(4));
+        Assert.assertEquals(5, index.maxId());
+    }
+
+    @Test
+    public void testSparseIds() {
+        IdIndex<String> index = new IdIndex<>(new int[]{60000, 10, 500, 30000}, Arrays.asList("60000", "10", "500", "30000"));
+
+        Assert.assertEquals("10", index.get(10));
+        Assert.assertEquals("500", index.get(500));
+        Assert.assertEquals("30000", index.get(30000));
+        Assert.assertEquals("60000", index.get(60000));
+        Assert.assertNull(index.get(11));
+        Assert.assertNull(index.get(60001));
+        Assert.assertEquals(60000, index.maxId());
+    }
+
+    @Test
+    public void testFirstObjectOfDuplicatedIdsIsIndexed() {
+        IdIndex<String> denseIndex = new IdIndex<>(new int[]{1, 2, 1}, Arrays.asList("first", "two", "second"));
+        IdIndex<String> sparseIndex = new IdIndex<>(new int[]{1000, 2, 1000}, Arrays.asList("first", "two", "second"));
+
+        Assert.assertEquals("first", denseIndex.get(1));
+        Assert.assertEquals("first", sparseIndex.get(1000));
+        Assert.assertEquals("two", sparseIndex.get(2));
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        IdIndex<String> index = new IdIndex<>(new int[0], Collections.<String>emptyList());
+
+        Assert.assertNull(index.get(0));
+        Assert.assertNull(index.get(1));
+        Assert.assertEquals(0, index.maxId());
+    }
+}
@@ -0,0 +1,113 @@
+package com.smartadserver.android.smartcmp.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class IdRangeSetTest {
+
+    @Test
+    public void testRangesAreSortedAndMerged() {
+        IdRangeSet rangeSet = IdRangeSet.fromRanges(new int[]{10, 1, 4, 7}, new int[]{12, 3, 5, 7}, 4);
+
+        Assert.assertEquals(3, rangeSet.rangeCount());
+        Assert.assertEquals(1, rangeSet.rangeStart(0));
+        Assert.assertEquals(5, rangeSet.rangeEnd(0));
+        Assert.assertEquals(7, rangeSet.rangeStart(1));
+        Assert.assertEquals(7, rangeSet.rangeEnd(1));
+        Assert.assertEquals(10, rangeSet.rangeStart(2));
+        Assert.assertEquals(12, rangeSet.rangeEnd(2));
+        Assert.assertEquals(9, rangeSet.cardinality());
+        Assert.assertEquals(12, rangeSet.maxId());
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2, 3, 4, 5, 7, 10, 11, 12}, rangeSet.toArray()));
+        Assert.assertEquals(new ArrayList<>(Arrays.asList(1, 2, 3, 4, 5, 7, 10, 11, 12)), rangeSet.toList());
+    }
+
+    @Test
+    public void testGet() {
+        IdRangeSet rangeSet = IdRangeSet.fromRanges(new int[]{3, 20}, new int[]{5, 60000}, 2);
+
+        Assert.assertFalse(rangeSet.get(-1));
+        Assert.assertFalse(rangeSet.get(0));
+        Assert.assertFalse(rangeSet.get(2));
+        Assert.assertTrue(rangeSet.get(3));
+        Assert.assertTrue(rangeSet.get(5));
+        Assert.assertFalse(rangeSet.get(6));
+        Assert.assertTrue(rangeSet.get(30000));
+        Assert.assertTrue(rangeSet.get(60000));
+        Assert.assertFalse(rangeSet.get(60001));
+
+        Assert.assertFalse(IdRangeSet.fromRanges(new int[0], new int[0], 0).get(1));
+    }
+
+    @Test
+    public void testNextSetAndClearId() {
+        IdRangeSet rangeSet = IdRangeSet.fromRanges(new int[]{3, 10}, new int[]{5, 10}, 2);
+
+        Assert.assertEquals(3, rangeSet.nextSetId(0));
+        Assert.assertEquals(4, rangeSet.nextSetId(4));
+        Assert.assertEquals(10, rangeSet.nextSetId(6));
+        Assert.assertEquals(-1, rangeSet.nextSetId(11));
+
+        Assert.assertEquals(1, rangeSet.nextClearId(0));
+        Assert.assertEquals(6, rangeSet.nextClearId(3));
+        Assert.assertEquals(7, rangeSet.nextClearId(7));
+        Assert.assertEquals(11, rangeSet.nextClearId(10));
+    }
+
+    @Test
+    public void testComplement() {
+        IdRangeSet rangeSet = IdRangeSet.fromRanges(new int[]{3, 7}, new int[]{5, 7}, 2);
+
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2, 6, 8, 9, 10}, rangeSet.complement(10).toArray()));
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2}, rangeSet.complement(2).toArray()));
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2, 6}, rangeSet.complement(7).toArray()));
+        Assert.assertTrue(rangeSet.complement(0).isEmpty());
+
+        IdRangeSet full = IdRangeSet.fromRanges(new int[]{1}, new int[]{10}, 1);
+        Assert.assertTrue(full.complement(10).isEmpty());
+        Assert.assertEquals(full, IdRangeSet.fromRanges(new int[0], new int[0], 0).complement(10));
+    }
+
+    @Test
+    public void testToBitSet() {
+        IdRangeSet rangeSet = IdRangeSet.fromRanges(new int[]{1, 100}, new int[]{70, 100}, 2);
+        IdBitSet bitSet = rangeSet.toBitSet();
+
+        Assert.assertEquals(71, bitSet.cardinality());
+        Assert.assertTrue(Arrays.equals(rangeSet.toArray(), bitSet.toArray()));
+    }
+
+    @Test
+    public void testEquality() {
+        IdRangeSet rangeSet1 = IdRangeSet.fromRanges(new int[]{1, 4}, new int[]{3, 6}, 2);
+        IdRangeSet rangeSet2 = IdRangeSet.fromRanges(new int[]{1}, new int[]{6}, 1);
+        IdRangeSet rangeSet3 = IdRangeSet.fromRanges(new int[]{1}, new int[]{5}, 1);
+
+        Assert.assertEquals(rangeSet1, rangeSet2);
+        Assert.assertEquals(rangeSet1.hashCode(), rangeSet2.hashCode());
+        Assert.assertFalse(rangeSet1.equals(rangeSet3));
+    }
+
+    @Test
+    public void testInvalidRangesAreRejected() {
+        int[][][] invalidRanges = {
+                {{0}, {2}},
+                {{5}, {3}},
+                {{2, 4}, {5, 6}},
+                {{6, 2}, {8, 6}},
+        };
+
+        for (int[][] ranges : invalidRanges) {
+            try {
+                IdRangeSet.fromRanges(ranges[0], ranges[1], ranges[0].length);
+                Assert.fail("Should have raised an exception for " + Arrays.deepToString(ranges));
+            } catch (IllegalArgumentException e) {
+                // ok
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.smartadserver.android.smartcmp.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+public class JSONStreamReaderTest {
+
+    @Test
+    public void testReadTokens() throws IOException {
+        JSONStreamReader reader = new JSONStreamReader(new StringReader(" { \"a\" : [1, -2.5e1, \"s\\\"\\n\\u0041\"], \"b\": {\"c\": true, \"d\": false}, \"e\": null } "));
+
+        reader.beginObject();
+        Assert.assertEquals("a", reader.nextName());
+        reader.beginArray();
+        Assert.assertEquals(JSONStreamReader.Token.NUMBER, reader.peek());
+        Assert.assertEquals(1, reader.nextInt());
+        Assert.assertEquals("-2.5e1", reader.nextString());
+        Assert.assertEquals("s\"\nA", reader.nextString());
+        Assert.assertFalse(reader.hasNext());
+        reader.endArray();
+        Assert.assertEquals("b", reader.nextName());
+        reader.beginObject();
+        Assert.assertEquals("c", reader.nextName());
+        Assert.assertTrue(reader.nextBoolean());
+        Assert.assertEquals("d", reader.nextName());
+        Assert.assertFalse(reader.nextBoolean());
+        reader.endObject();
+        Assert.assertEquals("e", reader.nextName());
+        Assert.assertEquals(JSONStreamReader.Token.NULL, reader.peek());
+        reader.nextNull();
+        Assert.assertFalse(reader.hasNext());
+        reader.endObject();
+        Assert.assertEquals(JSONStreamReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    public void testSkipValue() throws IOException {
+        JSONStreamReader reader = new JSONStreamReader(new StringReader("[{\"a\": [[], {\"b\": [1, 2]}]}, 3]"));
+
+        reader.beginArray();
+        reader.skipValue();
+        Assert.assertEquals(3, reader.nextInt());
+        reader.endArray();
+        Assert.assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void testStringsSplitAcrossReads() throws IOException {
+        StringBuilder builder = new StringBuilder("[\"");
+        for (int i = 0; i < 20000; i++) {
+            builder.append(i % 100 == 0 ? "\\t" : "x");
+        }
+        builder.append("\"]");
+
+        // A reader returning one character at a time
+        final StringReader stringReader = new StringReader(builder.toString());
+        Reader slowReader = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return stringReader.read(buffer, offset, Math.min(length, 1));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        for (Reader reader : new Reader[]{new StringReader(builder.toString()), slowReader}) {
+            JSONStreamReader jsonReader = new JSONStreamReader(reader);
+            jsonReader.beginArray();
+            String value = jsonReader.nextString();
+            Assert.assertEquals(20000, value.length());
+            Assert.assertEquals('\t', value.charAt(0));
+            Assert.assertEquals('x', value.charAt(1));
+            Assert.assertEquals('\t', value.charAt(19900));
+            jsonReader.endArray();
+        }
+    }
+
+    @Test
+    public void testIntConversion() throws IOException {
+        JSONStreamReader reader = new JSONStreamReader(new StringReader("[\"12\", 3.0, 1.5]"));
+
+        reader.beginArray();
+        Assert.assertEquals(12, reader.nextInt());
+        Assert.assertEquals(3, reader.nextInt());
+        try {
+            reader.nextInt();
+            Assert.fail("Should have raised an exception.");
+        } catch (IOException e) {
+            // ok
+        }
+        Assert.assertEquals("1.5", reader.nextString());
+    }
+
+    @Test
+    public void testMalformedJSONIsRejected() {
+        String[] malformedJSONs = {"", "{", "{\"a\" 1}", "{\"a\":1,}", "[1 2]", "[tru]", "\"abc", "[\"\\x\"]", "{} {}", "{a:1}"};
+
+        for (String json : malformedJSONs) {
+            try {
+                JSONStreamReader reader = new JSONStreamReader(new StringReader(json));
+                reader.skipValue();
+                reader.peek();
+                Assert.fail("Should have raised an exception for " + json);
+            } catch (IOException e) {
+                // ok
+            }
+        }
+    }
+}
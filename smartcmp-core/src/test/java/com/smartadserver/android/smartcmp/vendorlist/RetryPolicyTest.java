@@ -0,0 +1,48 @@
+package com.smartadserver.android.smartcmp.vendorlist;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void testIntervalGrowsUpToTheMaximum() {
+        RetryPolicy retryPolicy = new RetryPolicy(60000, 3600000, 2, 0);
+        Random random = new Random(42);
+
+        Assert.assertEquals(60000, retryPolicy.getRetryInterval(1, random));
+        Assert.assertEquals(120000, retryPolicy.getRetryInterval(2, random));
+        Assert.assertEquals(1920000, retryPolicy.getRetryInterval(6, random));
+        Assert.assertEquals(3600000, retryPolicy.getRetryInterval(7, random));
+        Assert.assertEquals(3600000, retryPolicy.getRetryInterval(Integer.MAX_VALUE, random));
+
+        // A fixed policy always retries at the same interval.
+        Assert.assertEquals(500, new RetryPolicy(500).getRetryInterval(10, random));
+    }
+
+    @Test
+    public void testJitterOnlyShortensTheInterval() {
+        RetryPolicy retryPolicy = new RetryPolicy(60000, 3600000, 2, 0.5);
+        Random random = new Random(42);
+
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int i = 0; i < 1000; i++) {
+            long interval = retryPolicy.getRetryInterval(3, random);
+            min = Math.min(min, interval);
+            max = Math.max(max, interval);
+        }
+
+        Assert.assertTrue(min >= 120000);
+        Assert.assertTrue(max <= 240000);
+        Assert.assertTrue(max - min > 100000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPolicyIsRejected() {
+        new RetryPolicy(60000, 1000, 2, 0.5);
+    }
+}
@@ -0,0 +1,113 @@
+package com.smartadserver.android.smartcmp.vendorlist;
+
+import com.smartadserver.android.smartcmp.model.Language;
+import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.model.VendorListParser;
+
+import junit.framework.Assert;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.Properties;
+
+public class VendorListCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private VendorList getVendorList(String fileName) throws Exception {
+        InputStream is = getClass().getClassLoader().getResourceAsStream(fileName);
+        try {
+            return VendorListParser.parse(is);
+        } finally {
+            is.close();
+        }
+    }
+
+    @Test
+    public void testEmptyCache() {
+        VendorListCache cache = new VendorListCache(new File(temporaryFolder.getRoot(), "missing"));
+
+        Assert.assertEquals(-1, cache.getCachedVersion(new Language("en")));
+        Assert.assertNull(cache.load(new Language("en")));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        VendorList vendorList = getVendorList("vendors.json");
+        VendorListCache cache = new VendorListCache(new File(temporaryFolder.getRoot(), "cache"));
+
+        Assert.assertTrue(cache.saveIfNewer(vendorList, new Language("en")));
+        Assert.assertEquals(6, cache.getCachedVersion(new Language("en")));
+        Assert.assertEquals(vendorList, cache.load(new Language("en")));
+
+        // A new cache on the same directory reads the persisted vendor list.
+        Assert.assertEquals(vendorList, new VendorListCache(new File(temporaryFolder.getRoot(), "cache")).load(new Language("en")));
+
+        // Vendor lists are cached per language.
+        Assert.assertNull(cache.load(new Language("fr")));
+        Assert.assertNull(cache.load(null));
+    }
+
+    @Test
+    public void testOnlyNewerVendorListsReplaceTheCachedOne() throws Exception {
+        VendorList vendorList = getVendorList("vendors.json");
+        VendorList updatedVendorList = getVendorList("vendors_updated.json");
+        File directory = temporaryFolder.getRoot();
+        VendorListCache cache = new VendorListCache(directory);
+
+        Assert.assertTrue(cache.saveIfNewer(updatedVendorList, new Language("en")));
+        Assert.assertFalse(cache.saveIfNewer(vendorList, new Language("en")));
+        Assert.assertFalse(cache.saveIfNewer(updatedVendorList, new Language("en")));
+        Assert.assertEquals(updatedVendorList, cache.load(new Language("en")));
+
+        Assert.assertTrue(cache.saveIfNewer(vendorList, new Language("fr")));
+        Assert.assertEquals(vendorList, cache.load(new Language("fr")));
+
+        // Only the most recent vendor list of each language is kept.
+        VendorList newestVendorList = new VendorList(8, updatedVendorList.getLastUpdated(), updatedVendorList.getPurposes(), updatedVendorList.getFeatures(), updatedVendorList.getVendors());
+        Assert.assertTrue(cache.saveIfNewer(newestVendorList, new Language("en")));
+        Assert.assertEquals(newestVendorList, cache.load(new Language("en")));
+        //noinspection ConstantConditions
+        Assert.assertEquals(2, directory.list().length);
+    }
+
+    @Test
+    public void testValidatorsAreStoredWithTheCachedVendorList() throws Exception {
+        VendorListCache cache = new VendorListCache(temporaryFolder.getRoot());
+        Properties validators = new Properties();
+        validators.setProperty("https://vendorlist.consensu.org/vendorlist.json.eTag", "\"v1\"");
+
+        // Validators without the vendor list they validate are not stored.
+        Assert.assertFalse(cache.saveValidators(6, new Language("en"), validators));
+
+        Assert.assertTrue(cache.saveIfNewer(getVendorList("vendors.json"), new Language("en")));
+        Assert.assertTrue(cache.saveValidators(6, new Language("en"), validators));
+        Assert.assertEquals(validators, cache.loadValidators(6, new Language("en")));
+        Assert.assertTrue(cache.loadValidators(6, new Language("fr")).isEmpty());
+
+        // Validators are removed with their vendor list.
+        Assert.assertTrue(cache.saveIfNewer(getVendorList("vendors_updated.json"), new Language("en")));
+        Assert.assertTrue(cache.loadValidators(6, new Language("en")).isEmpty());
+        Assert.assertTrue(cache.loadValidators(7, new Language("en")).isEmpty());
+    }
+
+    @Test
+    public void testCorruptedCacheIsDiscarded() throws Exception {
+        File directory = temporaryFolder.getRoot();
+        FileOutputStream outputStream = new FileOutputStream(new File(directory, "vendorlist-6-en.snapshot"));
+        outputStream.write(new byte[]{0x53, 0x43, 0x56, 0x4C, 0, 0});
+        outputStream.close();
+
+        VendorListCache cache = new VendorListCache(directory);
+        Assert.assertEquals(6, cache.getCachedVersion(new Language("en")));
+        Assert.assertNull(cache.load(new Language("en")));
+        Assert.assertEquals(-1, cache.getCachedVersion(new Language("en")));
+        Assert.assertTrue(cache.saveIfNewer(getVendorList("vendors.json"), new Language("en")));
+    }
+}
@@ -0,0 +1,238 @@
+package com.smartadserver.android.smartcmp.vendorlist;
+
+import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.model.VendorListLocalization;
+import com.smartadserver.android.smartcmp.model.VendorListParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+public class VendorListDownloaderTest {
+
+    // Local stand-in for the vendor list server, serving test resources with validators.
+    private HttpServer server;
+
+    // The number of requests & body bytes served.
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger bytesServed = new AtomicInteger();
+
+    // The ETag served with each resource, changed to simulate an update.
+    private volatile String eTag = "\"v1\"";
+
+    // Whether validators are sent with responses.
+    private volatile boolean sendValidators = true;
+
+    // The request headers of the last request.
+    private volatile String lastIfNoneMatch;
+    private volatile String lastAcceptEncoding;
+
+    static private byte[] getResource(String fileName) throws IOException {
+        InputStream is = VendorListDownloaderTest.class.getClassLoader().getResourceAsStream(fileName);
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = is.read(buffer)) > 0) {
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requestCount.incrementAndGet();
+                lastIfNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+                lastAcceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+
+                if (sendValidators) {
+                    exchange.getResponseHeaders().set("ETag", eTag);
+                    exchange.getResponseHeaders().set("Last-Modified", "Mon, 23 Apr 2018 16:03:22 GMT");
+                }
+
+                if (sendValidators && eTag.equals(lastIfNoneMatch)) {
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+
+                byte[] body = getResource(exchange.getRequestURI().getPath().substring(1));
+                if (lastAcceptEncoding != null && lastAcceptEncoding.contains("gzip")) {
+                    ByteArrayOutputStream compressedBody = new ByteArrayOutputStream();
+                    GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressedBody);
+                    gzipOutputStream.write(body);
+                    gzipOutputStream.close();
+                    body = compressedBody.toByteArray();
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                }
+
+                // Counted before the response is sent, so the client can not read the body before it is counted.
+                bytesServed.addAndGet(body.length);
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write(body);
+                outputStream.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private URL getURL(String fileName) throws IOException {
+        return new URL("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/" + fileName);
+    }
+
+    private VendorList getVendorList(String fileName) throws Exception {
+        InputStream is = getClass().getClassLoader().getResourceAsStream(fileName);
+        try {
+            return VendorListParser.parse(is);
+        } finally {
+            is.close();
+        }
+    }
+
+    @Test
+    public void testVendorListIsDownloadedCompressed() throws Exception {
+        VendorList vendorList = new VendorListDownloader().downloadVendorList(getURL("vendors.json"));
+
+        Assert.assertEquals(getVendorList("vendors.json"), vendorList);
+        Assert.assertEquals("gzip", lastAcceptEncoding);
+        Assert.assertTrue(bytesServed.get() < getResource("vendors.json").length / 2);
+    }
+
+    @Test
+    public void testUnchangedVendorListIsNotDownloadedAgain() throws Exception {
+        VendorListDownloader downloader = new VendorListDownloader();
+
+        VendorList vendorList = downloader.downloadVendorList(getURL("vendors.json"));
+        int bytesServedByFirstDownload = bytesServed.get();
+        Assert.assertNull(lastIfNoneMatch);
+
+        // The server answers 304: the same vendor list is returned without any body being downloaded.
+        Assert.assertSame(vendorList, downloader.downloadVendorList(getURL("vendors.json")));
+        Assert.assertEquals("\"v1\"", lastIfNoneMatch);
+        Assert.assertEquals(bytesServedByFirstDownload, bytesServed.get());
+        Assert.assertEquals(2, requestCount.get());
+
+        // Once the vendor list has changed on the server, it is downloaded again.
+        eTag = "\"v2\"";
+        VendorList updatedVendorList = downloader.downloadVendorList(getURL("vendors.json"));
+        Assert.assertNotSame(vendorList, updatedVendorList);
+        Assert.assertEquals(vendorList, updatedVendorList);
+        Assert.assertEquals(2 * bytesServedByFirstDownload, bytesServed.get());
+    }
+
+    @Test
+    public void testUnchangedLocalizationIsNotDownloadedAgain() throws Exception {
+        VendorListDownloader downloader = new VendorListDownloader();
+        VendorList vendorList = getVendorList("vendors.json");
+
+        VendorListLocalization localization = downloader.downloadLocalization(getURL("vendors_localized.json"));
+        Assert.assertNotNull(localization);
+        Assert.assertSame(localization, downloader.downloadLocalization(getURL("vendors_localized.json")));
+        Assert.assertEquals("\"v1\"", lastIfNoneMatch);
+
+        // The localization does not depend on the vendor list it is applied on.
+        InputStream is = getClass().getClassLoader().getResourceAsStream("vendors_localized.json");
+        try {
+            Assert.assertEquals(VendorListParser.localize(vendorList, is), localization.localize(vendorList));
+        } finally {
+            is.close();
+        }
+    }
+
+    @Test
+    public void testResponsesWithoutValidatorsAreAlwaysDownloaded() throws Exception {
+        sendValidators = false;
+        VendorListDownloader downloader = new VendorListDownloader();
+
+        downloader.downloadVendorList(getURL("vendors.json"));
+        downloader.downloadVendorList(getURL("vendors.json"));
+
+        Assert.assertNull(lastIfNoneMatch);
+        Assert.assertEquals(2, requestCount.get());
+        Assert.assertTrue(downloader.exportValidators(getURL("vendors.json").toString()).isEmpty());
+    }
+
+    @Test
+    public void testVendorListsDownloadedWithoutRevalidationAreNotKept() throws Exception {
+        VendorListDownloader downloader = new VendorListDownloader();
+
+        downloader.downloadVendorList(getURL("vendors.json"), false);
+        downloader.downloadVendorList(getURL("vendors.json"), false);
+
+        Assert.assertNull(lastIfNoneMatch);
+        Assert.assertEquals(2, requestCount.get());
+        Assert.assertTrue(downloader.exportValidators(getURL("vendors.json").toString()).isEmpty());
+    }
+
+    @Test
+    public void testOnlyTheLastResponsesAreKept() throws Exception {
+        VendorListDownloader downloader = new VendorListDownloader();
+
+        for (int i = 0; i < 5; i++) {
+            downloader.downloadVendorList(new URL(getURL("vendors.json") + "?v=" + i));
+        }
+
+        // The least recently used response has been dropped.
+        Assert.assertTrue(downloader.exportValidators(getURL("vendors.json") + "?v=0").isEmpty());
+        Assert.assertEquals(2, downloader.exportValidators(getURL("vendors.json") + "?v=4").size());
+    }
+
+    @Test
+    public void testValidatorsCanBeRestored() throws Exception {
+        VendorListDownloader downloader = new VendorListDownloader();
+        VendorList vendorList = downloader.downloadVendorList(getURL("vendors.json"));
+        int bytesServedByFirstDownload = bytesServed.get();
+
+        Properties validators = downloader.exportValidators(getURL("vendors.json").toString());
+        Assert.assertEquals(2, validators.size());
+
+        // A new downloader restored with the validators revalidates the persisted vendor list.
+        VendorListDownloader restoredDownloader = new VendorListDownloader();
+        restoredDownloader.restoreValidators(validators, getURL("vendors.json").toString(), vendorList);
+        Assert.assertSame(vendorList, restoredDownloader.downloadVendorList(getURL("vendors.json")));
+        Assert.assertEquals(bytesServedByFirstDownload, bytesServed.get());
+    }
+
+    @Test
+    public void testUnexpectedStatusReturnsNull() throws Exception {
+        server.removeContext("/");
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+            }
+        });
+
+        Assert.assertNull(new VendorListDownloader().downloadVendorList(getURL("vendors.json")));
+    }
+}
@@ -0,0 +1,83 @@
+package com.smartadserver.android.smartcmp.parcel;
+
+import android.os.Parcel;
+
+import com.smartadserver.android.smartcmp.consentstring.ConsentString;
+import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberException;
+import com.smartadserver.android.smartcmp.model.Language;
+import com.smartadserver.android.smartcmp.model.VersionConfig;
+import com.smartadserver.android.smartcmp.util.IdBitSet;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+public class ParcelableConsentStringTest {
+
+    private ConsentString parcelAndUnparcel(ConsentString consentString) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            new ParcelableConsentString(consentString).writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            return ParcelableConsentString.CREATOR.createFromParcel(parcel).getConsentString();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    @Test
+    public void testConsentStringCanBeParceled() throws UnknownVersionNumberException {
+        ConsentString consentString = ConsentString.fromBase64String("BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA");
+        ConsentString unparceled = parcelAndUnparcel(consentString);
+
+        Assert.assertEquals(consentString, unparceled);
+        Assert.assertEquals(consentString.getConsentString(), unparceled.getConsentString());
+        Assert.assertEquals(consentString.getVendorListEncoding(), unparceled.getVendorListEncoding());
+        Assert.assertEquals(consentString.parsedVendorConsents(), unparceled.parsedVendorConsents());
+    }
+
+    @Test
+    public void testEditedConsentStringCanBeParceled() throws UnknownVersionNumberException {
+        ConsentString consentString = ConsentString.fromBase64String("BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA")
+                .edit()
+                .revokePurposes(2)
+                .revokeVendors(8, 9, 10)
+                .commit();
+        ConsentString unparceled = parcelAndUnparcel(consentString);
+
+        Assert.assertEquals(consentString, unparceled);
+        Assert.assertEquals(consentString.getConsentString(), unparceled.getConsentString());
+        Assert.assertFalse(unparceled.isPurposeAllowed(2));
+        Assert.assertFalse(unparceled.isVendorAllowed(9));
+    }
+
+    @Test
+    public void testRangeEncodedConsentStringKeepsItsOriginalString() throws UnknownVersionNumberException {
+        // A range encoded string giving consent to 65,000 vendors by default, except to the vendor 2.
+        IdBitSet allowedVendors = new IdBitSet(65000);
+        allowedVendors.setRange(1, 65000);
+        allowedVendors.clear(2);
+        String base64String = new ConsentString(VersionConfig.getLatest(),
+                new Date(1000),
+                new Date(1000),
+                1,
+                1,
+                0,
+                new Language("en"),
+                1,
+                65000,
+                0,
+                allowedVendors,
+                ConsentString.ConsentEncoding.RANGE).getConsentString();
+
+        ConsentString consentString = ConsentString.fromBase64String(base64String);
+        ConsentString unparceled = parcelAndUnparcel(consentString);
+
+        Assert.assertEquals(consentString, unparceled);
+        Assert.assertEquals(base64String, unparceled.getConsentString());
+        Assert.assertTrue(unparceled.isVendorAllowed(65000));
+        Assert.assertFalse(unparceled.isVendorAllowed(2));
+    }
+}
@@ -0,0 +1,59 @@
+package com.smartadserver.android.smartcmp.parcel;
+
+import android.os.Parcel;
+import android.support.test.InstrumentationRegistry;
+
+import com.smartadserver.android.smartcmp.model.Purpose;
+import com.smartadserver.android.smartcmp.model.Vendor;
+import com.smartadserver.android.smartcmp.model.VendorList;
+
+import junit.framework.Assert;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.InputStream;
+
+public class ParcelableVendorListTest {
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private JSONObject getJSON(String fileName) throws Exception {
+        InputStream is = InstrumentationRegistry.getContext().getAssets().open(fileName);
+        byte[] buffer = new byte[is.available()];
+        is.read(buffer);
+        is.close();
+
+        return new JSONObject(new String(buffer, "UTF-8"));
+    }
+
+    @Test
+    public void testVendorListCanBeParceled() throws Exception {
+        VendorList vendorList = new VendorList(getJSON("vendors.json"));
+
+        Parcel parcel = Parcel.obtain();
+        new ParcelableVendorList(vendorList).writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        VendorList unparceled = ParcelableVendorList.CREATOR.createFromParcel(parcel).getVendorList();
+        parcel.recycle();
+
+        Assert.assertEquals(vendorList, unparceled);
+        Assert.assertEquals(vendorList.getMaxVendorId(), unparceled.getMaxVendorId());
+        Assert.assertEquals(vendorList.getActivatedVendor().size(), unparceled.getActivatedVendor().size());
+    }
+
+    @Test
+    public void testVendorAndPurposeCanBeParceled() throws Exception {
+        VendorList vendorList = new VendorList(getJSON("vendors.json"));
+        Vendor vendor = vendorList.getVendors().get(0);
+        Purpose purpose = vendorList.getPurposes().get(0);
+
+        Parcel parcel = Parcel.obtain();
+        new ParcelableVendor(vendor).writeToParcel(parcel, 0);
+        new ParcelablePurpose(purpose).writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+
+        Assert.assertEquals(vendor, ParcelableVendor.CREATOR.createFromParcel(parcel).getVendor());
+        Assert.assertEquals(purpose, ParcelablePurpose.CREATOR.createFromParcel(parcel).getPurpose());
+        parcel.recycle();
+    }
+}
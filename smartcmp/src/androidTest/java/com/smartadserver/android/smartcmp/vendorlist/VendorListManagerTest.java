@@ -2,80 +2,196 @@ package com.smartadserver.android.smartcmp.vendorlist;
 
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.test.InstrumentationRegistry;
 
 import com.smartadserver.android.smartcmp.Expectation;
 import com.smartadserver.android.smartcmp.model.Language;
 import com.smartadserver.android.smartcmp.model.VendorList;
-import com.smartadserver.android.smartcmp.util.JSONAsyncTask;
-import com.smartadserver.android.smartcmp.util.JSONAsyncTaskListener;
+import com.smartadserver.android.smartcmp.model.VendorListLocalization;
+import com.smartadserver.android.smartcmp.model.VendorListParser;
 
 import junit.framework.Assert;
 
 import org.json.JSONException;
-import org.json.JSONObject;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class VendorListManagerTest {
 
-    private JSONObject vendorsJSON;
-    private JSONObject localizedVendorsJSON;
+    /**
+     * Executor running tasks on the calling thread, at the time of a virtual clock advanced by the test.
+     */
+    static private class VirtualClockExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+
+        private class VirtualTask implements ScheduledFuture<Object> {
+            private final Runnable runnable;
+            private final long time;
+            private final long sequence;
+            private boolean cancelled = false;
+            private boolean done = false;
+
+            VirtualTask(Runnable runnable, long time) {
+                this.runnable = runnable;
+                this.time = time;
+                this.sequence = taskCount++;
+            }
+
+            @Override
+            public long getDelay(@NonNull TimeUnit unit) {
+                return unit.convert(time - now, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public int compareTo(@NonNull Delayed other) {
+                VirtualTask task = (VirtualTask) other;
+                return time != task.time ? (time < task.time ? -1 : 1) : (sequence < task.sequence ? -1 : 1);
+            }
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                cancelled = !done;
+                return cancelled;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelled;
+            }
+
+            @Override
+            public boolean isDone() {
+                return done || cancelled;
+            }
+
+            @Override
+            public Object get() {
+                return null;
+            }
 
-    private JSONObject getVendorsJSON() {
-        if (vendorsJSON == null) {
-            vendorsJSON = getJSON("vendors.json");
+            @Override
+            public Object get(long timeout, @NonNull TimeUnit unit) {
+                return null;
+            }
         }
 
-        return vendorsJSON;
-    }
+        private final PriorityQueue<VirtualTask> tasks = new PriorityQueue<>();
+        private long taskCount = 0;
+        private long now = 0;
 
-    private JSONObject getLocalizedVendorsJSON() {
-        if (localizedVendorsJSON == null) {
-            localizedVendorsJSON = getJSON("vendors_localized.json");
+        long now() {
+            return now;
         }
 
-        return localizedVendorsJSON;
-    }
+        // Run every task due before the given time, in order, then move the clock to that time.
+        void advanceBy(long delay) {
+            long end = now + delay;
+            while (!tasks.isEmpty() && tasks.peek().time <= end) {
+                VirtualTask task = tasks.poll();
+                if (!task.cancelled) {
+                    now = task.time;
+                    task.done = true;
+                    task.runnable.run();
+                }
+            }
+            now = end;
+        }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
-    private JSONObject getJSON(String fileName) {
-        try {
-            InputStream is = InstrumentationRegistry.getContext().getAssets().open(fileName);
-            byte[] buffer = new byte[is.available()];
-            is.read(buffer);
-            is.close();
+        @NonNull
+        @Override
+        public ScheduledFuture<?> schedule(@NonNull Runnable command, long delay, @NonNull TimeUnit unit) {
+            VirtualTask task = new VirtualTask(command, now + unit.toMillis(delay));
+            tasks.add(task);
+            return task;
+        }
+
+        @NonNull
+        @Override
+        public <V> ScheduledFuture<V> schedule(@NonNull Callable<V> callable, long delay, @NonNull TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
 
-            return new JSONObject(new String(buffer, "UTF-8"));
+        @NonNull
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(@NonNull Runnable command, long initialDelay, long period, @NonNull TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
 
-        } catch (IOException e) {
-            e.printStackTrace();
-        } catch (JSONException e) {
-            e.printStackTrace();
+        @NonNull
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(@NonNull Runnable command, long initialDelay, long delay, @NonNull TimeUnit unit) {
+            throw new UnsupportedOperationException();
         }
 
-        return null;
-    }
+        @Override
+        public void execute(@NonNull Runnable command) {
+            schedule(command, 0, TimeUnit.MILLISECONDS);
+        }
 
-    private class MockJSONAsyncTask extends JSONAsyncTask {
+        @Override
+        public void shutdown() {
+        }
 
-        MockJSONAsyncTask(@NonNull JSONAsyncTaskListener listener) {
-            super(listener);
+        @NonNull
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
         }
 
         @Override
-        protected void onPostExecute(Object o) {
+        public boolean isShutdown() {
+            return false;
+        }
 
+        @Override
+        public boolean isTerminated() {
+            return false;
         }
 
         @Override
-        protected Object doInBackground(Object[] objects) {
-            getVendorsJSON();
-            return null;
+        public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) {
+            return false;
+        }
+    }
+
+    private InputStream getAssetInputStream(String fileName) throws IOException {
+        return InstrumentationRegistry.getContext().getAssets().open(fileName);
+    }
+
+    // Parse an asset instead of the downloaded vendor list, an empty JSON object if the file name is null.
+    private VendorList parseAsset(@Nullable String fileName) throws IOException, JSONException {
+        InputStream inputStream = fileName != null ? getAssetInputStream(fileName) : new ByteArrayInputStream("{}".getBytes("UTF-8"));
+        try {
+            return VendorListParser.parse(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    // Parse an asset instead of the downloaded localized vendor list, an empty JSON object if the file name is null.
+    private VendorListLocalization parseLocalizationAsset(@Nullable String fileName) throws IOException {
+        InputStream inputStream = fileName != null ? getAssetInputStream(fileName) : new ByteArrayInputStream("{}".getBytes("UTF-8"));
+        try {
+            return VendorListParser.parseLocalization(inputStream);
+        } finally {
+            inputStream.close();
         }
     }
 
@@ -102,17 +218,8 @@ public class VendorListManagerTest {
 
         VendorListManager vlManager = new VendorListManager(mockListener, 100, 10, new Language("en")) {
             @Override
-            protected JSONAsyncTask getNewJSONAsyncTaskForVendorList(@NonNull JSONAsyncTaskListener listener) {
-                return new MockJSONAsyncTask(listener) {
-                    @Override
-                    protected void onPostExecute(Object o) {
-                        if (getVendorsJSON() == null) {
-                            listener.JSONAsyncTaskDidFailDownloadingJSONObject();
-                        } else {
-                            listener.JSONAsyncTaskDidSucceedDownloadingJSONObject(getVendorsJSON());
-                        }
-                    }
-                };
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+                return parseAsset("vendors.json");
             }
         };
 
@@ -136,26 +243,10 @@ public class VendorListManagerTest {
 
         VendorListManager vlManager = new VendorListManager(mockListener, 1000, 500, null) {
             @Override
-            protected JSONAsyncTask getNewJSONAsyncTaskForVendorList(@NonNull JSONAsyncTaskListener listener) {
-                return new MockJSONAsyncTask(listener) {
-                    @Override
-                    protected void onPostExecute(Object o) {
-                        listener.JSONAsyncTaskDidSucceedDownloadingJSONObject(getVendorsJSON());
-                    }
-
-                    @Override
-                    protected Object doInBackground(Object[] objects) {
-                        if (objects.length > 0) {
-                            // Retrieve the URL given in parameters and check its the right value
-                            String rawJSONURL = (String) objects[0];
-                            Assert.assertEquals("https://vendorlist.consensu.org/v-42/vendorlist.json", rawJSONURL);
-                        } else {
-                            Assert.fail("There is no URL given to the JSONAsyncTask");
-                        }
-
-                        return super.doInBackground(objects);
-                    }
-                };
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+                // Check the URL of the requested version is downloaded
+                Assert.assertEquals("https://vendorlist.consensu.org/v-42/vendorlist.json", url);
+                return parseAsset("vendors.json");
             }
         };
 
@@ -199,13 +290,8 @@ public class VendorListManagerTest {
 
         VendorListManager vlManager = new VendorListManager(mockListener, 1000, 200, new Language("en")) {
             @Override
-            protected JSONAsyncTask getNewJSONAsyncTaskForVendorList(@NonNull JSONAsyncTaskListener listener) {
-                return new MockJSONAsyncTask(listener) {
-                    @Override
-                    protected void onPostExecute(Object o) {
-                        listener.JSONAsyncTaskDidSucceedDownloadingJSONObject(new JSONObject());
-                    }
-                };
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+                return parseAsset(null);
             }
         };
 
@@ -240,13 +326,8 @@ public class VendorListManagerTest {
 
         VendorListManager vlManager = new VendorListManager(mockListener, 1000, 500, null) {
             @Override
-            protected JSONAsyncTask getNewJSONAsyncTaskForVendorList(@NonNull JSONAsyncTaskListener listener) {
-                return new MockJSONAsyncTask(listener) {
-                    @Override
-                    protected void onPostExecute(Object o) {
-                        listener.JSONAsyncTaskDidSucceedDownloadingJSONObject(getVendorsJSON());
-                    }
-                };
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+                return parseAsset("vendors.json");
             }
         };
 
@@ -282,31 +363,15 @@ public class VendorListManagerTest {
 
         VendorListManager vlManager = new VendorListManager(mockListener, 1000, 500, new Language("fr")) {
             @Override
-            protected JSONAsyncTask getNewJSONAsyncTaskForVendorList(@NonNull JSONAsyncTaskListener listener) {
-                return new MockJSONAsyncTask(listener) {
-                    @Override
-                    protected void onPostExecute(Object o) {
-                        listener.JSONAsyncTaskDidSucceedDownloadingJSONObject(getVendorsJSON());
-                        vendorListURLCalledExpectation.fulfill();
-                    }
-                };
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+                vendorListURLCalledExpectation.fulfill();
+                return parseAsset("vendors.json");
             }
 
             @Override
-            protected JSONAsyncTask getNewJSONAsyncTaskForLocalizedVendorList(@NonNull JSONAsyncTaskListener listener) {
-                return new MockJSONAsyncTask(listener) {
-                    @Override
-                    protected void onPostExecute(Object o) {
-                        listener.JSONAsyncTaskDidSucceedDownloadingJSONObject(getLocalizedVendorsJSON());
-                        vendorListFRURLCalledExpectation.fulfill();
-                    }
-
-                    @Override
-                    protected Object doInBackground(Object[] objects) {
-                        getLocalizedVendorsJSON();
-                        return null;
-                    }
-                };
+            protected VendorListLocalization downloadLocalization(@Nullable String url) throws IOException {
+                vendorListFRURLCalledExpectation.fulfill();
+                return parseLocalizationAsset("vendors_localized.json");
             }
         };
 
@@ -342,26 +407,16 @@ public class VendorListManagerTest {
 
         VendorListManager vlManager = new VendorListManager(mockListener, 1000, 500, new Language("fr")) {
             @Override
-            protected JSONAsyncTask getNewJSONAsyncTaskForVendorList(@NonNull JSONAsyncTaskListener listener) {
-                return new MockJSONAsyncTask(listener) {
-                    @Override
-                    protected void onPostExecute(Object o) {
-                        listener.JSONAsyncTaskDidSucceedDownloadingJSONObject(getVendorsJSON());
-                        vendorListURLCalledExpectation.fulfill();
-                    }
-                };
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+                vendorListURLCalledExpectation.fulfill();
+                return parseAsset("vendors.json");
             }
 
             @Override
-            protected JSONAsyncTask getNewJSONAsyncTaskForLocalizedVendorList(@NonNull JSONAsyncTaskListener listener) {
-                return new MockJSONAsyncTask(listener) {
-                    @Override
-                    protected void onPostExecute(Object o) {
-                        // return a invalid JSONObject
-                        listener.JSONAsyncTaskDidSucceedDownloadingJSONObject(new JSONObject());
-                        vendorListFRURLCalledExpectation.fulfill();
-                    }
-                };
+            protected VendorListLocalization downloadLocalization(@Nullable String url) throws IOException {
+                // return an empty localized vendor list
+                vendorListFRURLCalledExpectation.fulfill();
+                return parseLocalizationAsset(null);
             }
         };
 
@@ -370,4 +425,375 @@ public class VendorListManagerTest {
         vendorListURLCalledExpectation.assertFulfilled(2000);
         vendorListFRURLCalledExpectation.assertFulfilled(2500);
     }
+
+    @Test
+    public void testBackgroundForegroundCyclesDoNotLeakThreads() throws Exception {
+        final VendorList vendorList = parseAsset("vendors.json");
+        final AtomicInteger createdThreadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2, new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                createdThreadCount.incrementAndGet();
+                return new Thread(runnable);
+            }
+        });
+
+        VendorListManagerListener mockListener = new VendorListManagerListener() {
+            @Override
+            public void onVendorListUpdateSuccess(@NonNull VendorList vendorList) {
+            }
+
+            @Override
+            public void onVendorListUpdateFail(@NonNull Exception e) {
+            }
+        };
+
+        VendorListManager vlManager = new VendorListManager(mockListener, 60000, new RetryPolicy(30000), null, executor) {
+            @Override
+            protected VendorList downloadVendorList(@NonNull String url) {
+                return vendorList;
+            }
+        };
+
+        // Each cycle starts a refresh & schedules the next one, then cancels both.
+        for (int i = 0; i < 1000; i++) {
+            vlManager.startAutomaticRefresh(true);
+            vlManager.stopAutomaticRefresh();
+        }
+
+        Assert.assertTrue(createdThreadCount.get() <= 2);
+        Assert.assertTrue(executor.getQueue().size() <= 1);
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(2000, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testFailedRefreshesAreRetriedWithBackoff() throws Exception {
+        final long day = 86400000;
+        final VendorList vendorList = parseAsset("vendors.json");
+        final VirtualClockExecutor executor = new VirtualClockExecutor();
+        final List<Long> attemptTimes = new ArrayList<>();
+        final boolean[] online = {false};
+
+        VendorListManagerListener mockListener = new VendorListManagerListener() {
+            @Override
+            public void onVendorListUpdateSuccess(@NonNull VendorList vendorList) {
+            }
+
+            @Override
+            public void onVendorListUpdateFail(@NonNull Exception e) {
+            }
+        };
+
+        VendorListManager vlManager = new VendorListManager(mockListener, day, new RetryPolicy(60000, 3600000, 2, 0.5), null, executor) {
+            @Override
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException {
+                attemptTimes.add(executor.now());
+                if (!online[0]) {
+                    throw new IOException("The device is offline.");
+                }
+                // Only one download succeeds.
+                online[0] = false;
+                return vendorList;
+            }
+
+            @Override
+            protected long currentTimeMillis() {
+                return executor.now();
+            }
+        };
+
+        // A day of failures: the retry interval grows up to one hour instead of retrying every minute.
+        vlManager.startAutomaticRefresh(true);
+        executor.advanceBy(day);
+
+        Assert.assertTrue(attemptTimes.size() >= 24);
+        Assert.assertTrue(attemptTimes.size() <= 60);
+        for (int i = 1; i < attemptTimes.size(); i++) {
+            long interval = attemptTimes.get(i) - attemptTimes.get(i - 1);
+            Assert.assertTrue(interval >= 30000);
+            Assert.assertTrue(interval <= 3600000);
+        }
+        long lastInterval = attemptTimes.get(attemptTimes.size() - 1) - attemptTimes.get(attemptTimes.size() - 2);
+        Assert.assertTrue(lastInterval >= 1800000);
+
+        // The next attempt succeeds, and the next refresh is a day later.
+        online[0] = true;
+        executor.advanceBy(3600000);
+        Assert.assertFalse(online[0]);
+        int successIndex = attemptTimes.size() - 1;
+        executor.advanceBy(attemptTimes.get(successIndex) + day - executor.now());
+        Assert.assertEquals(successIndex + 2, attemptTimes.size());
+        Assert.assertEquals(day, attemptTimes.get(successIndex + 1) - attemptTimes.get(successIndex));
+
+        // The success has reset the retry interval.
+        executor.advanceBy(60000);
+        Assert.assertEquals(successIndex + 3, attemptTimes.size());
+        Assert.assertTrue(attemptTimes.get(successIndex + 2) - attemptTimes.get(successIndex + 1) <= 60000);
+
+        vlManager.stopAutomaticRefresh();
+    }
+
+    @Test
+    public void testConcurrentRequestsForTheSameVersionShareOneDownload() throws Exception {
+        final VirtualClockExecutor executor = new VirtualClockExecutor();
+        final AtomicInteger downloadCount = new AtomicInteger();
+        final CountDownLatch successLatch = new CountDownLatch(5);
+
+        VendorListManagerListener mockListener = new VendorListManagerListener() {
+            @Override
+            public void onVendorListUpdateSuccess(@NonNull VendorList vendorList) {
+                Assert.assertEquals(6, vendorList.getVersion());
+                successLatch.countDown();
+            }
+
+            @Override
+            public void onVendorListUpdateFail(@NonNull Exception e) {
+                Assert.fail("Should not fail");
+            }
+        };
+
+        VendorListManager vlManager = new VendorListManager(mockListener, 1000, new RetryPolicy(500), null, executor) {
+            @Override
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+                downloadCount.incrementAndGet();
+                return parseAsset("vendors.json");
+            }
+        };
+
+        // A burst of migrations requesting the same version, plus another version.
+        for (int i = 0; i < 4; i++) {
+            vlManager.getVendorList(42, mockListener);
+        }
+        vlManager.getVendorList(41, mockListener);
+        executor.advanceBy(0);
+
+        Assert.assertTrue(successLatch.await(2000, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(2, downloadCount.get());
+
+        // Once the download is over, a new request downloads the vendor list again.
+        vlManager.getVendorList(42, mockListener);
+        executor.advanceBy(0);
+        Assert.assertEquals(3, downloadCount.get());
+    }
+
+    @Test
+    public void testUnexpectedDownloadErrorIsReportedAndClearsTheSharedDownload() throws Exception {
+        final VirtualClockExecutor executor = new VirtualClockExecutor();
+        final AtomicInteger downloadCount = new AtomicInteger();
+        final AtomicInteger successCount = new AtomicInteger();
+        final AtomicInteger failureCount = new AtomicInteger();
+
+        VendorListManagerListener mockListener = new VendorListManagerListener() {
+            @Override
+            public void onVendorListUpdateSuccess(@NonNull VendorList vendorList) {
+                successCount.incrementAndGet();
+            }
+
+            @Override
+            public void onVendorListUpdateFail(@NonNull Exception e) {
+                Assert.assertTrue(e instanceof IllegalStateException);
+                failureCount.incrementAndGet();
+            }
+        };
+
+        VendorListManager vlManager = new VendorListManager(mockListener, 1000, new RetryPolicy(500), null, executor) {
+            @Override
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+                if (downloadCount.incrementAndGet() == 1) {
+                    throw new IllegalStateException();
+                }
+                return parseAsset("vendors.json");
+            }
+        };
+
+        vlManager.getVendorList(42, mockListener);
+        vlManager.getVendorList(42, mockListener);
+        executor.advanceBy(0);
+        Assert.assertEquals(2, failureCount.get());
+
+        // The failed download does not stay pending: a new request downloads the vendor list again.
+        vlManager.getVendorList(42, mockListener);
+        executor.advanceBy(0);
+        Assert.assertEquals(2, downloadCount.get());
+        Assert.assertEquals(1, successCount.get());
+    }
+
+    @Test
+    public void testUnexpectedRefreshErrorIsReportedAndCancelsTheLocalization() throws Exception {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2);
+        final CountDownLatch localizationStartedLatch = new CountDownLatch(1);
+        final CountDownLatch localizationCancelledLatch = new CountDownLatch(1);
+        final CountDownLatch failureLatch = new CountDownLatch(1);
+
+        VendorListManagerListener mockListener = new VendorListManagerListener() {
+            @Override
+            public void onVendorListUpdateSuccess(@NonNull VendorList vendorList) {
+                Assert.fail("Should not succeed");
+            }
+
+            @Override
+            public void onVendorListUpdateFail(@NonNull Exception e) {
+                Assert.assertTrue(e instanceof IllegalStateException);
+                failureLatch.countDown();
+            }
+        };
+
+        VendorListManager vlManager = new VendorListManager(mockListener, 60000, new RetryPolicy(30000), new Language("fr"), executor) {
+            @Override
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException {
+                try {
+                    localizationStartedLatch.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e.getMessage());
+                }
+                throw new IllegalStateException();
+            }
+
+            @Override
+            protected VendorListLocalization downloadLocalization(@Nullable String url) throws IOException {
+                localizationStartedLatch.countDown();
+                try {
+                    // Never completes unless the download is cancelled.
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    localizationCancelledLatch.countDown();
+                }
+                return null;
+            }
+        };
+
+        vlManager.refreshVendorList();
+
+        Assert.assertTrue(failureLatch.await(2000, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(localizationCancelledLatch.await(2000, TimeUnit.MILLISECONDS));
+
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSlowLocalizationIsAbandonedAtItsDeadline() throws Exception {
+        // Scheduled delays are divided by 100, so the localization deadline is reached after 100ms.
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2) {
+            @NonNull
+            @Override
+            public ScheduledFuture<?> schedule(@NonNull Runnable command, long delay, @NonNull TimeUnit unit) {
+                return super.schedule(command, unit.toMillis(delay) / 100, TimeUnit.MILLISECONDS);
+            }
+        };
+        final CountDownLatch localizationCancelledLatch = new CountDownLatch(1);
+        final CountDownLatch successLatch = new CountDownLatch(1);
+
+        VendorListManagerListener mockListener = new VendorListManagerListener() {
+            @Override
+            public void onVendorListUpdateSuccess(@NonNull VendorList vendorList) {
+                // The vendor list is delivered as is.
+                Assert.assertEquals("Storage and access of information", vendorList.getPurposes().get(0).getName());
+                successLatch.countDown();
+            }
+
+            @Override
+            public void onVendorListUpdateFail(@NonNull Exception e) {
+                Assert.fail("Should not fail");
+            }
+        };
+
+        VendorListManager vlManager = new VendorListManager(mockListener, 60000, new RetryPolicy(30000), new Language("fr"), executor) {
+            @Override
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+                return parseAsset("vendors.json");
+            }
+
+            @Override
+            protected VendorListLocalization downloadLocalization(@Nullable String url) throws IOException {
+                try {
+                    // Never completes unless the download is cancelled.
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    localizationCancelledLatch.countDown();
+                }
+                return parseLocalizationAsset("vendors_localized.json");
+            }
+        };
+
+        vlManager.refreshVendorList();
+
+        Assert.assertTrue(successLatch.await(2000, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(localizationCancelledLatch.await(2000, TimeUnit.MILLISECONDS));
+
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLocalizationDeadlineStartsWithTheDownload() throws Exception {
+        // Scheduled delays are divided by 100, so the localization deadline is reached 100ms after the download starts.
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2) {
+            @NonNull
+            @Override
+            public ScheduledFuture<?> schedule(@NonNull Runnable command, long delay, @NonNull TimeUnit unit) {
+                return super.schedule(command, unit.toMillis(delay) / 100, TimeUnit.MILLISECONDS);
+            }
+        };
+        final CountDownLatch successLatch = new CountDownLatch(2);
+        final String[] refreshedPurposeName = new String[1];
+
+        final VendorListManagerListener refreshListener = new VendorListManagerListener() {
+            @Override
+            public void onVendorListUpdateSuccess(@NonNull VendorList vendorList) {
+                refreshedPurposeName[0] = vendorList.getPurposes().get(0).getName();
+                successLatch.countDown();
+            }
+
+            @Override
+            public void onVendorListUpdateFail(@NonNull Exception e) {
+                Assert.fail("Should not fail");
+            }
+        };
+
+        VendorListManagerListener versionListener = new VendorListManagerListener() {
+            @Override
+            public void onVendorListUpdateSuccess(@NonNull VendorList vendorList) {
+                successLatch.countDown();
+            }
+
+            @Override
+            public void onVendorListUpdateFail(@NonNull Exception e) {
+                Assert.fail("Should not fail");
+            }
+        };
+
+        VendorListManager vlManager = new VendorListManager(refreshListener, 60000, new RetryPolicy(30000), new Language("fr"), executor) {
+            @Override
+            protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+                // Both threads are busy for 300ms, longer than the localization deadline.
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    throw new IOException(e.getMessage());
+                }
+                return parseAsset("vendors.json");
+            }
+
+            @Override
+            protected VendorListLocalization downloadLocalization(@Nullable String url) throws IOException {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    throw new IOException(e.getMessage());
+                }
+                return parseLocalizationAsset("vendors_localized.json");
+            }
+        };
+
+        // The localization download is queued behind a version download & the vendor list download.
+        vlManager.getVendorList(42, versionListener);
+        vlManager.refreshVendorList();
+
+        Assert.assertTrue(successLatch.await(2000, TimeUnit.MILLISECONDS));
+        Assert.assertNotNull(refreshedPurposeName[0]);
+        Assert.assertFalse("Storage and access of information".equals(refreshedPurposeName[0]));
+
+        executor.shutdownNow();
+    }
 }
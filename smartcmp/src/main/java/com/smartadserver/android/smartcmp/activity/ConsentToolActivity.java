@@ -16,6 +16,7 @@ import com.smartadserver.android.smartcmp.R;
 import com.smartadserver.android.smartcmp.consentstring.ConsentString;
 import com.smartadserver.android.smartcmp.manager.ConsentManager;
 import com.smartadserver.android.smartcmp.model.ConsentToolConfiguration;
+import com.smartadserver.android.smartcmp.parcel.ParcelableConsentString;
 
 /**
  * Consent tool activity.
@@ -49,7 +50,7 @@ public class ConsentToolActivity extends AppCompatActivity {
             public void onClick(View view) {
                 // Close UI.
                 // Accept all new vendors or purposes.
-                ConsentString consentString = getIntent().getParcelableExtra("consent_string");
+                ConsentString consentString = ((ParcelableConsentString) getIntent().getParcelableExtra("consent_string")).getConsentString();
                 ConsentManager.getSharedInstance().consentToolClosedWithConsentString(consentString.getConsentString());
                 finish();
             }
@@ -77,7 +78,7 @@ public class ConsentToolActivity extends AppCompatActivity {
         }
 
         // Return the new consent string.
-        ConsentString consentString = data.getParcelableExtra("consent_string");
+        ConsentString consentString = ((ParcelableConsentString) data.getParcelableExtra("consent_string")).getConsentString();
 
         ConsentManager.getSharedInstance().consentToolClosedWithConsentString(consentString.getConsentString());
 
@@ -96,7 +97,7 @@ public class ConsentToolActivity extends AppCompatActivity {
                     @Override
                     public void onClick(DialogInterface dialogInterface, int i) {
                         // Return the initial consent string.
-                        ConsentString consentString = getIntent().getParcelableExtra("consent_string");
+                        ConsentString consentString = ((ParcelableConsentString) getIntent().getParcelableExtra("consent_string")).getConsentString();
                         ConsentManager.getSharedInstance().consentToolClosedWithConsentString(consentString.getConsentString());
 
                         ConsentToolActivity.super.onBackPressed();
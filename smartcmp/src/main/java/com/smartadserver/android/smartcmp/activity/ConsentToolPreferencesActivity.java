@@ -22,6 +22,9 @@ import com.smartadserver.android.smartcmp.manager.ConsentManager;
 import com.smartadserver.android.smartcmp.model.ConsentToolConfiguration;
 import com.smartadserver.android.smartcmp.model.Purpose;
 import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.parcel.ParcelableConsentString;
+import com.smartadserver.android.smartcmp.parcel.ParcelablePurpose;
+import com.smartadserver.android.smartcmp.parcel.ParcelableVendorList;
 
 /**
  * Consent tool preferences activity.
@@ -53,8 +56,8 @@ public class ConsentToolPreferencesActivity extends AppCompatActivity {
             actionBar.setDisplayShowHomeEnabled(true);
         }
 
-        consentString = getIntent().getParcelableExtra("consent_string");
-        vendorList = getIntent().getParcelableExtra("vendor_list");
+        consentString = ((ParcelableConsentString) getIntent().getParcelableExtra("consent_string")).getConsentString();
+        vendorList = ((ParcelableVendorList) getIntent().getParcelableExtra("vendor_list")).getVendorList();
 
         bindViews();
     }
@@ -74,7 +77,7 @@ public class ConsentToolPreferencesActivity extends AppCompatActivity {
             @Override
             public void onClick(View view) {
                 Intent result = new Intent();
-                result.putExtra("consent_string", consentString);
+                result.putExtra("consent_string", new ParcelableConsentString(consentString));
                 setResult(RESULT_OK, result);
                 finish();
             }
@@ -107,7 +110,7 @@ public class ConsentToolPreferencesActivity extends AppCompatActivity {
 
         switch (requestCode) {
             case PURPOSE_ACTIVITY_REQUEST_CODE:
-                Purpose purpose = data.getParcelableExtra("purpose");
+                Purpose purpose = ((ParcelablePurpose) data.getParcelableExtra("purpose")).getPurpose();
                 boolean purposeStatus = data.getBooleanExtra("purpose_status", false);
 
                 // Update the ConsentString with the new purpose status.
@@ -116,7 +119,7 @@ public class ConsentToolPreferencesActivity extends AppCompatActivity {
 
             case VENDORS_LIST_ACTIVITY_REQUEST_CODE:
                 // Retrieve the new consentString.
-                ConsentString consentString = data.getParcelableExtra("consent_string");
+                ConsentString consentString = ((ParcelableConsentString) data.getParcelableExtra("consent_string")).getConsentString();
                 if (consentString != null) {
                     this.consentString = consentString;
                 }
@@ -225,7 +228,7 @@ public class ConsentToolPreferencesActivity extends AppCompatActivity {
                         @Override
                         public void onClick(View view) {
                             Intent intent = new Intent(getApplicationContext(), PurposeActivity.class);
-                            intent.putExtra("purpose", purpose);
+                            intent.putExtra("purpose", new ParcelablePurpose(purpose));
                             intent.putExtra("purpose_status", isPurposeEnable);
                             startActivityForResult(intent, PURPOSE_ACTIVITY_REQUEST_CODE);
                         }
@@ -246,8 +249,8 @@ public class ConsentToolPreferencesActivity extends AppCompatActivity {
                         public void onClick(View view) {
                             // Start the VendorListActivity
                             Intent intent = new Intent(getApplicationContext(), VendorListActivity.class);
-                            intent.putExtra("vendor_list", vendorList);
-                            intent.putExtra("consent_string", consentString);
+                            intent.putExtra("vendor_list", new ParcelableVendorList(vendorList));
+                            intent.putExtra("consent_string", new ParcelableConsentString(consentString));
                             startActivityForResult(intent, VENDORS_LIST_ACTIVITY_REQUEST_CODE);
                         }
                     });
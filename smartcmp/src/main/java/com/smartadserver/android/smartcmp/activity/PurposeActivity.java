@@ -12,6 +12,7 @@ import android.widget.TextView;
 import com.smartadserver.android.smartcmp.R;
 import com.smartadserver.android.smartcmp.manager.ConsentManager;
 import com.smartadserver.android.smartcmp.model.Purpose;
+import com.smartadserver.android.smartcmp.parcel.ParcelablePurpose;
 
 /**
  * Purpose activity.
@@ -36,7 +37,7 @@ public class PurposeActivity extends AppCompatActivity {
             actionBar.setDisplayShowHomeEnabled(true);
         }
 
-        purpose = getIntent().getParcelableExtra("purpose");
+        purpose = ((ParcelablePurpose) getIntent().getParcelableExtra("purpose")).getPurpose();
 
         bindViews();
     }
@@ -72,7 +73,7 @@ public class PurposeActivity extends AppCompatActivity {
     public void onBackPressed() {
         Intent result = new Intent();
         result.putExtra("purpose_status", purposeSwitch.isChecked());
-        result.putExtra("purpose", purpose);
+        result.putExtra("purpose", new ParcelablePurpose(purpose));
         setResult(RESULT_OK, result);
         finish();
     }
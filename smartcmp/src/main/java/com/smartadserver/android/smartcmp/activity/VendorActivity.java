@@ -18,6 +18,8 @@ import com.smartadserver.android.smartcmp.model.Feature;
 import com.smartadserver.android.smartcmp.model.Purpose;
 import com.smartadserver.android.smartcmp.model.Vendor;
 import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.parcel.ParcelableVendor;
+import com.smartadserver.android.smartcmp.parcel.ParcelableVendorList;
 
 /**
  * Vendor activity.
@@ -42,8 +44,8 @@ public class VendorActivity extends AppCompatActivity {
             actionBar.setDisplayShowHomeEnabled(true);
         }
 
-        vendorList = getIntent().getParcelableExtra("vendor_list");
-        vendor = getIntent().getParcelableExtra("vendor");
+        vendorList = ((ParcelableVendorList) getIntent().getParcelableExtra("vendor_list")).getVendorList();
+        vendor = ((ParcelableVendor) getIntent().getParcelableExtra("vendor")).getVendor();
 
         bindViews();
     }
@@ -22,6 +22,9 @@ import com.smartadserver.android.smartcmp.consentstring.ConsentString;
 import com.smartadserver.android.smartcmp.manager.ConsentManager;
 import com.smartadserver.android.smartcmp.model.Vendor;
 import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.parcel.ParcelableConsentString;
+import com.smartadserver.android.smartcmp.parcel.ParcelableVendor;
+import com.smartadserver.android.smartcmp.parcel.ParcelableVendorList;
 
 /**
  * Vendor list activity.
@@ -46,8 +49,8 @@ public class VendorListActivity extends AppCompatActivity {
             actionBar.setDisplayShowHomeEnabled(true);
         }
 
-        consentString = getIntent().getParcelableExtra("consent_string");
-        vendorList = getIntent().getParcelableExtra("vendor_list");
+        consentString = ((ParcelableConsentString) getIntent().getParcelableExtra("consent_string")).getConsentString();
+        vendorList = ((ParcelableVendorList) getIntent().getParcelableExtra("vendor_list")).getVendorList();
 
         // Setup the recycler view
         RecyclerView recyclerView = findViewById(R.id.vendor_recycler_view);
@@ -68,7 +71,7 @@ public class VendorListActivity extends AppCompatActivity {
     @Override
     public void onBackPressed() {
         Intent result = new Intent();
-        result.putExtra("consent_string", consentString);
+        result.putExtra("consent_string", new ParcelableConsentString(consentString));
         setResult(RESULT_OK, result);
         finish();
     }
@@ -108,8 +111,8 @@ public class VendorListActivity extends AppCompatActivity {
                 public void onClick(View view) {
                     // Start the VendorActivity
                     Intent intent = new Intent(getApplicationContext(), VendorActivity.class);
-                    intent.putExtra("vendor", vendor);
-                    intent.putExtra("vendor_list", vendorList);
+                    intent.putExtra("vendor", new ParcelableVendor(vendor));
+                    intent.putExtra("vendor_list", new ParcelableVendorList(vendorList));
                     startActivity(intent);
                 }
             });
@@ -8,6 +8,7 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
 import android.preference.PreferenceManager;
 import android.support.annotation.NonNull;
 import android.util.Log;
@@ -22,10 +23,17 @@ import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberExceptio
 import com.smartadserver.android.smartcmp.model.ConsentToolConfiguration;
 import com.smartadserver.android.smartcmp.model.Language;
 import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.parcel.ParcelableConsentString;
+import com.smartadserver.android.smartcmp.parcel.ParcelableVendorList;
+import com.smartadserver.android.smartcmp.vendorlist.RetryPolicy;
+import com.smartadserver.android.smartcmp.vendorlist.VendorListCache;
 import com.smartadserver.android.smartcmp.vendorlist.VendorListManager;
 import com.smartadserver.android.smartcmp.vendorlist.VendorListManagerListener;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Singleton class that manages the GDPR user consent for the current device
@@ -40,6 +48,18 @@ public class ConsentManager implements VendorListManagerListener {
     // Default retry interval (needed after an unsuccessful refresh) in milliseconds (1 minute).
     static private final long DEFAULT_RETRY_INTERVAL = 60000;
 
+    // Default maximum retry interval (reached after consecutive unsuccessful refreshes) in milliseconds (1 hour).
+    static private final long DEFAULT_MAX_RETRY_INTERVAL = 3600000;
+
+    // Default factor applied to the retry interval after each consecutive unsuccessful refresh.
+    static private final double DEFAULT_RETRY_MULTIPLIER = 2;
+
+    // Default maximum fraction of the retry interval removed at random.
+    static private final double DEFAULT_RETRY_JITTER = 0.5;
+
+    // The name of the app-private directory where the last vendor list is persisted.
+    static private final String VENDOR_LIST_CACHE_DIRECTORY = "SmartCMP";
+
     // The default behavior if LAT (Limited Ad Tracking) is enabled.
     static private final boolean DEFAULT_LAT_VALUE = true;
 
@@ -71,9 +91,19 @@ public class ConsentManager implements VendorListManagerListener {
     // The vendor list manager.
     private VendorListManager vendorListManager;
 
+    // The executor shared with the VendorListManager, used for the network & disk background work.
+    private ScheduledExecutorService executor;
+
+    // The executor used to fetch the 'Limited Ad Tracking' status, which can block on Google Play Services, so it
+    // never delays a vendor list refresh.
+    private ScheduledExecutorService limitedAdTrackingExecutor;
+
     // The last parsed vendor list.
     private VendorList lastVendorList;
 
+    // The persistent cache of the last vendor list, used until the vendor list is refreshed from the network.
+    private VendorListCache vendorListCache;
+
     // The Language representation of the current device's language.
     private Language language;
 
@@ -233,6 +263,25 @@ public class ConsentManager implements VendorListManagerListener {
      * @param refreshingInterval                   The interval in milliseconds te refresh the vendor list.
      */
     public void configure(@NonNull Application application, @NonNull Language language, @NonNull ConsentToolConfiguration consentToolConfiguration, boolean showConsentToolWhenLimitedAdTracking, long refreshingInterval) {
+        RetryPolicy retryPolicy = new RetryPolicy(DEFAULT_RETRY_INTERVAL, DEFAULT_MAX_RETRY_INTERVAL, DEFAULT_RETRY_MULTIPLIER, DEFAULT_RETRY_JITTER);
+        configure(application, language, consentToolConfiguration, showConsentToolWhenLimitedAdTracking, refreshingInterval, retryPolicy);
+    }
+
+    /**
+     * Configure the ConsentManager. This method should be called only once per session.
+     * <p>
+     * Note: if you set 'showConsentToolWhenLimitedAdTracking' to true, you will be able to ask for user consent even if
+     * 'Limited Ad Tracking' has been enabled on the device. In this case, remember that you still have to comply to Google's Play store
+     * Terms and Conditions regarding 'Limited Ad Tracking'.
+     *
+     * @param application                          The instance of the application.
+     * @param language                             An instance of Language reflecting the device's current language.
+     * @param consentToolConfiguration             An instance of ConsentToolConfiguration containing all the strings needed by the UI.
+     * @param showConsentToolWhenLimitedAdTracking Whether or not the consent tool UI should be shown if the user has checked Limit Ad Tracking in his device's preferences. If false, the UI will never be shown if user checked LAT and consent string will be formatted has "user does not give consent".
+     * @param refreshingInterval                   The interval in milliseconds te refresh the vendor list.
+     * @param retryPolicy                          The policy giving the interval before retrying an unsuccessful vendor list refresh. By default, the interval starts at 1 minute and doubles after each consecutive failure, up to 1 hour.
+     */
+    public void configure(@NonNull Application application, @NonNull Language language, @NonNull ConsentToolConfiguration consentToolConfiguration, boolean showConsentToolWhenLimitedAdTracking, long refreshingInterval, @NonNull RetryPolicy retryPolicy) {
         if (isConfigured) {
             logErrorMessage("ConsentManager is already configured for this session. You cannot reconfigure.");
             return;
@@ -259,9 +308,35 @@ public class ConsentManager implements VendorListManagerListener {
             }
         }
 
-        // Instantiate the VendorListManager and immediately trigger the automatic refresh.
-        vendorListManager = new VendorListManager(this, refreshingInterval, DEFAULT_RETRY_INTERVAL, language);
-        vendorListManager.startAutomaticRefresh(true);
+        // Instantiate the VendorListManager.
+        executor = VendorListManager.newDefaultExecutor();
+        limitedAdTrackingExecutor = VendorListManager.newDefaultExecutor(1);
+        vendorListManager = new VendorListManager(this, refreshingInterval, retryPolicy, language, executor);
+
+        // Load the persisted vendor list in the background, so the consent tool can be used before the network
+        // refresh ends (or when the device is offline), then trigger the automatic refresh.
+        vendorListCache = new VendorListCache(new File(context.getFilesDir(), VENDOR_LIST_CACHE_DIRECTORY));
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final VendorList cachedVendorList = vendorListCache.load(ConsentManager.this.language);
+                final Properties validators = cachedVendorList != null ? vendorListCache.loadValidators(cachedVendorList.getVersion(), ConsentManager.this.language) : null;
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        // The cached vendor list is only used if no vendor list has been retrieved in the meantime.
+                        if (cachedVendorList != null && lastVendorList == null) {
+                            lastVendorList = cachedVendorList;
+
+                            // The refresh will only download the vendor list again if it has changed.
+                            vendorListManager.restoreVendorList(cachedVendorList, validators);
+                        }
+                        vendorListManager.startAutomaticRefresh(true);
+                    }
+                });
+            }
+        });
     }
 
     /**
@@ -462,8 +537,8 @@ public class ConsentManager implements VendorListManagerListener {
 
         ConsentString consentString = this.consentString == null ? ConsentString.consentStringWithFullConsent(0, language, lastVendorList) : this.consentString;
 
-        intent.putExtra("consent_string", consentString);
-        intent.putExtra("vendor_list", lastVendorList);
+        intent.putExtra("consent_string", new ParcelableConsentString(consentString));
+        intent.putExtra("vendor_list", new ParcelableVendorList(lastVendorList));
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
         context.startActivity(intent);
 
@@ -490,7 +565,7 @@ public class ConsentManager implements VendorListManagerListener {
 
         // Fetching the 'Limited Ad Tracking' status must be done in a background thread. Making it in the main
         // thread will lead to an IllegalStateException.
-        new Thread(new Runnable() {
+        limitedAdTrackingExecutor.execute(new Runnable() {
             @Override
             public void run() {
 
@@ -532,7 +607,7 @@ public class ConsentManager implements VendorListManagerListener {
                     setConsentString(ConsentString.consentStringWithNoConsent(0, language, lastVendorList));
                 }
             }
-        }).start();
+        });
     }
 
     /**
@@ -578,6 +653,17 @@ public class ConsentManager implements VendorListManagerListener {
     public void onVendorListUpdateSuccess(@NonNull final VendorList vendorList) {
         lastVendorList = vendorList;
 
+        // Persist the vendor list and its HTTP validators for the next sessions, in a background thread. The persisted
+        // vendor list is only replaced if this one is more recent.
+        final Properties validators = vendorListManager.exportValidators();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                vendorListCache.saveIfNewer(vendorList, language);
+                vendorListCache.saveValidators(vendorList.getVersion(), language, validators);
+            }
+        });
+
         // If consent string exist
         if (consentString != null) {
 
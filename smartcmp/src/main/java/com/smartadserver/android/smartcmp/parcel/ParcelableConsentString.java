@@ -0,0 +1,120 @@
+package com.smartadserver.android.smartcmp.parcel;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import com.smartadserver.android.smartcmp.consentstring.ConsentString;
+import com.smartadserver.android.smartcmp.exception.UnknownVersionNumberException;
+import com.smartadserver.android.smartcmp.model.Language;
+import com.smartadserver.android.smartcmp.model.VersionConfig;
+import com.smartadserver.android.smartcmp.util.IdBitSet;
+
+import java.util.Date;
+
+/**
+ * Parcelable wrapper of a ConsentString, used to pass the consent string between activities.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class ParcelableConsentString implements Parcelable {
+
+    // The wrapped consent string.
+    @NonNull
+    private final ConsentString consentString;
+
+    /**
+     * Initialize a new instance of ParcelableConsentString.
+     *
+     * @param consentString The consent string that needs to be parceled.
+     */
+    public ParcelableConsentString(@NonNull ConsentString consentString) {
+        this.consentString = consentString;
+    }
+
+    /**
+     * @return The wrapped consent string.
+     */
+    @NonNull
+    public ConsentString getConsentString() {
+        return consentString;
+    }
+
+    ////////////////////////////
+    //// Parcelable section ////
+    ////////////////////////////
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeInt(consentString.getVersion());
+        dest.writeLong(consentString.getCreated().getTime());
+        dest.writeLong(consentString.getLastUpdated().getTime());
+        dest.writeInt(consentString.getCmpId());
+        dest.writeInt(consentString.getCmpVersion());
+        dest.writeInt(consentString.getConsentScreen());
+        dest.writeString(consentString.getConsentLanguage().toString());
+        dest.writeInt(consentString.getVendorListVersion());
+        dest.writeInt(consentString.getMaxVendorId());
+        dest.writeInt(consentString.getAllowedPurposesMask());
+        dest.writeLongArray(consentString.allowedVendorsBitSet().toWords());
+        dest.writeInt(consentString.getVendorListEncoding().ordinal());
+        dest.writeString(consentString.getConsentString());
+    }
+
+    protected ParcelableConsentString(Parcel in) {
+        VersionConfig versionConfig;
+        try {
+            versionConfig = new VersionConfig(in.readInt());
+        } catch (UnknownVersionNumberException e) {
+            // should never happen, the version comes from a valid consent string.
+            throw new IllegalStateException(e);
+        }
+
+        Date created = new Date(in.readLong());
+        Date lastUpdated = new Date(in.readLong());
+        int cmpId = in.readInt();
+        int cmpVersion = in.readInt();
+        int consentScreen = in.readInt();
+        Language consentLanguage = new Language(in.readString());
+        int vendorListVersion = in.readInt();
+        int maxVendorId = in.readInt();
+        int allowedPurposes = in.readInt();
+
+        IdBitSet allowedVendors = IdBitSet.fromWords(in.createLongArray());
+        ConsentString.ConsentEncoding vendorListEncoding = ConsentString.ConsentEncoding.values()[in.readInt()];
+
+        // The base64 string is kept as is, so it is neither encoded again nor changed by an automatic encoding.
+        String base64String = in.readString();
+
+        this.consentString = new ConsentString(versionConfig,
+                created,
+                lastUpdated,
+                cmpId,
+                cmpVersion,
+                consentScreen,
+                consentLanguage,
+                vendorListVersion,
+                maxVendorId,
+                allowedPurposes,
+                allowedVendors,
+                vendorListEncoding,
+                base64String);
+    }
+
+    public static final Creator<ParcelableConsentString> CREATOR = new Creator<ParcelableConsentString>() {
+        @Override
+        public ParcelableConsentString createFromParcel(Parcel source) {
+            return new ParcelableConsentString(source);
+        }
+
+        @Override
+        public ParcelableConsentString[] newArray(int size) {
+            return new ParcelableConsentString[size];
+        }
+    };
+}
@@ -0,0 +1,89 @@
+package com.smartadserver.android.smartcmp.parcel;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import com.smartadserver.android.smartcmp.model.Purpose;
+
+/**
+ * Parcelable wrapper of a Purpose, used to pass purposes between activities.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class ParcelablePurpose implements Parcelable {
+
+    // The wrapped purpose.
+    @NonNull
+    private final Purpose purpose;
+
+    /**
+     * Initialize a new instance of ParcelablePurpose.
+     *
+     * @param purpose The purpose that needs to be parceled.
+     */
+    public ParcelablePurpose(@NonNull Purpose purpose) {
+        this.purpose = purpose;
+    }
+
+    /**
+     * @return The wrapped purpose.
+     */
+    @NonNull
+    public Purpose getPurpose() {
+        return purpose;
+    }
+
+    /**
+     * Write a purpose into a parcel.
+     *
+     * @param dest    The parcel in which the purpose should be written.
+     * @param purpose The purpose to write.
+     */
+    static void writePurpose(@NonNull Parcel dest, @NonNull Purpose purpose) {
+        dest.writeInt(purpose.getId());
+        dest.writeString(purpose.getName());
+        dest.writeString(purpose.getDescription());
+    }
+
+    /**
+     * Read a purpose written by writePurpose.
+     *
+     * @param in The parcel from which the purpose should be read.
+     * @return The purpose read from the parcel.
+     */
+    @NonNull
+    static Purpose readPurpose(@NonNull Parcel in) {
+        return new Purpose(in.readInt(), in.readString(), in.readString());
+    }
+
+    ////////////////////////////
+    //// Parcelable section ////
+    ////////////////////////////
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        writePurpose(dest, purpose);
+    }
+
+    protected ParcelablePurpose(Parcel in) {
+        this.purpose = readPurpose(in);
+    }
+
+    public static final Creator<ParcelablePurpose> CREATOR = new Creator<ParcelablePurpose>() {
+        @Override
+        public ParcelablePurpose createFromParcel(Parcel source) {
+            return new ParcelablePurpose(source);
+        }
+
+        @Override
+        public ParcelablePurpose[] newArray(int size) {
+            return new ParcelablePurpose[size];
+        }
+    };
+}
@@ -0,0 +1,109 @@
+package com.smartadserver.android.smartcmp.parcel;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import com.smartadserver.android.smartcmp.model.Vendor;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Date;
+
+/**
+ * Parcelable wrapper of a Vendor, used to pass vendors between activities.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class ParcelableVendor implements Parcelable {
+
+    // The wrapped vendor.
+    @NonNull
+    private final Vendor vendor;
+
+    /**
+     * Initialize a new instance of ParcelableVendor.
+     *
+     * @param vendor The vendor that needs to be parceled.
+     */
+    public ParcelableVendor(@NonNull Vendor vendor) {
+        this.vendor = vendor;
+    }
+
+    /**
+     * @return The wrapped vendor.
+     */
+    @NonNull
+    public Vendor getVendor() {
+        return vendor;
+    }
+
+    /**
+     * Write a vendor into a parcel.
+     *
+     * @param dest   The parcel in which the vendor should be written.
+     * @param vendor The vendor to write.
+     */
+    static void writeVendor(@NonNull Parcel dest, @NonNull Vendor vendor) {
+        dest.writeInt(vendor.getId());
+        dest.writeString(vendor.getName());
+        dest.writeList(vendor.getPurposes());
+        dest.writeList(vendor.getLegitimatePurposes());
+        dest.writeList(vendor.getFeatures());
+        dest.writeSerializable(vendor.getPolicyURL());
+        dest.writeLong(vendor.getDeletedDate() != null ? vendor.getDeletedDate().getTime() : -1);
+    }
+
+    /**
+     * Read a vendor written by writeVendor.
+     *
+     * @param in The parcel from which the vendor should be read.
+     * @return The vendor read from the parcel.
+     */
+    @NonNull
+    static Vendor readVendor(@NonNull Parcel in) {
+        int id = in.readInt();
+        String name = in.readString();
+        ArrayList<Integer> purposes = new ArrayList<>();
+        in.readList(purposes, Integer.class.getClassLoader());
+        ArrayList<Integer> legitimatePurposes = new ArrayList<>();
+        in.readList(legitimatePurposes, Integer.class.getClassLoader());
+        ArrayList<Integer> features = new ArrayList<>();
+        in.readList(features, Integer.class.getClassLoader());
+        URL policyURL = (URL) in.readSerializable();
+        long tmpDeletedDate = in.readLong();
+        Date deletedDate = tmpDeletedDate == -1 ? null : new Date(tmpDeletedDate);
+
+        return new Vendor(id, name, purposes, legitimatePurposes, features, policyURL, deletedDate);
+    }
+
+    ////////////////////////////
+    //// Parcelable section ////
+    ////////////////////////////
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        writeVendor(dest, vendor);
+    }
+
+    protected ParcelableVendor(Parcel in) {
+        this.vendor = readVendor(in);
+    }
+
+    public static final Creator<ParcelableVendor> CREATOR = new Creator<ParcelableVendor>() {
+        @Override
+        public ParcelableVendor createFromParcel(Parcel source) {
+            return new ParcelableVendor(source);
+        }
+
+        @Override
+        public ParcelableVendor[] newArray(int size) {
+            return new ParcelableVendor[size];
+        }
+    };
+}
@@ -0,0 +1,111 @@
+package com.smartadserver.android.smartcmp.parcel;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import com.smartadserver.android.smartcmp.model.Feature;
+import com.smartadserver.android.smartcmp.model.Purpose;
+import com.smartadserver.android.smartcmp.model.Vendor;
+import com.smartadserver.android.smartcmp.model.VendorList;
+
+import java.util.ArrayList;
+import java.util.Date;
+
+/**
+ * Parcelable wrapper of a VendorList, used to pass the vendor list between activities.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public class ParcelableVendorList implements Parcelable {
+
+    // The wrapped vendor list.
+    @NonNull
+    private final VendorList vendorList;
+
+    /**
+     * Initialize a new instance of ParcelableVendorList.
+     *
+     * @param vendorList The vendor list that needs to be parceled.
+     */
+    public ParcelableVendorList(@NonNull VendorList vendorList) {
+        this.vendorList = vendorList;
+    }
+
+    /**
+     * @return The wrapped vendor list.
+     */
+    @NonNull
+    public VendorList getVendorList() {
+        return vendorList;
+    }
+
+    ////////////////////////////
+    //// Parcelable section ////
+    ////////////////////////////
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeInt(vendorList.getVersion());
+        dest.writeLong(vendorList.getLastUpdated().getTime());
+
+        dest.writeInt(vendorList.getPurposes().size());
+        for (Purpose purpose : vendorList.getPurposes()) {
+            ParcelablePurpose.writePurpose(dest, purpose);
+        }
+
+        dest.writeInt(vendorList.getFeatures().size());
+        for (Feature feature : vendorList.getFeatures()) {
+            dest.writeInt(feature.getId());
+            dest.writeString(feature.getName());
+            dest.writeString(feature.getDescription());
+        }
+
+        dest.writeInt(vendorList.getVendors().size());
+        for (Vendor vendor : vendorList.getVendors()) {
+            ParcelableVendor.writeVendor(dest, vendor);
+        }
+    }
+
+    protected ParcelableVendorList(Parcel in) {
+        int version = in.readInt();
+        Date lastUpdated = new Date(in.readLong());
+
+        int purposeCount = in.readInt();
+        ArrayList<Purpose> purposes = new ArrayList<>(purposeCount);
+        for (int i = 0; i < purposeCount; i++) {
+            purposes.add(ParcelablePurpose.readPurpose(in));
+        }
+
+        int featureCount = in.readInt();
+        ArrayList<Feature> features = new ArrayList<>(featureCount);
+        for (int i = 0; i < featureCount; i++) {
+            features.add(new Feature(in.readInt(), in.readString(), in.readString()));
+        }
+
+        int vendorCount = in.readInt();
+        ArrayList<Vendor> vendors = new ArrayList<>(vendorCount);
+        for (int i = 0; i < vendorCount; i++) {
+            vendors.add(ParcelableVendor.readVendor(in));
+        }
+
+        this.vendorList = new VendorList(version, lastUpdated, purposes, features, vendors);
+    }
+
+    public static final Creator<ParcelableVendorList> CREATOR = new Creator<ParcelableVendorList>() {
+        @Override
+        public ParcelableVendorList createFromParcel(Parcel source) {
+            return new ParcelableVendorList(source);
+        }
+
+        @Override
+        public ParcelableVendorList[] newArray(int size) {
+            return new ParcelableVendorList[size];
+        }
+    };
+}
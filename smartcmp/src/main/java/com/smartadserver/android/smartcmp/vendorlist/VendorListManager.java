@@ -1,29 +1,64 @@
 package com.smartadserver.android.smartcmp.vendorlist;
 
 import android.accounts.NetworkErrorException;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 
 import com.smartadserver.android.smartcmp.model.Language;
 import com.smartadserver.android.smartcmp.model.VendorList;
+import com.smartadserver.android.smartcmp.model.VendorListLocalization;
 import com.smartadserver.android.smartcmp.model.VendorListURL;
-import com.smartadserver.android.smartcmp.util.JSONAsyncTask;
-import com.smartadserver.android.smartcmp.util.JSONAsyncTaskListener;
 
-import org.json.JSONObject;
+import org.json.JSONException;
 
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Retrieves and parses a vendor list from internet.
+ * <p>
+ * Refreshes are scheduled and downloads are performed on a single ScheduledExecutorService, either given at
+ * initialization or owned by the manager (in which case it is released by shutdown()). Listeners are always called
+ * on the main thread.
  */
 
 @SuppressWarnings("WeakerAccess")
 public class VendorListManager {
 
+    // The connect & read timeout of the localized vendor list download (in millisecond).
+    // It is shorter than the vendor list one since the vendor list can be used without its localization.
+    static private final int LOCALIZATION_TIMEOUT = 10000;
+
+    // The maximum duration of the localized vendor list download, from the time it starts (in millisecond). The timeout
+    // above only bounds each network operation, not the whole download.
+    static private final long LOCALIZATION_DEADLINE = LOCALIZATION_TIMEOUT;
+
+    // The number of threads of the default executor, so the vendor list & its localization are downloaded at the same time.
+    static private final int DEFAULT_THREAD_COUNT = 2;
+
+    // The time after which an idle thread of the default executor is stopped (in millisecond).
+    static private final long DEFAULT_THREAD_KEEP_ALIVE = 10000;
+
+    // The name prefix of the threads of the default executor.
+    static private final String DEFAULT_THREAD_NAME_PREFIX = "SmartCMP-";
+
     // The main vendor list manager listener.
     @NonNull
     private VendorListManagerListener listener;
@@ -31,21 +66,211 @@ public class VendorListManager {
     // The interval between each refresh (in millisecond).
     private long refreshInterval;
 
-    // the time interval to observe before retrying to download the vendor list after a failure at previous attempt
-    private long retryInterval;
+    // The policy giving the time interval to observe before retrying to download the vendor list after a failure.
+    @NonNull
+    private final RetryPolicy retryPolicy;
+
+    // The number of consecutive failed refreshes, reset by a successful one.
+    private int failureCount = 0;
+
+    // The random generator used for the retry interval jitter.
+    @NonNull
+    private final Random random = new Random();
 
     // Representation of the vendor list URL.
     @NonNull
     VendorListURL vendorListURL;
 
-    // The timer used to schedule the automatic refresh.
-    private Timer timer;
+    // The executor used to schedule the automatic refresh & to download vendor lists.
+    @NonNull
+    private final ScheduledExecutorService executor;
+
+    // Whether the executor has been created by this manager, and must be shut down with it.
+    private final boolean ownsExecutor;
+
+    // The handler used to call listeners on the main thread.
+    @NonNull
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Whether the automatic refresh is enabled.
+    private boolean automaticRefresh = false;
+
+    // The next scheduled refresh, null if there is none.
+    @Nullable
+    private ScheduledFuture<?> scheduledRefresh;
+
+    // The refresh in progress, null if there is none.
+    @Nullable
+    private RefreshJoin currentRefresh;
+
+    // The listeners waiting for each vendor list download started by getVendorList, by URL.
+    @NonNull
+    private final HashMap<String, ArrayList<VendorListManagerListener>> pendingDownloads = new HashMap<>();
 
     // The Date of the last vendor list refresh.
     private Date lastRefreshDate;
 
-    // flag to mark that a download attempt of the vendors list is currently in progress
-    private boolean downloadingVendorsList = false;
+    // The downloader shared by refreshes, so an unchanged vendor list is revalidated instead of downloaded again.
+    @NonNull
+    private final VendorListDownloader downloader = new VendorListDownloader();
+
+    // The downloader used for the localized vendor list, with its own timeout.
+    @NonNull
+    private final VendorListDownloader localizationDownloader = new VendorListDownloader(LOCALIZATION_TIMEOUT);
+
+    /**
+     * Joins the results of the vendor list & localized vendor list downloads of a refresh.
+     * <p>
+     * Both downloads run at the same time. The vendor list is delivered once both are done, localized if the
+     * localized vendor list could be retrieved before its deadline. Results of a cancelled refresh are ignored.
+     */
+    private class RefreshJoin {
+        // The vendor list download of this refresh, cancelled with it.
+        @Nullable
+        private Future<?> vendorListDownload;
+
+        // The localized vendor list download of this refresh, cancelled with it or if the vendor list download fails.
+        @Nullable
+        private Future<?> localizationDownload;
+
+        // The task giving up on the localized vendor list once its deadline is reached.
+        @Nullable
+        private Future<?> localizationDeadline;
+
+        // The downloaded vendor list, null until it is downloaded.
+        @Nullable
+        private VendorList vendorList;
+
+        // The downloaded localization, null until it is downloaded or if it failed.
+        @Nullable
+        private VendorListLocalization localization;
+
+        // Whether the localized vendor list download is done (successfully or not).
+        private boolean localizationDone = false;
+
+        // Whether the refresh is over, because it failed or has been cancelled.
+        private boolean over = false;
+
+        void onVendorList(@NonNull VendorList vendorList) {
+            synchronized (VendorListManager.this) {
+                this.vendorList = vendorList;
+                deliverIfDone();
+            }
+        }
+
+        void onVendorListFailure(@NonNull final Exception e) {
+            synchronized (VendorListManager.this) {
+                if (over) {
+                    return;
+                }
+                // The localization is useless without the vendor list. The vendor list download is not cancelled since
+                // this is usually called from it.
+                if (localizationDownload != null) {
+                    localizationDownload.cancel(true);
+                }
+                finish();
+                failureCount++;
+                scheduleTimerIfNeeded(retryPolicy.getRetryInterval(failureCount, random));
+            }
+
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onVendorListUpdateFail(e);
+                }
+            });
+        }
+
+        void onLocalization(@Nullable VendorListLocalization localization) {
+            synchronized (VendorListManager.this) {
+                if (localizationDone) {
+                    // The deadline has been reached before the localization download ended.
+                    return;
+                }
+                if (localizationDeadline != null) {
+                    localizationDeadline.cancel(false);
+                }
+                this.localization = localization;
+                localizationDone = true;
+                deliverIfDone();
+            }
+        }
+
+        void onLocalizationStarted() {
+            synchronized (VendorListManager.this) {
+                if (localizationDone || over) {
+                    return;
+                }
+                // The deadline starts with the download, not when it is queued behind other tasks of the executor.
+                try {
+                    localizationDeadline = executor.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            onLocalizationDeadline();
+                        }
+                    }, LOCALIZATION_DEADLINE, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException ignored) {
+                    // The executor has been shut down, the refresh is cancelled with it.
+                }
+            }
+        }
+
+        void onLocalizationDeadline() {
+            synchronized (VendorListManager.this) {
+                if (localizationDone || over) {
+                    return;
+                }
+                if (localizationDownload != null) {
+                    localizationDownload.cancel(true);
+                }
+                // The vendor list is delivered without its localization.
+                onLocalization(null);
+            }
+        }
+
+        void cancel() {
+            over = true;
+            if (vendorListDownload != null) {
+                vendorListDownload.cancel(true);
+            }
+            if (localizationDownload != null) {
+                localizationDownload.cancel(true);
+            }
+            if (localizationDeadline != null) {
+                localizationDeadline.cancel(false);
+            }
+        }
+
+        private void finish() {
+            over = true;
+            if (localizationDeadline != null) {
+                localizationDeadline.cancel(false);
+            }
+            if (currentRefresh == this) {
+                currentRefresh = null;
+            }
+        }
+
+        private void deliverIfDone() {
+            if (over || vendorList == null || !localizationDone) {
+                return;
+            }
+
+            // Everything succeed, so we store the last vendor list refresh date.
+            lastRefreshDate = new Date(currentTimeMillis());
+            failureCount = 0;
+            finish();
+            scheduleTimerIfNeeded(refreshInterval);
+
+            final VendorList result = localization != null ? localization.localize(vendorList) : vendorList;
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onVendorListUpdateSuccess(result);
+                }
+            });
+        }
+    }
 
     /**
      * Initialize a VendorListManager that will download only the latest version of the vendor list.
@@ -71,12 +296,67 @@ public class VendorListManager {
      * @throws IllegalArgumentException if given language is not ISO 639-1.
      */
     public VendorListManager(@NonNull VendorListManagerListener listener, long refreshInterval, long retryInterval, @Nullable Language language, int vendorListVersion) throws IllegalArgumentException {
+        this(listener, refreshInterval, new RetryPolicy(retryInterval), language, vendorListVersion, newDefaultExecutor(), true);
+    }
+
+    /**
+     * Initialize a VendorListManager that will download only the latest version of the vendor list on the given executor.
+     *
+     * @param listener        The vendor list manager listener to call when the vendor list is downloaded or failed to be downloaded.
+     * @param refreshInterval Time between each refresh.
+     * @param retryPolicy     The policy giving the time between each unsuccessful refresh.
+     * @param language        The language wanted for the vendor list. Needs to be ISO-639-1.
+     * @param executor        The executor used to schedule refreshes & download vendor lists. It is not shut down by the manager.
+     * @throws IllegalArgumentException if given language is not ISO 639-1.
+     */
+    public VendorListManager(@NonNull VendorListManagerListener listener, long refreshInterval, @NonNull RetryPolicy retryPolicy, @Nullable Language language, @NonNull ScheduledExecutorService executor) throws IllegalArgumentException {
+        this(listener, refreshInterval, retryPolicy, language, -1, executor, false);
+    }
+
+    private VendorListManager(@NonNull VendorListManagerListener listener, long refreshInterval, @NonNull RetryPolicy retryPolicy, @Nullable Language language, int vendorListVersion, @NonNull ScheduledExecutorService executor, boolean ownsExecutor) throws IllegalArgumentException {
         this.listener = listener;
         this.refreshInterval = refreshInterval;
-        this.retryInterval = retryInterval;
+        this.retryPolicy = retryPolicy;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
         vendorListURL = vendorListVersion == -1 ? new VendorListURL(language) : new VendorListURL(vendorListVersion, language);
     }
 
+    /**
+     * Create the executor used by default to schedule refreshes & download vendor lists.
+     * <p>
+     * Its threads are stopped when idle, so it does not keep any thread alive while the automatic refresh is stopped.
+     *
+     * @return a new ScheduledExecutorService.
+     */
+    @NonNull
+    static public ScheduledExecutorService newDefaultExecutor() {
+        return newDefaultExecutor(DEFAULT_THREAD_COUNT);
+    }
+
+    /**
+     * Create an executor like the default one, with the given number of threads.
+     *
+     * @param threadCount The number of threads of the executor.
+     * @return a new ScheduledExecutorService.
+     */
+    @NonNull
+    static public ScheduledExecutorService newDefaultExecutor(int threadCount) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threadCount, new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                Thread thread = new Thread(runnable, DEFAULT_THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.setKeepAliveTime(DEFAULT_THREAD_KEEP_ALIVE, TimeUnit.MILLISECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * @return the refresh interval.
      */
@@ -96,104 +376,49 @@ public class VendorListManager {
     }
 
     /**
-     * Instantiate and return a new JSONAsyncTask used for the VendorList.
+     * Download and parse a vendor list. Called on the executor.
      * Explicitly defined for test purpose.
      *
-     * @param listener The listener to set to the JSONAsyncTask.
-     * @return a new JSONAsyncTask.
+     * @param url The URL of the vendor list.
+     * @return The downloaded vendor list, or null if the server answered with an unexpected status.
+     * @throws IOException   if the download fails or if the response is not valid JSON.
+     * @throws JSONException if a mandatory value is missing from the vendor list.
      */
     @VisibleForTesting
-    protected JSONAsyncTask getNewJSONAsyncTaskForVendorList(@NonNull JSONAsyncTaskListener listener) {
-        return new JSONAsyncTask(listener);
+    @Nullable
+    protected VendorList downloadVendorList(@NonNull String url) throws IOException, JSONException {
+        // Only the refreshed vendor list is revalidated, other versions are downloaded once by getVendorList.
+        return downloader.downloadVendorList(new URL(url), url.equals(vendorListURL.getURL()));
     }
 
     /**
-     * Instantiate and return a new JSONAsyncTask used for the localized VendorList.
+     * Download and parse a localized vendor list. Called on the executor.
      * Explicitly defined for test purpose.
      *
-     * @param listener The listener to set to the JSONAsyncTask.
-     * @return a new JSONAsyncTask.
+     * @param url The URL of the localized vendor list, null if no language has been set.
+     * @return The downloaded localized entries, or null if there are none.
+     * @throws IOException if the download fails or if the response is not valid JSON.
      */
     @VisibleForTesting
-    protected JSONAsyncTask getNewJSONAsyncTaskForLocalizedVendorList(@NonNull JSONAsyncTaskListener listener) {
-        return new JSONAsyncTask(listener);
-    }
-
-    /**
-     * Instantiate and return a new JSONAsyncTaskListener used for the download of the main vendor list.
-     *
-     * @return a new JSONAsyncTaskListener.
-     */
-    private JSONAsyncTaskListener getJSONAsyncTaskListenerForMainVendorList() {
-        return new JSONAsyncTaskListener() {
-            @Override
-            public void JSONAsyncTaskDidSucceedDownloadingJSONObject(@NonNull JSONObject vendorListJSON) {
-                long delay = retryInterval;
-
-                try {
-                    // We succeed to retrieve the vendor list JSON.
-                    // Now, we try to download the localized vendor list JSON.
-                    JSONAsyncTask jsonAsyncTask = getNewJSONAsyncTaskForLocalizedVendorList(getJSONAsyncTaskListenerForLocalizedVendorList(vendorListJSON));
-
-                    //noinspection unchecked
-                    jsonAsyncTask.execute(vendorListURL.getLocalizedURL());
-
-                    // Everything succeed, so we store the last vendor list refresh date.
-                    lastRefreshDate = new Date();
-                    delay = refreshInterval;
-                } catch (Exception e) {
-                    downloadingVendorsList = false;
-                    listener.onVendorListUpdateFail(e);
-                }
-
-                scheduleTimerIfNeeded(delay);
-            }
-
-            @Override
-            public void JSONAsyncTaskDidFailDownloadingJSONObject() {
-                downloadingVendorsList = false;
-                listener.onVendorListUpdateFail(new NetworkErrorException());
-                scheduleTimerIfNeeded(retryInterval);
-            }
-        };
+    @Nullable
+    protected VendorListLocalization downloadLocalization(@Nullable String url) throws IOException {
+        return url != null ? localizationDownloader.downloadLocalization(new URL(url)) : null;
     }
 
     /**
-     * Instantiate and return a new JSONAsyncTaskListener used for the download of the localized vendor list.
-     *
-     * @return a new JSONAsyncTaskListener.
+     * @return the current time in milliseconds, used to compute the time before the next refresh.
+     * Explicitly defined for test purpose.
      */
-    private JSONAsyncTaskListener getJSONAsyncTaskListenerForLocalizedVendorList(@NonNull final JSONObject vendorListJSON) {
-        return new JSONAsyncTaskListener() {
-            @Override
-            public void JSONAsyncTaskDidSucceedDownloadingJSONObject(@NonNull JSONObject localizedVendorListJSON) {
-                downloadingVendorsList = false;
-                try {
-                    listener.onVendorListUpdateSuccess(new VendorList(vendorListJSON, localizedVendorListJSON));
-                } catch (Exception e) {
-                    listener.onVendorListUpdateFail(e);
-                }
-            }
-
-            @Override
-            public void JSONAsyncTaskDidFailDownloadingJSONObject() {
-                // We failed to get the localized vendor list.
-                downloadingVendorsList = false;
-                try {
-                    listener.onVendorListUpdateSuccess(new VendorList(vendorListJSON));
-                } catch (Exception e) {
-                    listener.onVendorListUpdateFail(e);
-                }
-            }
-        };
+    @VisibleForTesting
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
     }
 
     /**
      * Enable the automatic refresh.
      */
-    public void startAutomaticRefresh(boolean forceFirstRefresh) {
-
-        timer = new Timer();
+    synchronized public void startAutomaticRefresh(boolean forceFirstRefresh) {
+        automaticRefresh = true;
 
         // to force refresh, simply erase the last refresh date
         if (forceFirstRefresh) {
@@ -202,38 +427,57 @@ public class VendorListManager {
 
         // refresh the vendor list if needed.
         refreshVendorListIfNeeded();
+    }
+
+    /**
+     * Disable the automatic refresh, cancelling the scheduled refresh and the downloads in progress.
+     */
+    synchronized public void stopAutomaticRefresh() {
+        automaticRefresh = false;
 
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+
+        if (currentRefresh != null) {
+            currentRefresh.cancel();
+            currentRefresh = null;
+        }
+
+        // Remove the cancelled tasks from the executor queue right away instead of when they would have run.
+        if (executor instanceof ThreadPoolExecutor) {
+            ((ThreadPoolExecutor) executor).purge();
+        }
     }
 
     /**
-     * Disable the automatic refresh by cancelling the timer.
+     * Stop the automatic refresh and release the executor if it is owned by this manager.
+     * The manager must not be used anymore after this call.
      */
-    public void stopAutomaticRefresh() {
-        timer.cancel();
-        downloadingVendorsList = false;
-        timer = null;
+    public void shutdown() {
+        stopAutomaticRefresh();
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
     }
 
     /**
      * Reset the timer to refresh the vendor list sooner but not immediately.
      */
     public void resetTimer() {
-        // Reset the timer
-        timer.cancel();
-        timer = new Timer();
-
         // reschedule the timer to refresh the vendor sooner.
-        scheduleTimerIfNeeded(retryInterval);
+        scheduleTimerIfNeeded(retryPolicy.getInitialInterval());
     }
 
     /**
      * Refresh the vendor list from network only if needed.
      */
-    private void refreshVendorListIfNeeded() {
+    synchronized private void refreshVendorListIfNeeded() {
         // Compute the time before the next needed refresh.
         long remainingTime = 0;
         if (lastRefreshDate != null) {
-            remainingTime = lastRefreshDate.getTime() + refreshInterval - new Date().getTime();
+            remainingTime = lastRefreshDate.getTime() + refreshInterval - currentTimeMillis();
         }
 
         //Need to refresh as we have reached the refresh date.
@@ -247,54 +491,178 @@ public class VendorListManager {
     /**
      * Refresh the vendor list from the network.
      */
-    @SuppressWarnings("unchecked")
-    public void refreshVendorList() {
-        if (!downloadingVendorsList) {
-            downloadingVendorsList = true;
-            JSONAsyncTask jsonAsyncTask = getNewJSONAsyncTaskForVendorList(getJSONAsyncTaskListenerForMainVendorList());
-            jsonAsyncTask.execute(vendorListURL.getURL());
+    synchronized public void refreshVendorList() {
+        if (currentRefresh != null) {
+            return;
+        }
+
+        final RefreshJoin join = new RefreshJoin();
+        currentRefresh = join;
+
+        try {
+            // The vendor list & its localization are downloaded at the same time.
+            join.vendorListDownload = executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        VendorList vendorList = downloadVendorList(vendorListURL.getURL());
+                        if (vendorList != null) {
+                            join.onVendorList(vendorList);
+                        } else {
+                            join.onVendorListFailure(new NetworkErrorException());
+                        }
+                    } catch (IOException e) {
+                        join.onVendorListFailure(e);
+                    } catch (JSONException e) {
+                        join.onVendorListFailure(e);
+                    } catch (RuntimeException e) {
+                        // Reported like any other failure, so the refresh is always over and retried.
+                        join.onVendorListFailure(e);
+                    }
+                }
+            });
+
+            join.localizationDownload = executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    join.onLocalizationStarted();
+
+                    VendorListLocalization localization = null;
+                    try {
+                        localization = downloadLocalization(vendorListURL.getLocalizedURL());
+                    } catch (IOException ignored) {
+                        // We failed to get the localized vendor list (or timed out): the vendor list is used as is.
+                    } catch (RuntimeException ignored) {
+                        // Same as above, the refresh must not wait for a localization that will never come.
+                    }
+                    join.onLocalization(localization);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The executor has been shut down.
+            join.cancel();
+            currentRefresh = null;
         }
     }
 
+    /**
+     * Restore a previously retrieved vendor list with the HTTP validators of the responses it comes from, so the next
+     * refresh only downloads it again if it has changed on the server.
+     * <p>
+     * Note: the localized vendor list is always downloaded again, since only the localized result is persisted.
+     *
+     * @param vendorList The previously retrieved vendor list, localized if it was.
+     * @param validators The validators returned by exportValidators when the vendor list was retrieved.
+     */
+    public void restoreVendorList(@NonNull VendorList vendorList, @NonNull Properties validators) {
+        downloader.restoreValidators(validators, vendorListURL.getURL(), vendorList);
+    }
+
+    /**
+     * @return The HTTP validators of the last retrieved vendor list, to persist with it.
+     */
+    @NonNull
+    public Properties exportValidators() {
+        return downloader.exportValidators(vendorListURL.getURL());
+    }
+
     /**
      * Get the vendor list with the given vendor list version.
+     * <p>
+     * Concurrent calls for the same version share a single download: every listener is called with its result.
      *
      * @param vendorListVersion The vendor list version that must be downloaded.
      * @param listener          The listener that must be called.
      */
-    @SuppressWarnings("unchecked")
-    public void getVendorList(int vendorListVersion, @NonNull final VendorListManagerListener listener) {
-        JSONAsyncTask jsonAsyncTask = getNewJSONAsyncTaskForVendorList(new JSONAsyncTaskListener() {
-            @Override
-            public void JSONAsyncTaskDidSucceedDownloadingJSONObject(@NonNull JSONObject JSON) {
-                try {
-                    listener.onVendorListUpdateSuccess(new VendorList(JSON));
-                } catch (Exception e) {
-                    listener.onVendorListUpdateFail(e);
-                }
-            }
-
-            @Override
-            public void JSONAsyncTaskDidFailDownloadingJSONObject() {
-                listener.onVendorListUpdateFail(new NetworkErrorException());
+    public void getVendorList(int vendorListVersion, @NonNull VendorListManagerListener listener) {
+        final String url = new VendorListURL(vendorListVersion, null).getURL();
+
+        synchronized (pendingDownloads) {
+            ArrayList<VendorListManagerListener> listeners = pendingDownloads.get(url);
+            if (listeners != null) {
+                // This vendor list is already being downloaded, the listener will get the same result.
+                listeners.add(listener);
+                return;
             }
-        });
 
-        jsonAsyncTask.execute(new VendorListURL(vendorListVersion, null).getURL());
+            listeners = new ArrayList<>();
+            listeners.add(listener);
+            pendingDownloads.put(url, listeners);
+        }
 
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    VendorList vendorList = null;
+                    Exception exception = null;
+                    try {
+                        vendorList = downloadVendorList(url);
+                        if (vendorList == null) {
+                            exception = new NetworkErrorException();
+                        }
+                    } catch (IOException e) {
+                        exception = e;
+                    } catch (JSONException e) {
+                        exception = e;
+                    } catch (RuntimeException e) {
+                        // Reported like any other failure, so the pending download is always cleared.
+                        exception = e;
+                    }
+
+                    // Listeners added from now on will start a new download.
+                    final ArrayList<VendorListManagerListener> listeners;
+                    synchronized (pendingDownloads) {
+                        listeners = pendingDownloads.remove(url);
+                    }
+
+                    final VendorList result = vendorList;
+                    final Exception e = exception;
+                    mainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            for (VendorListManagerListener listener : listeners) {
+                                if (result != null) {
+                                    listener.onVendorListUpdateSuccess(result);
+                                } else {
+                                    listener.onVendorListUpdateFail(e);
+                                }
+                            }
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The executor has been shut down.
+            synchronized (pendingDownloads) {
+                pendingDownloads.remove(url);
+            }
+            throw e;
+        }
     }
 
     /**
-     * Schedule the timer only if automatic refresh is enable.
+     * Schedule the next refresh only if automatic refresh is enable, replacing the previously scheduled one.
      */
-    private void scheduleTimerIfNeeded(long delay) {
-        if (timer != null) {
-            timer.schedule(new TimerTask() {
+    synchronized private void scheduleTimerIfNeeded(long delay) {
+        if (!automaticRefresh) {
+            return;
+        }
+
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+
+        try {
+            scheduledRefresh = executor.schedule(new Runnable() {
                 @Override
                 public void run() {
                     refreshVendorListIfNeeded();
                 }
-            }, delay);
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The executor has been shut down.
+            scheduledRefresh = null;
         }
     }
 }